@@ -0,0 +1,924 @@
+// ============================================================================
+// Department API Template - ASP.NET Core (async) Implementation
+//
+// Same endpoint as DepartmentAPI-Template.cs, for ASP.NET Core (.NET 6 or
+// later). Every step is asynchronous: the request body is read through the
+// request PipeReader, your database lookup is awaited and the encrypted
+// response is written straight to the response PipeWriter. No thread is held
+// while waiting on the network or the database, so a small server can serve
+// many more concurrent Aaple Sarkar calls.
+//
+// USAGE:
+// 1. Copy this file, TrackApplicationCrypto.cs and TrackApplicationCaching.cs
+//    to your ASP.NET Core project
+//    (use this file INSTEAD of DepartmentAPI-Template.cs)
+// 2. Implement IApplicationStatusProvider (see SampleApplicationStatusProvider)
+// 3. Register it and map the endpoint in Program.cs:
+//
+//      builder.Services.AddScoped<IApplicationStatusProvider, YourStatusProvider>();
+//
+//      app.MapTrackApplicationApi(new TrackApplicationApiOptions
+//      {
+//          EncryptionKey = builder.Configuration["TrackApplicationAPI:EncryptionKey"],
+//          EncryptionIV = builder.Configuration["TrackApplicationAPI:EncryptionIV"]
+//      }); // .RequireAuthorization(...) etc. also covers the bulk route
+//
+// 4. Optional: cache encrypted responses. Register a cache and invalidate an
+//    application from your own workflow whenever it changes:
+//
+//      builder.Services.AddSingleton(new EncryptedResponseCache(TimeSpan.FromMinutes(10)));
+//      ...
+//      _responseCache.InvalidateApplication(appId); // after a desk action
+//
+// 5. Load service names once; they are kept in memory and refreshed in the
+//    background (or on demand, e.g. from a configuration change token):
+//
+//      builder.Services.AddSingleton(await ServiceCatalog.CreateAsync(
+//          ct => LoadServiceNamesFromYourDatabaseAsync(ct), TimeSpan.FromHours(1)));
+//      ...
+//      ChangeToken.OnChange(config.GetReloadToken, () => _ = catalog.RefreshAsync());
+//
+// 6. Deploy
+//
+// The template handles:
+// - Request decryption
+// - Response encryption
+// - Validation
+// - Error handling
+// - Specification compliance
+// ============================================================================
+
+using System;
+using System.Buffers;
+using System.Collections.Generic;
+using System.IO.Pipelines;
+using System.Linq;
+using System.Text.Encodings.Web;
+using System.Text.Json;
+using System.Threading;
+using System.Threading.Tasks;
+using MaharashtraGov.TrackApplicationAPI;
+using MaharashtraGov.TrackApplicationAPI.Crypto;
+using Microsoft.AspNetCore.Builder;
+using Microsoft.AspNetCore.Http;
+using Microsoft.AspNetCore.Routing;
+using Microsoft.Extensions.DependencyInjection;
+using Microsoft.Extensions.Logging;
+
+namespace YourDepartment.TrackApplicationAPI
+{
+    // ========================================================================
+    // YOUR IMPLEMENTATION - Implement this interface with your database logic
+    // ========================================================================
+
+    /// <summary>
+    /// Loads application status from YOUR database.
+    /// Registered in dependency injection; scoped lifetime works with a DbContext.
+    /// Load each application together with its desk reviews in ONE query (a join
+    /// or EF Core Include); StatusAssembler turns joined rows into responses.
+    /// </summary>
+    public interface IApplicationStatusProvider
+    {
+        /// <summary>
+        /// Get application status, or null if the application does not exist
+        /// (throwing ApplicationNotFoundException also works)
+        /// </summary>
+        ValueTask<ApplicationStatusResponse> GetApplicationStatusAsync(
+            ApplicationStatusRequest request,
+            CancellationToken cancellationToken);
+
+        /// <summary>
+        /// Get many applications at once, in request order: result i answers
+        /// request i, null if that application does not exist. The same AppID
+        /// may appear more than once (e.g. in another Language). Used by the
+        /// bulk endpoint. Override with a single query (WHERE AppID IN (...));
+        /// the default loads one at a time.
+        /// </summary>
+        async ValueTask<IReadOnlyList<ApplicationStatusResponse>> GetApplicationStatusesAsync(
+            IReadOnlyList<ApplicationStatusRequest> requests,
+            CancellationToken cancellationToken)
+        {
+            var results = new ApplicationStatusResponse[requests.Count];
+            for (int i = 0; i < results.Length; i++)
+            {
+                try
+                {
+                    results[i] = await GetApplicationStatusAsync(requests[i], cancellationToken);
+                }
+                catch (ApplicationNotFoundException)
+                {
+                    // Left null: reported as not found
+                }
+            }
+            return results;
+        }
+    }
+
+    /// <summary>
+    /// Example provider: one round trip per call, for one or many applications
+    /// ⚠️ REPLACE WITH YOUR DATABASE LOGIC ⚠️
+    /// </summary>
+    public class SampleApplicationStatusProvider : IApplicationStatusProvider
+    {
+        private readonly ServiceCatalog _serviceNames;
+
+        public SampleApplicationStatusProvider(ServiceCatalog serviceNames)
+        {
+            _serviceNames = serviceNames;
+        }
+
+        public async ValueTask<ApplicationStatusResponse> GetApplicationStatusAsync(
+            ApplicationStatusRequest request,
+            CancellationToken cancellationToken)
+        {
+            var results = await GetApplicationStatusesAsync(new[] { request }, cancellationToken);
+            return results[0];
+        }
+
+        public async ValueTask<IReadOnlyList<ApplicationStatusResponse>> GetApplicationStatusesAsync(
+            IReadOnlyList<ApplicationStatusRequest> requests,
+            CancellationToken cancellationToken)
+        {
+            // ============================================================
+            // TODO: Replace this with your actual (async) database query
+            // ============================================================
+
+            // Example with EF Core: applications and their ordered reviews in
+            // one query (no second query for reviews)
+            // var ids = requests.Select(r => r.AppID).ToList();
+            // var records = await _dbContext.Applications
+            //     .Where(a => ids.Contains(a.ApplicationID))
+            //     .Include(a => a.Reviews.OrderBy(r => r.DeskNumber))
+            //     .AsNoTracking()
+            //     .ToListAsync(cancellationToken);
+            // var byId = records.ToDictionary(a => a.ApplicationID, StringComparer.OrdinalIgnoreCase);
+            // return requests
+            //     .Select(r => byId.TryGetValue(r.AppID, out var a) ? ToResponse(a, r) : null)
+            //     .ToArray(); // one response per request: ServiceName follows r.Language
+            //
+            // Example with plain SQL (e.g. Dapper): one joined result set
+            // var rows = await connection.QueryAsync<StatusRow>(
+            //     @"SELECT a.*, r.DeskNumber, r.ReviewerName, r.ReviewedDate, r.Comments
+            //       FROM Applications a LEFT JOIN Reviews r ON r.ApplicationID = a.ApplicationID
+            //       WHERE a.ApplicationID IN @ids
+            //       ORDER BY a.ApplicationID, r.DeskNumber", new { ids });
+            //
+            // var byId = StatusAssembler.FromJoinedRows(rows,
+            //     row => row.ApplicationID,
+            //     row => new ApplicationStatusResponse { ... application columns ... },
+            //     row => row.DeskNumber == null ? null : new DeskDetail { ... review columns ... },
+            //     StringComparer.OrdinalIgnoreCase);
+            // then one response per request from byId, as above
+
+            await Task.CompletedTask; // Placeholder for the query above
+
+            // Rows keyed by request position, so a repeated AppID in another
+            // Language gets its own response
+            var rows = requests.SelectMany((request, index) => new[]
+            {
+                new SampleRow { Index = index, Request = request, DeskNumber = 1, ReviewedDate = DateTime.Now.AddDays(-2) },
+                new SampleRow { Index = index, Request = request, DeskNumber = 2 }
+            });
+
+            var byIndex = StatusAssembler.FromJoinedRows(
+                rows,
+                row => row.Index,
+                row => new ApplicationStatusResponse
+                {
+                    // Basic application info
+                    ApplicationID = row.Request.AppID,
+                    ServiceName = GetServiceName(row.Request.ServiceID, row.Request.Language),
+                    ApplicantName = "Get from your database", // row.ApplicantName
+                    EstimatedDisbursalDays = 7, // From your database
+
+                    // Dates (format: DD-MMM-YYYY,HH:mm:ss or empty string)
+                    ApplicationSubmissionDate = StatusFormat.Date(DateTime.Now), // row.SubmittedDate
+                    ApplicationPaymentDate = "", // Empty if not paid, otherwise formatted date
+
+                    // Action required
+                    NextActionRequiredDetails = "", // Empty if no action needed
+
+                    // Final decision: "0" = Approved, "1" = Rejected, "2" = Pending, "" = Not decided
+                    FinalDecision = "2", // From your database
+
+                    // Optional department URL
+                    DepartmentRedirectionURL = "",
+
+                    // Workflow tracking
+                    TotalNumberOfDesks = 3, // From your workflow configuration
+                    CurrentDeskNumber = 2, // From your database
+                    NextDeskNumber = 3 // From your workflow
+                },
+                row => row.ReviewedDate == null ? null : new DeskDetail
+                {
+                    DeskNumber = $"Desk {row.DeskNumber}",
+                    ReviewActionBy = "Officer Name", // row.ReviewerName ?? ""
+                    ReviewActionDateTime = StatusFormat.Date(row.ReviewedDate),
+                    ReviewActionDetails = "Documents verified" // row.Comments ?? ""
+                });
+
+            var results = new ApplicationStatusResponse[requests.Count];
+            for (int i = 0; i < results.Length; i++)
+                results[i] = byIndex.TryGetValue(i, out var response) ? response : null;
+            return results;
+        }
+
+        /// <summary>
+        /// Service name from the catalog (created with ServiceCatalog.CreateAsync,
+        /// so already loaded). A missing service is an error, never shown as its ID.
+        /// </summary>
+        private string GetServiceName(string serviceId, string language)
+        {
+            return _serviceNames.GetName(serviceId, language)
+                ?? throw new InvalidOperationException($"No service name for ServiceID {serviceId}");
+        }
+
+        private class SampleRow
+        {
+            public int Index { get; set; }
+            public ApplicationStatusRequest Request { get; set; }
+            public int DeskNumber { get; set; }
+            public DateTime? ReviewedDate { get; set; }
+        }
+    }
+
+    /// <summary>
+    /// Builds responses from one joined query (application columns repeated on
+    /// every review row, ordered by application then desk)
+    /// </summary>
+    public static class StatusAssembler
+    {
+        /// <param name="key">Which response a row belongs to (e.g. AppID, or request position)</param>
+        /// <param name="createApplication">Response from the first row of an application (without DeskDetails)</param>
+        /// <param name="createDesk">Desk detail of a row, or null if the row has no review (LEFT JOIN)</param>
+        /// <param name="comparer">Key comparer (default: EqualityComparer default)</param>
+        public static IReadOnlyDictionary<TKey, ApplicationStatusResponse> FromJoinedRows<TRow, TKey>(
+            IEnumerable<TRow> rows,
+            Func<TRow, TKey> key,
+            Func<TRow, ApplicationStatusResponse> createApplication,
+            Func<TRow, DeskDetail> createDesk,
+            IEqualityComparer<TKey> comparer = null)
+        {
+            var results = new Dictionary<TKey, ApplicationStatusResponse>(comparer);
+            var desks = new Dictionary<TKey, List<DeskDetail>>(comparer);
+
+            foreach (var row in rows)
+            {
+                var id = key(row);
+                if (!desks.TryGetValue(id, out var list))
+                {
+                    results[id] = createApplication(row);
+                    desks[id] = list = new List<DeskDetail>();
+                }
+
+                var desk = createDesk(row);
+                if (desk != null)
+                    list.Add(desk);
+            }
+
+            // Reviews stay in query order (ascending desk)
+            foreach (var entry in desks)
+                results[entry.Key].DeskDetails = entry.Value.ToArray();
+
+            return results;
+        }
+    }
+
+    // ========================================================================
+    // CONFIGURATION
+    // ========================================================================
+
+    public class TrackApplicationApiOptions
+    {
+        /// <summary>
+        /// 24-character key (from Aaple Sarkar team)
+        /// </summary>
+        public string EncryptionKey { get; set; }
+
+        /// <summary>
+        /// 8-character IV (from Aaple Sarkar team)
+        /// </summary>
+        public string EncryptionIV { get; set; }
+
+        /// <summary>
+        /// Endpoint path (default: /api/SampleAPI/sendappstatus_encrypted)
+        /// </summary>
+        public string Route { get; set; } = "/api/SampleAPI/sendappstatus_encrypted";
+
+        /// <summary>
+        /// Larger request bodies are rejected with 413 (default: 64 KB)
+        /// </summary>
+        public int MaxRequestBodySize { get; set; } = 64 * 1024;
+
+        /// <summary>
+        /// Also map the bulk endpoint: an encrypted JSON array of requests in,
+        /// an encrypted JSON array of results out. Not part of the V3
+        /// specification; enable only when agreed with Aaple Sarkar (default: false)
+        /// </summary>
+        public bool EnableBulkEndpoint { get; set; } = false;
+
+        /// <summary>
+        /// Bulk endpoint path (default: /api/SampleAPI/sendappstatus_encrypted_bulk)
+        /// </summary>
+        public string BulkRoute { get; set; } = "/api/SampleAPI/sendappstatus_encrypted_bulk";
+
+        /// <summary>
+        /// Most applications in one bulk request (default: 100)
+        /// </summary>
+        public int MaxBulkRequests { get; set; } = 100;
+    }
+
+    // ========================================================================
+    // API ENDPOINT - This is what Aaple Sarkar will call
+    // ========================================================================
+
+    public static class TrackApplicationEndpoints
+    {
+        /// <summary>
+        /// Map POST {options.Route} (encrypted request/response), and
+        /// POST {options.BulkRoute} when EnableBulkEndpoint is set. Conventions
+        /// on the returned builder (e.g. RequireAuthorization) apply to both.
+        /// </summary>
+        public static IEndpointConventionBuilder MapTrackApplicationApi(
+            this IEndpointRouteBuilder endpoints,
+            TrackApplicationApiOptions options)
+        {
+            if (options == null)
+                throw new ArgumentNullException(nameof(options));
+
+            var handler = new TrackApplicationHandler(
+                options,
+                endpoints.ServiceProvider.GetRequiredService<ILoggerFactory>().CreateLogger<TrackApplicationHandler>(),
+                endpoints.ServiceProvider.GetService<EncryptedResponseCache>());
+
+            var single = endpoints.MapPost(options.Route, (RequestDelegate)handler.HandleAsync);
+            if (!options.EnableBulkEndpoint)
+                return single;
+
+            var bulk = endpoints.MapPost(options.BulkRoute, (RequestDelegate)handler.HandleBulkAsync);
+            return new CompositeConventionBuilder(single, bulk);
+        }
+
+        /// <summary>
+        /// Applies every convention to all mapped routes
+        /// </summary>
+        private sealed class CompositeConventionBuilder : IEndpointConventionBuilder
+        {
+            private readonly IEndpointConventionBuilder[] _builders;
+
+            public CompositeConventionBuilder(params IEndpointConventionBuilder[] builders)
+            {
+                _builders = builders;
+            }
+
+            public void Add(Action<EndpointBuilder> convention)
+            {
+                foreach (var builder in _builders)
+                    builder.Add(convention);
+            }
+
+#if NET7_0_OR_GREATER
+            public void Finally(Action<EndpointBuilder> finallyConvention)
+            {
+                foreach (var builder in _builders)
+                    builder.Finally(finallyConvention);
+            }
+#endif
+        }
+    }
+
+    /// <summary>
+    /// Handles encrypted status requests end to end without blocking
+    /// </summary>
+    public sealed class TrackApplicationHandler
+    {
+        // Same wire format as Newtonsoft: CLR property names, nulls included,
+        // Marathi text written unescaped
+        private static readonly JsonSerializerOptions JsonOptions = new JsonSerializerOptions
+        {
+            Encoder = JavaScriptEncoder.UnsafeRelaxedJsonEscaping,
+            PropertyNameCaseInsensitive = true
+        };
+
+        private static readonly JsonWriterOptions JsonWriterOptions = new JsonWriterOptions
+        {
+            Encoder = JavaScriptEncoder.UnsafeRelaxedJsonEscaping
+        };
+
+        // {"data":"  and  "}
+        private const int EnvelopeOverhead = 11;
+
+        private readonly TripleDesCryptoEngine _cryptoEngine;
+        private readonly TrackApplicationApiOptions _options;
+        private readonly ILogger _logger;
+        private readonly EncryptedResponseCache _cache;
+
+        /// <param name="cache">Optional; when set, finished envelopes are reused until
+        /// the department calls cache.InvalidateApplication(appId)</param>
+        public TrackApplicationHandler(TrackApplicationApiOptions options, ILogger logger, EncryptedResponseCache cache = null)
+        {
+            _options = options ?? throw new ArgumentNullException(nameof(options));
+            _logger = logger;
+            _cache = cache;
+
+            // Created once per application; matches Aaple Sarkar's TripleDES implementation
+            _cryptoEngine = new TripleDesCryptoEngine(options.EncryptionKey, options.EncryptionIV);
+        }
+
+        /// <summary>
+        /// Get application status (encrypted request/response)
+        /// </summary>
+        public async Task HandleAsync(HttpContext context)
+        {
+            var cancellationToken = context.RequestAborted;
+
+            try
+            {
+                // Steps 1-3: Read, decrypt and parse request
+                var request = await ReadEncryptedAsync<ApplicationStatusRequest>(context);
+                if (!request.Succeeded)
+                    return;
+
+                // Step 4: Validate request fields
+                var validationError = StatusValidation.ValidateRequest(request.Value);
+                if (validationError != null)
+                {
+                    await WriteErrorAsync(context, StatusCodes.Status400BadRequest, validationError);
+                    return;
+                }
+
+                // Cached envelope: no database, serialization or encryption
+                if (_cache != null && _cache.TryGet(request.Value.AppID, request.Value.ServiceID, request.Value.Language, out var cached))
+                {
+                    await WriteEnvelopeAsync(context, cached);
+                    return;
+                }
+
+                // Read before the database so a change made meanwhile is not cached
+                long invalidationStamp = _cache?.InvalidationStamp ?? 0;
+
+                // Step 5: Get application data (application and desk reviews in one round trip)
+                ApplicationStatusResponse response;
+                try
+                {
+                    var provider = context.RequestServices.GetRequiredService<IApplicationStatusProvider>();
+                    response = await provider.GetApplicationStatusAsync(request.Value, cancellationToken);
+                }
+                catch (ApplicationNotFoundException)
+                {
+                    response = null;
+                }
+                catch (Exception ex) when (!(ex is OperationCanceledException && cancellationToken.IsCancellationRequested))
+                {
+                    _logger.LogError("Database error: {Message}", ex.Message);
+                    await WriteErrorAsync(context, StatusCodes.Status500InternalServerError, "Internal server error");
+                    return;
+                }
+
+                if (response == null)
+                {
+                    await WriteErrorAsync(context, StatusCodes.Status404NotFound, "Application not found");
+                    return;
+                }
+
+                // Step 6: Validate response (ensure it meets specification)
+                var responseValidationError = StatusValidation.ValidateResponse(response);
+                if (responseValidationError != null)
+                {
+                    _logger.LogError("Response validation failed: {Error}", responseValidationError);
+                    await WriteErrorAsync(context, StatusCodes.Status500InternalServerError, "Invalid response data");
+                    return;
+                }
+
+                // Steps 7-9: Serialize, encrypt and return
+                await WriteEncryptedAsync(context, response, request.Value, invalidationStamp);
+            }
+            catch (OperationCanceledException) when (cancellationToken.IsCancellationRequested)
+            {
+                // Caller went away; nothing to send
+            }
+            catch (Exception ex)
+            {
+                _logger.LogError(ex, "Unexpected error");
+                if (!context.Response.HasStarted)
+                    await WriteErrorAsync(context, StatusCodes.Status500InternalServerError, "An unexpected error occurred");
+            }
+        }
+
+        /// <summary>
+        /// Get many application statuses with one database round trip
+        /// (encrypted JSON array in, encrypted JSON array of BulkStatusResult out)
+        /// </summary>
+        public async Task HandleBulkAsync(HttpContext context)
+        {
+            var cancellationToken = context.RequestAborted;
+
+            try
+            {
+                var requests = await ReadEncryptedAsync<ApplicationStatusRequest[]>(context);
+                if (!requests.Succeeded)
+                    return;
+
+                if (requests.Value == null || requests.Value.Length == 0 || requests.Value.Length > _options.MaxBulkRequests)
+                {
+                    await WriteErrorAsync(context, StatusCodes.Status400BadRequest,
+                        $"Between 1 and {_options.MaxBulkRequests} requests are allowed");
+                    return;
+                }
+
+                // Invalid entries get an error result; the rest go to the database together
+                var results = new BulkStatusResult[requests.Value.Length];
+                var valid = new List<ApplicationStatusRequest>(requests.Value.Length);
+                var validResults = new List<BulkStatusResult>(requests.Value.Length);
+
+                for (int i = 0; i < results.Length; i++)
+                {
+                    var request = requests.Value[i];
+                    results[i] = new BulkStatusResult { AppID = request?.AppID, Error = StatusValidation.ValidateRequest(request) };
+                    if (results[i].Error == null)
+                    {
+                        valid.Add(request);
+                        validResults.Add(results[i]);
+                    }
+                }
+
+                IReadOnlyList<ApplicationStatusResponse> statuses;
+                try
+                {
+                    var provider = context.RequestServices.GetRequiredService<IApplicationStatusProvider>();
+                    statuses = valid.Count > 0
+                        ? await provider.GetApplicationStatusesAsync(valid, cancellationToken)
+                        : Array.Empty<ApplicationStatusResponse>();
+
+                    if (statuses == null || statuses.Count != valid.Count)
+                        throw new InvalidOperationException(
+                            $"Provider returned {statuses?.Count ?? 0} results for {valid.Count} requests");
+                }
+                catch (Exception ex) when (!(ex is OperationCanceledException && cancellationToken.IsCancellationRequested))
+                {
+                    _logger.LogError("Database error: {Message}", ex.Message);
+                    await WriteErrorAsync(context, StatusCodes.Status500InternalServerError, "Internal server error");
+                    return;
+                }
+
+                for (int i = 0; i < validResults.Count; i++)
+                {
+                    var result = validResults[i];
+                    var status = statuses[i];
+
+                    if (status == null)
+                    {
+                        result.Error = "Application not found";
+                        continue;
+                    }
+
+                    var responseValidationError = StatusValidation.ValidateResponse(status);
+                    if (responseValidationError != null)
+                    {
+                        _logger.LogError("Response validation failed for {AppID}: {Error}", result.AppID, responseValidationError);
+                        result.Error = "Invalid response data";
+                        continue;
+                    }
+
+                    result.Status = status;
+                }
+
+                await WriteEncryptedAsync(context, results);
+            }
+            catch (OperationCanceledException) when (cancellationToken.IsCancellationRequested)
+            {
+                // Caller went away; nothing to send
+            }
+            catch (Exception ex)
+            {
+                _logger.LogError(ex, "Unexpected error");
+                if (!context.Response.HasStarted)
+                    await WriteErrorAsync(context, StatusCodes.Status500InternalServerError, "An unexpected error occurred");
+            }
+        }
+
+        /// <summary>
+        /// Read the body from the request pipe, decrypt and parse it in place inside
+        /// one pooled buffer. On failure the error response is already written.
+        /// </summary>
+        private async ValueTask<ReadResult<T>> ReadEncryptedAsync<T>(HttpContext context)
+        {
+            using (var body = new PooledBufferWriter())
+            {
+                if (!await ReadBodyAsync(context.Request.BodyReader, body, _options.MaxRequestBodySize, context.RequestAborted))
+                {
+                    await WriteErrorAsync(context, StatusCodes.Status413PayloadTooLarge, "Request too large");
+                    return ReadResult<T>.Failure;
+                }
+
+                // Step 1: Validate encrypted request
+                if (!EncryptedEnvelope.TryFindData(body.WrittenSpan, out int offset, out int length) || length == 0)
+                {
+                    await WriteErrorAsync(context, StatusCodes.Status400BadRequest, "Invalid request format");
+                    return ReadResult<T>.Failure;
+                }
+
+                // Step 2: Decrypt request
+                int decryptedLength;
+                try
+                {
+                    decryptedLength = EncryptedEnvelope.OpenInPlace(_cryptoEngine, body.WrittenSpan.Slice(offset, length));
+                }
+                catch (Exception ex)
+                {
+                    _logger.LogError("Decryption failed: {Message}", ex.Message);
+                    await WriteErrorAsync(context, StatusCodes.Status400BadRequest, "Failed to decrypt request");
+                    return ReadResult<T>.Failure;
+                }
+
+                // Step 3: Parse request
+                try
+                {
+                    return new ReadResult<T>(JsonSerializer.Deserialize<T>(
+                        body.WrittenSpan.Slice(offset, decryptedLength),
+                        JsonOptions
+                    ));
+                }
+                catch (Exception ex)
+                {
+                    _logger.LogError("JSON parsing failed: {Message}", ex.Message);
+                    await WriteErrorAsync(context, StatusCodes.Status400BadRequest, "Invalid request format");
+                    return ReadResult<T>.Failure;
+                }
+            }
+        }
+
+        /// <summary>
+        /// Serialize to UTF-8 JSON in a pooled buffer, encrypt in place and write
+        /// {"data":"HEX"} straight into the response pipe. With a cache and
+        /// cacheFor set, the envelope is also stored for that request.
+        /// </summary>
+        private async Task WriteEncryptedAsync<T>(HttpContext context, T value,
+            ApplicationStatusRequest cacheFor = null, long invalidationStamp = 0)
+        {
+            using (var json = new PooledBufferWriter())
+            {
+                // Step 7: Serialize response to JSON
+                using (var writer = new Utf8JsonWriter(json, JsonWriterOptions))
+                {
+                    JsonSerializer.Serialize(writer, value, JsonOptions);
+                }
+
+                // Step 8: Encrypt response in place
+                int cipherLength;
+                try
+                {
+                    cipherLength = _cryptoEngine.EncryptInPlace(json);
+                }
+                catch (Exception ex)
+                {
+                    _logger.LogError("Encryption failed: {Message}", ex.Message);
+                    await WriteErrorAsync(context, StatusCodes.Status500InternalServerError, "Failed to encrypt response");
+                    return;
+                }
+
+                if (_cache != null && cacheFor != null)
+                {
+                    using (var envelope = new PooledBufferWriter(EnvelopeOverhead + HexCodec.GetEncodedLength(cipherLength)))
+                    {
+                        EncryptedEnvelope.Write(json.WrittenSpan.Slice(0, cipherLength), envelope);
+                        _cache.Set(cacheFor.AppID, cacheFor.ServiceID, cacheFor.Language, envelope.WrittenSpan, invalidationStamp);
+                        await WriteEnvelopeAsync(context, envelope.WrittenMemory);
+                    }
+                    return;
+                }
+
+                // Step 9: Return encrypted response
+                context.Response.StatusCode = StatusCodes.Status200OK;
+                context.Response.ContentType = "application/json; charset=utf-8";
+                context.Response.ContentLength = EnvelopeOverhead + HexCodec.GetEncodedLength(cipherLength);
+
+                EncryptedEnvelope.Write(json.WrittenSpan.Slice(0, cipherLength), context.Response.BodyWriter);
+            }
+
+            await context.Response.BodyWriter.FlushAsync(context.RequestAborted);
+        }
+
+        /// <summary>
+        /// Send an already-built envelope
+        /// </summary>
+        private static async Task WriteEnvelopeAsync(HttpContext context, ReadOnlyMemory<byte> envelope)
+        {
+            context.Response.StatusCode = StatusCodes.Status200OK;
+            context.Response.ContentType = "application/json; charset=utf-8";
+            context.Response.ContentLength = envelope.Length;
+
+            await context.Response.BodyWriter.WriteAsync(envelope, context.RequestAborted);
+        }
+
+        /// <summary>
+        /// Copy the request body from the pipe into a pooled buffer
+        /// </summary>
+        /// <returns>False if the body is larger than maxSize</returns>
+        private static async ValueTask<bool> ReadBodyAsync(PipeReader reader, PooledBufferWriter body, int maxSize, CancellationToken cancellationToken)
+        {
+            while (true)
+            {
+                var result = await reader.ReadAsync(cancellationToken);
+                var buffer = result.Buffer;
+
+                if (body.WrittenCount + buffer.Length > maxSize)
+                {
+                    reader.AdvanceTo(buffer.End);
+                    return false;
+                }
+
+                foreach (var segment in buffer)
+                {
+                    segment.Span.CopyTo(body.GetSpan(segment.Length));
+                    body.Advance(segment.Length);
+                }
+
+                reader.AdvanceTo(buffer.End);
+
+                if (result.IsCompleted)
+                    return true;
+            }
+        }
+
+        private static Task WriteErrorAsync(HttpContext context, int statusCode, string message)
+        {
+            context.Response.StatusCode = statusCode;
+            return context.Response.WriteAsJsonAsync(new
+            {
+                error = message,
+                timestamp = DateTime.Now.ToString("yyyy-MM-ddTHH:mm:ss")
+            });
+        }
+
+        private readonly struct ReadResult<T>
+        {
+            public static readonly ReadResult<T> Failure = default;
+
+            public ReadResult(T value)
+            {
+                Value = value;
+                Succeeded = true;
+            }
+
+            public T Value { get; }
+
+            // False for default(ReadResult<T>), the failure value
+            public bool Succeeded { get; }
+        }
+    }
+
+    // ========================================================================
+    // VALIDATION - Ensures request/response meet specification
+    // ========================================================================
+
+    public static class StatusValidation
+    {
+        public static string ValidateRequest(ApplicationStatusRequest request)
+        {
+            if (request == null)
+                return "Request is null";
+
+            if (string.IsNullOrWhiteSpace(request.AppID))
+                return "AppID is required";
+
+            if (string.IsNullOrWhiteSpace(request.ServiceID))
+                return "ServiceID is required";
+
+            if (string.IsNullOrWhiteSpace(request.DeptName))
+                return "DeptName is required";
+
+            if (string.IsNullOrWhiteSpace(request.Language))
+                return "Language is required";
+
+            if (request.Language != "EN" && request.Language != "MR")
+                return "Language must be 'EN' or 'MR'";
+
+            return null; // Valid
+        }
+
+        public static string ValidateResponse(ApplicationStatusResponse response)
+        {
+            if (response == null)
+                return "Response is null";
+
+            if (string.IsNullOrWhiteSpace(response.ApplicationID))
+                return "ApplicationID is required";
+
+            if (string.IsNullOrWhiteSpace(response.ServiceName))
+                return "ServiceName is required";
+
+            if (string.IsNullOrWhiteSpace(response.ApplicantName))
+                return "ApplicantName is required";
+
+            // Validate FinalDecision values
+            if (!string.IsNullOrEmpty(response.FinalDecision))
+            {
+                if (response.FinalDecision != "0" &&
+                    response.FinalDecision != "1" &&
+                    response.FinalDecision != "2")
+                {
+                    return "FinalDecision must be '0', '1', '2', or empty string";
+                }
+            }
+
+            return null; // Valid
+        }
+    }
+
+    // ========================================================================
+    // UTILITIES
+    // ========================================================================
+
+    public static class StatusFormat
+    {
+        /// <summary>
+        /// Format DateTime to API specification: DD-MMM-YYYY,HH:mm:ss
+        /// </summary>
+        public static string Date(DateTime? date)
+        {
+            if (!date.HasValue)
+                return ""; // Empty string for null dates
+
+            return date.Value.ToString("dd-MMM-yyyy,HH:mm:ss",
+                System.Globalization.CultureInfo.InvariantCulture);
+        }
+    }
+
+    // ========================================================================
+    // MODELS - Match V3 Specification Exactly
+    // ========================================================================
+
+    /// <summary>
+    /// Application status request (decrypted)
+    /// </summary>
+    public class ApplicationStatusRequest
+    {
+        public string AppID { get; set; }
+        public string ServiceID { get; set; }
+        public string DeptName { get; set; }
+        public string Language { get; set; } // "EN" or "MR"
+    }
+
+    /// <summary>
+    /// Application status response (to be encrypted)
+    /// Matches V3 specification exactly
+    /// </summary>
+    public class ApplicationStatusResponse
+    {
+        public string ApplicationID { get; set; }
+        public string ServiceName { get; set; }
+        public string ApplicantName { get; set; }
+        public int EstimatedDisbursalDays { get; set; }
+
+        // Format: DD-MMM-YYYY,HH:mm:ss (24hr) or empty string
+        public string ApplicationSubmissionDate { get; set; }
+        public string ApplicationPaymentDate { get; set; }
+
+        // Empty string when no action required
+        public string NextActionRequiredDetails { get; set; }
+
+        // "0" = Approved, "1" = Rejected, "2" = Pending, "" = Not decided
+        public string FinalDecision { get; set; }
+
+        // Optional department URL
+        public string DepartmentRedirectionURL { get; set; }
+
+        // Workflow tracking
+        public int TotalNumberOfDesks { get; set; }
+        public int CurrentDeskNumber { get; set; }
+        public int NextDeskNumber { get; set; }
+
+        // Review history (in ascending order)
+        public DeskDetail[] DeskDetails { get; set; }
+    }
+
+    /// <summary>
+    /// Desk review detail
+    /// </summary>
+    public class DeskDetail
+    {
+        public string DeskNumber { get; set; } // e.g., "Desk 1"
+        public string ReviewActionBy { get; set; } // Empty string if not assigned
+        public string ReviewActionDateTime { get; set; } // DD-MMM-YYYY,HH:mm:ss or empty
+        public string ReviewActionDetails { get; set; } // Empty string if no comments
+    }
+
+    /// <summary>
+    /// One entry of a bulk response, in request order
+    /// </summary>
+    public class BulkStatusResult
+    {
+        public string AppID { get; set; }
+        public ApplicationStatusResponse Status { get; set; } // null when Error is set
+        public string Error { get; set; } // null on success
+    }
+
+    /// <summary>
+    /// Custom exception for application not found
+    /// </summary>
+    public class ApplicationNotFoundException : Exception
+    {
+        public ApplicationNotFoundException() : base("Application not found") { }
+    }
+}
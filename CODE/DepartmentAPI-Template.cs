@@ -5,10 +5,12 @@
 // that conforms to the V3 specification.
 //
 // USAGE:
-// 1. Copy this file to your ASP.NET Web API project
+// 1. Copy this file, TrackApplicationCrypto.cs and TrackApplicationCaching.cs
+//    to your ASP.NET Web API project
 // 2. Implement the GetApplicationStatusFromDatabase() method
-// 3. Configure encryption keys in Web.config
-// 4. Deploy
+// 3. Implement LoadServiceNamesAsync() (service names are cached in memory)
+// 4. Configure encryption keys in Web.config
+// 5. Deploy
 //
 // The template handles:
 // - Request decryption
@@ -19,12 +21,15 @@
 // ============================================================================
 
 using System;
+using System.Collections.Generic;
 using System.Net;
 using System.Net.Http;
-using System.Security.Cryptography;
-using System.Text;
+using System.Text.Encodings.Web;
+using System.Text.Json;
+using System.Threading.Tasks;
 using System.Web.Http;
-using Newtonsoft.Json;
+using MaharashtraGov.TrackApplicationAPI;
+using MaharashtraGov.TrackApplicationAPI.Crypto;
 
 namespace YourDepartment.TrackApplicationAPI
 {
@@ -38,8 +43,48 @@ namespace YourDepartment.TrackApplicationAPI
         // ====================================================================
         // CONFIGURATION - Update these in Web.config
         // ====================================================================
-        private readonly string _encryptionKey = System.Configuration.ConfigurationManager.AppSettings["EncryptionKey"];
-        private readonly string _encryptionIV = System.Configuration.ConfigurationManager.AppSettings["EncryptionIV"];
+        // Created once per application; matches Aaple Sarkar's TripleDES implementation.
+        // PublicationOnly: a missing/invalid key is not cached, so fixing Web.config
+        // takes effect on the next request
+        private static readonly Lazy<TripleDesCryptoEngine> CryptoEngine = new Lazy<TripleDesCryptoEngine>(() =>
+            new TripleDesCryptoEngine(
+                System.Configuration.ConfigurationManager.AppSettings["EncryptionKey"],
+                System.Configuration.ConfigurationManager.AppSettings["EncryptionIV"]),
+            System.Threading.LazyThreadSafetyMode.PublicationOnly);
+
+        // Same wire format as Newtonsoft: CLR property names, nulls included,
+        // Marathi text written unescaped
+        private static readonly JsonSerializerOptions JsonOptions = new JsonSerializerOptions
+        {
+            Encoder = JavaScriptEncoder.UnsafeRelaxedJsonEscaping,
+            PropertyNameCaseInsensitive = true
+        };
+
+        private static readonly JsonWriterOptions JsonWriterOptions = new JsonWriterOptions
+        {
+            Encoder = JavaScriptEncoder.UnsafeRelaxedJsonEscaping
+        };
+
+        /// <summary>
+        /// Optional cache of encrypted responses (null = off). Set once at startup,
+        /// e.g. in Global.asax:
+        ///   TrackApplicationController.ResponseCache = new EncryptedResponseCache(TimeSpan.FromMinutes(10));
+        /// and call ResponseCache?.InvalidateApplication(appId) from your workflow
+        /// whenever an application changes (desk action, payment, decision).
+        /// </summary>
+        public static EncryptedResponseCache ResponseCache { get; set; }
+
+        /// <summary>
+        /// Service names by (ServiceID, Language), loaded once and refreshed in
+        /// the background, so no request queries the database for them.
+        /// Requests wait for the first load (ServiceNames.Initialized); to load
+        /// before the first request instead, set it in Global.asax:
+        ///   TrackApplicationController.ServiceNames = ServiceCatalog.CreateAsync(
+        ///       YourLoader, TimeSpan.FromHours(1)).GetAwaiter().GetResult();
+        /// Call ServiceNames.RefreshAsync() after editing your service list.
+        /// </summary>
+        public static ServiceCatalog ServiceNames { get; set; } =
+            new ServiceCatalog(LoadServiceNamesAsync, TimeSpan.FromHours(1));
 
         // ====================================================================
         // API ENDPOINT - This is what Aaple Sarkar will call
@@ -51,38 +96,48 @@ namespace YourDepartment.TrackApplicationAPI
         /// </summary>
         [HttpPost]
         [Route("sendappstatus_encrypted")]
-        public HttpResponseMessage SendApplicationStatusEncrypted([FromBody] EncryptedRequest encryptedRequest)
+        public async Task<HttpResponseMessage> SendApplicationStatusEncrypted()
         {
             try
             {
-                // Step 1: Validate encrypted request
-                if (encryptedRequest == null || string.IsNullOrEmpty(encryptedRequest.data))
-                {
-                    return CreateErrorResponse(HttpStatusCode.BadRequest, "Invalid request format");
-                }
-
-                // Step 2: Decrypt request
-                string decryptedJson;
-                try
-                {
-                    decryptedJson = Decrypt(encryptedRequest.data);
-                }
-                catch (Exception ex)
-                {
-                    LogError($"Decryption failed: {ex.Message}");
-                    return CreateErrorResponse(HttpStatusCode.BadRequest, "Failed to decrypt request");
-                }
-
-                // Step 3: Parse request
                 ApplicationStatusRequest request;
-                try
-                {
-                    request = JsonConvert.DeserializeObject<ApplicationStatusRequest>(decryptedJson);
-                }
-                catch (Exception ex)
+
+                // Request is decrypted and parsed in place inside one pooled buffer
+                using (var body = new PooledBufferWriter())
                 {
-                    LogError($"JSON parsing failed: {ex.Message}");
-                    return CreateErrorResponse(HttpStatusCode.BadRequest, "Invalid request format");
+                    await body.CopyFromAsync(await Request.Content.ReadAsStreamAsync());
+
+                    // Step 1: Validate encrypted request
+                    if (!EncryptedEnvelope.TryFindData(body.WrittenSpan, out int offset, out int length) || length == 0)
+                    {
+                        return CreateErrorResponse(HttpStatusCode.BadRequest, "Invalid request format");
+                    }
+
+                    // Step 2: Decrypt request
+                    int decryptedLength;
+                    try
+                    {
+                        decryptedLength = EncryptedEnvelope.OpenInPlace(CryptoEngine.Value, body.WrittenSpan.Slice(offset, length));
+                    }
+                    catch (Exception ex)
+                    {
+                        LogError($"Decryption failed: {ex.Message}");
+                        return CreateErrorResponse(HttpStatusCode.BadRequest, "Failed to decrypt request");
+                    }
+
+                    // Step 3: Parse request
+                    try
+                    {
+                        request = JsonSerializer.Deserialize<ApplicationStatusRequest>(
+                            body.WrittenSpan.Slice(offset, decryptedLength),
+                            JsonOptions
+                        );
+                    }
+                    catch (Exception ex)
+                    {
+                        LogError($"JSON parsing failed: {ex.Message}");
+                        return CreateErrorResponse(HttpStatusCode.BadRequest, "Invalid request format");
+                    }
                 }
 
                 // Step 4: Validate request fields
@@ -92,11 +147,24 @@ namespace YourDepartment.TrackApplicationAPI
                     return CreateErrorResponse(HttpStatusCode.BadRequest, validationError);
                 }
 
+                // Cached envelope: no database, serialization or encryption
+                var cache = ResponseCache;
+                if (cache != null && cache.TryGet(request.AppID, request.ServiceID, request.Language, out var cached))
+                {
+                    return CreateEnvelopeResponse(cached);
+                }
+
+                // Read before the database so a change made meanwhile is not cached
+                long invalidationStamp = cache?.InvalidationStamp ?? 0;
+
                 // Step 5: Get application data from YOUR database
                 // ⚠️ THIS IS WHERE YOU IMPLEMENT YOUR LOGIC ⚠️
                 ApplicationStatusResponse response;
                 try
                 {
+                    // Service names come from the catalog; wait for its first load
+                    await ServiceNames.Initialized;
+
                     response = GetApplicationStatusFromDatabase(
                         request.AppID,
                         request.ServiceID,
@@ -122,27 +190,35 @@ namespace YourDepartment.TrackApplicationAPI
                     return CreateErrorResponse(HttpStatusCode.InternalServerError, "Invalid response data");
                 }
 
-                // Step 7: Serialize response to JSON
-                string responseJson = JsonConvert.SerializeObject(response, new JsonSerializerSettings
+                using (var responseJson = new PooledBufferWriter())
                 {
-                    NullValueHandling = NullValueHandling.Include
-                });
-
-                // Step 8: Encrypt response
-                string encryptedResponse;
-                try
-                {
-                    encryptedResponse = Encrypt(responseJson);
+                    // Step 7: Serialize response to JSON (UTF-8, straight into the pooled buffer)
+                    using (var writer = new Utf8JsonWriter(responseJson, JsonWriterOptions))
+                    {
+                        JsonSerializer.Serialize(writer, response, JsonOptions);
+                    }
+
+                    // Step 8: Encrypt response in place and hex-encode into {"data":"..."}
+                    HttpContent encryptedResponse;
+                    try
+                    {
+                        encryptedResponse = EncryptedEnvelope.CreateContent(CryptoEngine.Value, responseJson);
+
+                        if (cache != null)
+                        {
+                            var envelope = await encryptedResponse.ReadAsByteArrayAsync();
+                            cache.Set(request.AppID, request.ServiceID, request.Language, envelope, invalidationStamp);
+                        }
+                    }
+                    catch (Exception ex)
+                    {
+                        LogError($"Encryption failed: {ex.Message}");
+                        return CreateErrorResponse(HttpStatusCode.InternalServerError, "Failed to encrypt response");
+                    }
+
+                    // Step 9: Return encrypted response
+                    return new HttpResponseMessage(HttpStatusCode.OK) { Content = encryptedResponse };
                 }
-                catch (Exception ex)
-                {
-                    LogError($"Encryption failed: {ex.Message}");
-                    return CreateErrorResponse(HttpStatusCode.InternalServerError, "Failed to encrypt response");
-                }
-
-                // Step 9: Return encrypted response
-                var result = new EncryptedResponse { data = encryptedResponse };
-                return Request.CreateResponse(HttpStatusCode.OK, result);
             }
             catch (Exception ex)
             {
@@ -169,9 +245,11 @@ namespace YourDepartment.TrackApplicationAPI
             // TODO: Replace this with your actual database query
             // ============================================================
 
-            // Example: Query your database
+            // Example: Query your database - the application and its reviews
+            // (ordered by desk) in ONE query, no separate query for reviews
             // var dbRecord = _dbContext.Applications
-            //     .Include(a => a.Reviews)
+            //     .Include(a => a.Reviews.OrderBy(r => r.DeskNumber))
+            //     .AsNoTracking()
             //     .FirstOrDefault(a => a.ApplicationID == applicationId
             //                       && a.ServiceID == serviceId);
             //
@@ -208,23 +286,21 @@ namespace YourDepartment.TrackApplicationAPI
                 CurrentDeskNumber = 2, // From your database
                 NextDeskNumber = 3, // From your workflow
 
-                // Review history (in ascending order)
-                DeskDetails = GetDeskDetailsFromDatabase(applicationId) // Your method
+                // Review history (in ascending order), from the same record
+                DeskDetails = ToDeskDetails(/* dbRecord.Reviews */)
             };
 
             return response;
         }
 
         /// <summary>
-        /// Example: Get desk review details from database
+        /// Example: Map the reviews loaded with the application to desk details
         /// </summary>
-        private DeskDetail[] GetDeskDetailsFromDatabase(string applicationId)
+        private DeskDetail[] ToDeskDetails(/* IEnumerable<Review> reviews */)
         {
-            // TODO: Query your database for review history
+            // TODO: Map the reviews already loaded by the query above
             // Example:
-            // return _dbContext.Reviews
-            //     .Where(r => r.ApplicationID == applicationId)
-            //     .OrderBy(r => r.DeskNumber)
+            // return reviews
             //     .Select(r => new DeskDetail
             //     {
             //         DeskNumber = $"Desk {r.DeskNumber}",
@@ -248,15 +324,29 @@ namespace YourDepartment.TrackApplicationAPI
         }
 
         /// <summary>
-        /// Example: Get service name based on language
+        /// Get service name based on language, from the in-memory catalog.
+        /// A service missing from the catalog is an error (500), never shown as its ID.
         /// </summary>
         private string GetServiceName(string serviceId, string language)
         {
-            // TODO: Query your database or configuration
-            if (language == "MR")
-                return "उत्पन्नाचा दाखला"; // Marathi
-            else
-                return "Income Certificate"; // English
+            return ServiceNames.GetName(serviceId, language)
+                ?? throw new InvalidOperationException($"No service name for ServiceID {serviceId}");
+        }
+
+        /// <summary>
+        /// Example: Load all service names for ServiceNames
+        /// ⚠️ REPLACE WITH YOUR DATABASE LOGIC ⚠️
+        /// </summary>
+        private static Task<IEnumerable<ServiceNameEntry>> LoadServiceNamesAsync(System.Threading.CancellationToken cancellationToken)
+        {
+            // TODO: Query your database or configuration, e.g.
+            // SELECT ServiceID, Language, Name FROM ServiceNames
+            IEnumerable<ServiceNameEntry> entries = new[]
+            {
+                new ServiceNameEntry { ServiceID = "4111", Language = "EN", Name = "Income Certificate" },
+                new ServiceNameEntry { ServiceID = "4111", Language = "MR", Name = "उत्पन्नाचा दाखला" } // Marathi
+            };
+            return Task.FromResult(entries);
         }
 
         // ====================================================================
@@ -317,69 +407,6 @@ namespace YourDepartment.TrackApplicationAPI
             return null; // Valid
         }
 
-        // ====================================================================
-        // ENCRYPTION/DECRYPTION - Matches Aaple Sarkar's implementation
-        // ====================================================================
-
-        private string Encrypt(string plainText)
-        {
-            byte[] key = Encoding.UTF8.GetBytes(_encryptionKey);
-            byte[] iv = Encoding.UTF8.GetBytes(_encryptionIV);
-            byte[] data = Encoding.UTF8.GetBytes(plainText);
-
-            using (TripleDES tdes = TripleDES.Create())
-            {
-                tdes.IV = iv;
-                tdes.Key = key;
-                tdes.Mode = CipherMode.CBC;
-                tdes.Padding = PaddingMode.Zeros;
-
-                using (ICryptoTransform encryptor = tdes.CreateEncryptor())
-                {
-                    byte[] encrypted = encryptor.TransformFinalBlock(data, 0, data.Length);
-                    return ByteArrayToHexString(encrypted);
-                }
-            }
-        }
-
-        private string Decrypt(string cipherText)
-        {
-            byte[] key = Encoding.UTF8.GetBytes(_encryptionKey);
-            byte[] iv = Encoding.UTF8.GetBytes(_encryptionIV);
-            byte[] data = HexStringToByteArray(cipherText);
-
-            using (TripleDES tdes = TripleDES.Create())
-            {
-                tdes.IV = iv;
-                tdes.Key = key;
-                tdes.Mode = CipherMode.CBC;
-                tdes.Padding = PaddingMode.Zeros;
-
-                using (ICryptoTransform decryptor = tdes.CreateDecryptor())
-                {
-                    byte[] decrypted = decryptor.TransformFinalBlock(data, 0, data.Length);
-                    return Encoding.UTF8.GetString(decrypted).TrimEnd('\0');
-                }
-            }
-        }
-
-        private string ByteArrayToHexString(byte[] bytes)
-        {
-            string hex = BitConverter.ToString(bytes);
-            return hex.Replace("-", "");
-        }
-
-        private byte[] HexStringToByteArray(string hex)
-        {
-            int numberChars = hex.Length;
-            byte[] bytes = new byte[numberChars / 2];
-            for (int i = 0; i < numberChars; i += 2)
-            {
-                bytes[i / 2] = Convert.ToByte(hex.Substring(i, 2), 16);
-            }
-            return bytes;
-        }
-
         // ====================================================================
         // UTILITIES
         // ====================================================================
@@ -396,6 +423,13 @@ namespace YourDepartment.TrackApplicationAPI
                 System.Globalization.CultureInfo.InvariantCulture);
         }
 
+        private static HttpResponseMessage CreateEnvelopeResponse(byte[] envelope)
+        {
+            var content = new ByteArrayContent(envelope);
+            content.Headers.ContentType = new System.Net.Http.Headers.MediaTypeHeaderValue("application/json") { CharSet = "utf-8" };
+            return new HttpResponseMessage(HttpStatusCode.OK) { Content = content };
+        }
+
         private HttpResponseMessage CreateErrorResponse(HttpStatusCode statusCode, string message)
         {
             return Request.CreateResponse(statusCode, new
@@ -12,6 +12,7 @@
 // 5. Ready for production!
 //
 // Run as Console Application or Unit Tests
+// (include TrackApplicationCrypto.cs in the project)
 // ============================================================================
 
 using System;
@@ -21,6 +22,7 @@ using System.Net.Http;
 using System.Security.Cryptography;
 using System.Text;
 using System.Threading.Tasks;
+using MaharashtraGov.TrackApplicationAPI.Crypto;
 using Newtonsoft.Json;
 
 namespace DepartmentAPI.Validator
@@ -607,7 +609,7 @@ namespace DepartmentAPI.Validator
                 using (var encryptor = tdes.CreateEncryptor())
                 {
                     byte[] encrypted = encryptor.TransformFinalBlock(data, 0, data.Length);
-                    return BitConverter.ToString(encrypted).Replace("-", "");
+                    return HexCodec.Encode(encrypted);
                 }
             }
         }
@@ -616,7 +618,7 @@ namespace DepartmentAPI.Validator
         {
             byte[] key = Encoding.UTF8.GetBytes(_encryptionKey);
             byte[] iv = Encoding.UTF8.GetBytes(_encryptionIV);
-            byte[] data = HexStringToByteArray(cipherText);
+            byte[] data = HexCodec.Decode(cipherText);
 
             using (TripleDES tdes = TripleDES.Create())
             {
@@ -633,15 +635,6 @@ namespace DepartmentAPI.Validator
             }
         }
 
-        private byte[] HexStringToByteArray(string hex)
-        {
-            int numberChars = hex.Length;
-            byte[] bytes = new byte[numberChars / 2];
-            for (int i = 0; i < numberChars; i += 2)
-                bytes[i / 2] = Convert.ToByte(hex.Substring(i, 2), 16);
-            return bytes;
-        }
-
         private void StartTest(string name, string description)
         {
             Console.WriteLine();
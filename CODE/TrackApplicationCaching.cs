@@ -0,0 +1,491 @@
+// ============================================================================
+// Maharashtra Government - Track Application Status API
+// Shared In-Memory Caches
+//
+// EncryptedResponseCache keeps finished {"data":"..."} envelopes on department
+// servers; ServiceCatalog keeps service names by (ServiceID, Language) for
+// both the department templates and the client SDK.
+//
+// Installation:
+//   Copy this file next to TrackApplicationCrypto.cs in the client
+//   (TrackApplicationSDK.cs) or department server project.
+//
+// Usage:
+//   var cache = new EncryptedResponseCache(TimeSpan.FromMinutes(10));
+//   cache.InvalidateApplication(appId); // after a desk action
+//
+//   var serviceNames = await ServiceCatalog.CreateAsync(loader, TimeSpan.FromHours(1));
+//   string name = serviceNames.GetName("4111", "MR");
+//
+// ============================================================================
+
+using System;
+using System.Collections.Generic;
+#if NET8_0_OR_GREATER
+using System.Collections.Frozen;
+#endif
+using System.Linq;
+using System.Threading;
+using System.Threading.Tasks;
+
+namespace MaharashtraGov.TrackApplicationAPI
+{
+    #region Envelope Cache
+
+    /// <summary>
+    /// Server-side cache of finished {"data":"HEX"} envelopes keyed by
+    /// (AppID, ServiceID, Language), so a repeated request skips the database,
+    /// serialization and encryption. Call InvalidateApplication from your own
+    /// workflow whenever an application changes (desk action, payment, decision).
+    /// Least recently used entries are evicted beyond maxEntries.
+    /// </summary>
+    public sealed class EncryptedResponseCache
+    {
+        private readonly object _lock = new object();
+        private readonly TimeSpan _timeToLive;
+        private readonly int _maxEntries;
+        private readonly Dictionary<string, LinkedListNode<Entry>> _entries = new Dictionary<string, LinkedListNode<Entry>>(StringComparer.Ordinal);
+        private readonly Dictionary<string, List<string>> _keysByAppId = new Dictionary<string, List<string>>(StringComparer.OrdinalIgnoreCase);
+        private readonly LinkedList<Entry> _lru = new LinkedList<Entry>();
+
+        // Stamp of the latest invalidation per AppID; Clear (or too many tracked
+        // AppIDs) raises _clearedStamp instead, which covers every application
+        private readonly Dictionary<string, long> _invalidatedStamps = new Dictionary<string, long>(StringComparer.OrdinalIgnoreCase);
+        private long _invalidationStamp;
+        private long _clearedStamp;
+        private long _hits;
+        private long _misses;
+
+        /// <param name="timeToLive">Upper bound on staleness if an invalidation is missed</param>
+        /// <param name="maxEntries">Most envelopes kept in memory</param>
+        public EncryptedResponseCache(TimeSpan timeToLive, int maxEntries = 10000)
+        {
+            if (timeToLive <= TimeSpan.Zero)
+                throw new ArgumentOutOfRangeException(nameof(timeToLive));
+
+            if (maxEntries <= 0)
+                throw new ArgumentOutOfRangeException(nameof(maxEntries));
+
+            _timeToLive = timeToLive;
+            _maxEntries = maxEntries;
+        }
+
+        public int Count
+        {
+            get { lock (_lock) return _entries.Count; }
+        }
+
+        public long Hits => Interlocked.Read(ref _hits);
+        public long Misses => Interlocked.Read(ref _misses);
+
+        /// <summary>
+        /// Read before loading from the database and pass to Set, so an envelope
+        /// built from data that was invalidated meanwhile is not cached. Only
+        /// invalidations of the same AppID (or Clear) discard it.
+        /// </summary>
+        public long InvalidationStamp => Interlocked.Read(ref _invalidationStamp);
+
+        /// <summary>
+        /// Look up the envelope bytes (UTF-8 JSON, ready to send)
+        /// </summary>
+        public bool TryGet(string appId, string serviceId, string language, out byte[] envelope)
+        {
+            var key = CreateKey(appId, serviceId, language);
+
+            lock (_lock)
+            {
+                if (_entries.TryGetValue(key, out var node))
+                {
+                    if (node.Value.ExpiresAt > DateTime.UtcNow)
+                    {
+                        _lru.Remove(node);
+                        _lru.AddFirst(node);
+                        envelope = node.Value.Envelope;
+                        Interlocked.Increment(ref _hits);
+                        return true;
+                    }
+
+                    RemoveNode(node);
+                }
+            }
+
+            Interlocked.Increment(ref _misses);
+            envelope = null;
+            return false;
+        }
+
+        /// <summary>
+        /// Store an envelope unless the application was invalidated (or the cache
+        /// cleared) after invalidationStamp was read
+        /// </summary>
+        public void Set(string appId, string serviceId, string language, ReadOnlySpan<byte> envelope, long invalidationStamp)
+        {
+            var key = CreateKey(appId, serviceId, language);
+            var entry = new Entry
+            {
+                Key = key,
+                AppId = appId,
+                Envelope = envelope.ToArray(),
+                ExpiresAt = DateTime.UtcNow + _timeToLive
+            };
+
+            lock (_lock)
+            {
+                if (invalidationStamp < _clearedStamp
+                    || (_invalidatedStamps.TryGetValue(appId, out var invalidated) && invalidationStamp < invalidated))
+                    return;
+
+                if (_entries.TryGetValue(key, out var existing))
+                    RemoveNode(existing);
+
+                _entries[key] = _lru.AddFirst(entry);
+
+                if (!_keysByAppId.TryGetValue(appId, out var keys))
+                    _keysByAppId[appId] = keys = new List<string>(2);
+                keys.Add(key);
+
+                while (_entries.Count > _maxEntries)
+                    RemoveNode(_lru.Last);
+            }
+        }
+
+        /// <summary>
+        /// Drop every cached envelope of an application (all services and languages)
+        /// </summary>
+        /// <returns>Number of envelopes removed</returns>
+        public int InvalidateApplication(string appId)
+        {
+            if (appId == null)
+                throw new ArgumentNullException(nameof(appId));
+
+            lock (_lock)
+            {
+                long stamp = Interlocked.Increment(ref _invalidationStamp);
+
+                if (_invalidatedStamps.Count >= _maxEntries)
+                {
+                    // Bound the bookkeeping: one global cut-off replaces the per-AppID stamps
+                    _invalidatedStamps.Clear();
+                    _clearedStamp = stamp;
+                }
+                else
+                {
+                    _invalidatedStamps[appId] = stamp;
+                }
+
+                if (!_keysByAppId.TryGetValue(appId, out var keys))
+                    return 0;
+
+                int removed = 0;
+                foreach (var key in keys.ToArray())
+                {
+                    if (_entries.TryGetValue(key, out var node))
+                    {
+                        RemoveNode(node);
+                        removed++;
+                    }
+                }
+                return removed;
+            }
+        }
+
+        public void Clear()
+        {
+            lock (_lock)
+            {
+                _clearedStamp = Interlocked.Increment(ref _invalidationStamp);
+                _invalidatedStamps.Clear();
+                _entries.Clear();
+                _keysByAppId.Clear();
+                _lru.Clear();
+            }
+        }
+
+        private void RemoveNode(LinkedListNode<Entry> node)
+        {
+            _lru.Remove(node);
+            _entries.Remove(node.Value.Key);
+
+            if (_keysByAppId.TryGetValue(node.Value.AppId, out var keys))
+            {
+                keys.Remove(node.Value.Key);
+                if (keys.Count == 0)
+                    _keysByAppId.Remove(node.Value.AppId);
+            }
+        }
+
+        // AppIDs are matched case-insensitively, like the client SDK
+        private static string CreateKey(string appId, string serviceId, string language)
+        {
+            return (appId ?? string.Empty).ToUpperInvariant() + "|" + serviceId + "|" + language;
+        }
+
+        private sealed class Entry
+        {
+            public string Key;
+            public string AppId;
+            public byte[] Envelope;
+            public DateTime ExpiresAt;
+        }
+    }
+
+    #endregion
+
+    #region Service Catalog
+
+    /// <summary>
+    /// Localized service name, e.g. ("4111", "MR", "उत्पन्नाचा दाखला")
+    /// </summary>
+    public class ServiceNameEntry
+    {
+        public string ServiceID { get; set; }
+
+        /// <summary>
+        /// "EN" or "MR"
+        /// </summary>
+        public string Language { get; set; }
+
+        public string Name { get; set; }
+    }
+
+    /// <summary>
+    /// Service names by (ServiceID, Language), loaded once and kept in memory.
+    /// Lookups read an immutable snapshot (a FrozenDictionary on .NET 8+) without
+    /// locking; refreshes build a new snapshot in the background and swap it in.
+    /// A failed refresh keeps the previous snapshot. Used by the department
+    /// templates for ServiceName and by StatusHelper on the client.
+    /// </summary>
+    public sealed class ServiceCatalog : IDisposable
+    {
+        private readonly Func<CancellationToken, Task<IEnumerable<ServiceNameEntry>>> _loader;
+        private readonly Task _initialized;
+        private readonly Timer _timer;
+        private readonly CancellationTokenSource _disposed = new CancellationTokenSource();
+        private readonly object _refreshLock = new object();
+        private IReadOnlyDictionary<ServiceKey, string> _names = new Dictionary<ServiceKey, string>();
+        private Task _refresh;
+        private bool _refreshAgain;
+        private DateTime? _lastRefreshedUtc;
+        private Exception _lastRefreshError;
+
+        /// <summary>
+        /// Fixed catalog (e.g. from configuration)
+        /// </summary>
+        public ServiceCatalog(IEnumerable<ServiceNameEntry> entries)
+        {
+            _names = Build(entries ?? throw new ArgumentNullException(nameof(entries)));
+            _lastRefreshedUtc = DateTime.UtcNow;
+            _initialized = Task.CompletedTask;
+        }
+
+        /// <summary>
+        /// Catalog loaded from your database now and again every refreshInterval.
+        /// Lookups return null until Initialized completes; use CreateAsync to wait.
+        /// </summary>
+        public ServiceCatalog(Func<CancellationToken, Task<IEnumerable<ServiceNameEntry>>> loader, TimeSpan refreshInterval)
+        {
+            _loader = loader ?? throw new ArgumentNullException(nameof(loader));
+
+            if (refreshInterval <= TimeSpan.Zero)
+                throw new ArgumentOutOfRangeException(nameof(refreshInterval));
+
+            _initialized = StartRefresh(repeatIfRunning: false);
+
+            // A scheduled refresh is skipped while another one is running
+            _timer = new Timer(state => { _ = StartRefresh(repeatIfRunning: false); }, null, refreshInterval, refreshInterval);
+        }
+
+        /// <summary>
+        /// Create a refreshing catalog and wait for its first load
+        /// </summary>
+        /// <exception cref="Exception">The first load failed (the loader's exception)</exception>
+        public static async Task<ServiceCatalog> CreateAsync(
+            Func<CancellationToken, Task<IEnumerable<ServiceNameEntry>>> loader,
+            TimeSpan refreshInterval,
+            CancellationToken cancellationToken = default)
+        {
+            var catalog = new ServiceCatalog(loader, refreshInterval);
+            try
+            {
+                await WaitAsync(catalog._initialized, cancellationToken).ConfigureAwait(false);
+
+                if (catalog._lastRefreshedUtc == null)
+                    System.Runtime.ExceptionServices.ExceptionDispatchInfo.Capture(catalog._lastRefreshError).Throw();
+
+                return catalog;
+            }
+            catch
+            {
+                catalog.Dispose();
+                throw;
+            }
+        }
+
+        /// <summary>
+        /// Completes after the first load attempt
+        /// </summary>
+        public Task Initialized => _initialized;
+
+        public int Count => Volatile.Read(ref _names).Count;
+
+        public DateTime? LastRefreshedUtc => _lastRefreshedUtc;
+
+        /// <summary>
+        /// Error of the latest refresh, or null if it succeeded
+        /// </summary>
+        public Exception LastRefreshError => _lastRefreshError;
+
+        /// <summary>
+        /// Service name in a language ("EN" or "MR"); falls back to English when
+        /// no Marathi name is known, and to null when the service is unknown
+        /// </summary>
+        public string GetName(string serviceId, string language)
+        {
+            return TryGetName(serviceId, language, out var name) ? name : null;
+        }
+
+        public bool TryGetName(string serviceId, string language, out string name)
+        {
+            var names = Volatile.Read(ref _names);
+
+            if (names.TryGetValue(new ServiceKey(serviceId, language), out name))
+                return true;
+
+            return !string.Equals(language, "EN", StringComparison.OrdinalIgnoreCase)
+                && names.TryGetValue(new ServiceKey(serviceId, "EN"), out name);
+        }
+
+        /// <summary>
+        /// Reload now, e.g. from a change token callback. A call made while a
+        /// refresh is running returns that refresh, which then loads once more
+        /// so the caller's change is picked up. Failures are reported through
+        /// LastRefreshError; the previous names stay in use.
+        /// </summary>
+        public Task RefreshAsync(CancellationToken cancellationToken = default)
+        {
+            if (_loader == null)
+                return Task.CompletedTask;
+
+            return WaitAsync(StartRefresh(repeatIfRunning: true), cancellationToken);
+        }
+
+        public void Dispose()
+        {
+            _timer?.Dispose();
+            _disposed.Cancel();
+        }
+
+        private Task StartRefresh(bool repeatIfRunning)
+        {
+            lock (_refreshLock)
+            {
+                if (_refresh == null)
+                    _refresh = Task.Run(() => RunRefreshesAsync());
+                else if (repeatIfRunning)
+                    _refreshAgain = true;
+
+                return _refresh;
+            }
+        }
+
+        private async Task RunRefreshesAsync()
+        {
+            while (true)
+            {
+                await LoadAsync(_disposed.Token).ConfigureAwait(false);
+
+                lock (_refreshLock)
+                {
+                    if (!_refreshAgain || _disposed.IsCancellationRequested)
+                    {
+                        _refreshAgain = false;
+                        _refresh = null;
+                        return;
+                    }
+
+                    _refreshAgain = false;
+                }
+            }
+        }
+
+        private async Task LoadAsync(CancellationToken cancellationToken)
+        {
+            try
+            {
+                var entries = await _loader(cancellationToken).ConfigureAwait(false);
+                Volatile.Write(ref _names, Build(entries ?? Enumerable.Empty<ServiceNameEntry>()));
+                _lastRefreshError = null;
+                _lastRefreshedUtc = DateTime.UtcNow;
+            }
+            catch (Exception ex)
+            {
+                // Keep serving the previous snapshot
+                _lastRefreshError = ex;
+            }
+        }
+
+        /// <summary>
+        /// Wait for a shared refresh; cancelling stops only this caller's wait
+        /// </summary>
+        private static async Task WaitAsync(Task task, CancellationToken cancellationToken)
+        {
+            if (!cancellationToken.CanBeCanceled || task.IsCompleted)
+            {
+                await task.ConfigureAwait(false);
+                return;
+            }
+
+            var cancelled = new TaskCompletionSource<bool>(TaskCreationOptions.RunContinuationsAsynchronously);
+            using (cancellationToken.Register(() => cancelled.TrySetCanceled(cancellationToken)))
+            {
+                await (await Task.WhenAny(task, cancelled.Task).ConfigureAwait(false)).ConfigureAwait(false);
+            }
+        }
+
+        private static IReadOnlyDictionary<ServiceKey, string> Build(IEnumerable<ServiceNameEntry> entries)
+        {
+            var names = new Dictionary<ServiceKey, string>();
+            foreach (var entry in entries)
+            {
+                if (entry?.ServiceID != null && !string.IsNullOrEmpty(entry.Name))
+                    names[new ServiceKey(entry.ServiceID, entry.Language)] = entry.Name;
+            }
+
+#if NET8_0_OR_GREATER
+            return names.ToFrozenDictionary();
+#else
+            return names;
+#endif
+        }
+
+        private readonly struct ServiceKey : IEquatable<ServiceKey>
+        {
+            private readonly string _serviceId;
+            private readonly string _language;
+
+            public ServiceKey(string serviceId, string language)
+            {
+                _serviceId = serviceId ?? string.Empty;
+                _language = language ?? string.Empty;
+            }
+
+            public bool Equals(ServiceKey other)
+            {
+                return string.Equals(_serviceId, other._serviceId, StringComparison.Ordinal)
+                    && string.Equals(_language, other._language, StringComparison.OrdinalIgnoreCase);
+            }
+
+            public override bool Equals(object obj)
+            {
+                return obj is ServiceKey other && Equals(other);
+            }
+
+            public override int GetHashCode()
+            {
+                return _serviceId.GetHashCode() * 31 + StringComparer.OrdinalIgnoreCase.GetHashCode(_language);
+            }
+        }
+    }
+
+    #endregion
+}
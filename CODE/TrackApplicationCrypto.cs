@@ -0,0 +1,868 @@
+// ============================================================================
+// Maharashtra Government - Track Application Status API
+// Shared Crypto and Buffer Primitives
+//
+// TripleDES (CBC, zero padding) exactly as used by the V3 specification.
+// Shared by the client SDK, the department template and the validator so
+// that every side of the integration encrypts the same way.
+//
+// Installation:
+//   Copy this file next to TrackApplicationSDK.cs (client),
+//   DepartmentAPI-Template.cs (department server) or the validator.
+//   .NET Framework projects also need:
+//     Install-Package System.Memory
+//     Install-Package System.Text.Json
+//
+// Usage:
+//   var engine = new TripleDesCryptoEngine(encryptKey, encryptIV);
+//   byte[] cipher = engine.Encrypt(Encoding.UTF8.GetBytes(json));
+//   string hex = HexCodec.Encode(cipher);
+//
+//   // Or, in one pass from UTF-8 JSON to {"data":"..."} HttpContent:
+//   HttpContent content = EncryptedEnvelope.CreateContent(engine, jsonBuffer);
+//
+// ============================================================================
+
+using System;
+using System.Buffers;
+using System.Collections.Concurrent;
+using System.IO;
+using System.Net;
+using System.Net.Http;
+using System.Net.Http.Headers;
+using System.Runtime.InteropServices;
+using System.Security.Cryptography;
+using System.Text;
+using System.Text.Json;
+using System.Threading;
+using System.Threading.Tasks;
+
+namespace MaharashtraGov.TrackApplicationAPI.Crypto
+{
+    #region Crypto Engine
+
+    /// <summary>
+    /// TripleDES engine matching the V3 wire format (CBC mode, zero padding).
+    /// Key and IV are encoded once per configuration and cipher instances are
+    /// pooled, so a single engine can be shared by all threads of a client.
+    /// </summary>
+    public sealed class TripleDesCryptoEngine : IDisposable
+    {
+        private const int BlockSize = 8;
+
+        private readonly byte[] _key;
+        private readonly byte[] _iv;
+
+#if NET6_0_OR_GREATER
+        // One-shot EncryptCbc/DecryptCbc only need the key schedule
+        private readonly CryptoPool<TripleDES> _algorithms;
+#else
+        // CBC transforms created with PaddingMode.None; zero padding is applied here
+        private readonly CryptoPool<ICryptoTransform> _encryptors;
+        private readonly CryptoPool<ICryptoTransform> _decryptors;
+#endif
+
+        /// <summary>
+        /// Initialize engine from the key/IV strings provided by the API team
+        /// </summary>
+        /// <param name="encryptionKey">TripleDES key (24 characters)</param>
+        /// <param name="encryptionIV">TripleDES IV (8 characters)</param>
+        public TripleDesCryptoEngine(string encryptionKey, string encryptionIV)
+            : this(
+                Encoding.UTF8.GetBytes(encryptionKey ?? throw new ArgumentNullException(nameof(encryptionKey))),
+                Encoding.UTF8.GetBytes(encryptionIV ?? throw new ArgumentNullException(nameof(encryptionIV))))
+        {
+        }
+
+        /// <summary>
+        /// Initialize engine from raw key/IV bytes
+        /// </summary>
+        public TripleDesCryptoEngine(byte[] key, byte[] iv)
+        {
+            _key = (byte[])(key ?? throw new ArgumentNullException(nameof(key))).Clone();
+            _iv = (byte[])(iv ?? throw new ArgumentNullException(nameof(iv))).Clone();
+
+            // Key/IV sizes are checked by the first cipher created, so a bad key
+            // surfaces on first use exactly like the original implementation.
+#if NET6_0_OR_GREATER
+            _algorithms = new CryptoPool<TripleDES>(CreateAlgorithm);
+#else
+            _encryptors = new CryptoPool<ICryptoTransform>(() => CreateTransform(encrypt: true));
+            _decryptors = new CryptoPool<ICryptoTransform>(() => CreateTransform(encrypt: false));
+#endif
+        }
+
+        /// <summary>
+        /// Length of the ciphertext produced for a plaintext of the given length
+        /// </summary>
+        public static int GetCiphertextLength(int plaintextLength)
+        {
+            if (plaintextLength < 0)
+                throw new ArgumentOutOfRangeException(nameof(plaintextLength));
+
+            return (plaintextLength + BlockSize - 1) / BlockSize * BlockSize;
+        }
+
+        /// <summary>
+        /// Encrypt plaintext into a new array
+        /// </summary>
+        public byte[] Encrypt(byte[] plaintext)
+        {
+            if (plaintext == null)
+                throw new ArgumentNullException(nameof(plaintext));
+
+            var ciphertext = new byte[GetCiphertextLength(plaintext.Length)];
+            Encrypt(plaintext, ciphertext);
+            return ciphertext;
+        }
+
+        /// <summary>
+        /// Encrypt plaintext into a caller-provided buffer.
+        /// The destination may be the plaintext buffer itself (in-place).
+        /// </summary>
+        /// <returns>Number of ciphertext bytes written</returns>
+        public int Encrypt(ReadOnlySpan<byte> plaintext, Span<byte> destination)
+        {
+            int length = GetCiphertextLength(plaintext.Length);
+            if (destination.Length < length)
+                throw new ArgumentException("Destination buffer is too small", nameof(destination));
+
+            if (length == 0)
+                return 0;
+
+#if NET6_0_OR_GREATER
+            TripleDES tdes = _algorithms.Rent();
+            try
+            {
+                return tdes.EncryptCbc(plaintext, _iv, destination, PaddingMode.Zeros);
+            }
+            finally
+            {
+                _algorithms.Return(tdes);
+            }
+#else
+            byte[] buffer = ArrayPool<byte>.Shared.Rent(length);
+            try
+            {
+                plaintext.CopyTo(buffer);
+                Array.Clear(buffer, plaintext.Length, length - plaintext.Length);
+                TransformBlocks(_encryptors, buffer, length);
+                buffer.AsSpan(0, length).CopyTo(destination);
+                return length;
+            }
+            finally
+            {
+                ArrayPool<byte>.Shared.Return(buffer);
+            }
+#endif
+        }
+
+        /// <summary>
+        /// Zero-pad and encrypt the bytes written to a pooled buffer, in place
+        /// </summary>
+        /// <returns>Number of ciphertext bytes now held by the buffer</returns>
+        public int EncryptInPlace(PooledBufferWriter buffer)
+        {
+            if (buffer == null)
+                throw new ArgumentNullException(nameof(buffer));
+
+            int padding = GetCiphertextLength(buffer.WrittenCount) - buffer.WrittenCount;
+            if (padding > 0)
+            {
+                buffer.GetSpan(padding).Slice(0, padding).Clear();
+                buffer.Advance(padding);
+            }
+
+            Span<byte> data = buffer.WrittenSpan;
+            return Encrypt(data, data);
+        }
+
+        /// <summary>
+        /// Decrypt ciphertext into a new array (trailing zero padding removed)
+        /// </summary>
+        public byte[] Decrypt(byte[] ciphertext)
+        {
+            if (ciphertext == null)
+                throw new ArgumentNullException(nameof(ciphertext));
+
+            var plaintext = new byte[ciphertext.Length];
+            int length = Decrypt(ciphertext, plaintext);
+            Array.Resize(ref plaintext, length);
+            return plaintext;
+        }
+
+        /// <summary>
+        /// Decrypt ciphertext into a caller-provided buffer.
+        /// The destination may be the ciphertext buffer itself (in-place).
+        /// </summary>
+        /// <returns>Number of plaintext bytes, excluding trailing zero padding</returns>
+        public int Decrypt(ReadOnlySpan<byte> ciphertext, Span<byte> destination)
+        {
+            if (ciphertext.Length % BlockSize != 0)
+                throw new CryptographicException("Ciphertext length is not a multiple of the block size");
+
+            if (destination.Length < ciphertext.Length)
+                throw new ArgumentException("Destination buffer is too small", nameof(destination));
+
+            if (ciphertext.Length == 0)
+                return 0;
+
+            int written;
+#if NET6_0_OR_GREATER
+            TripleDES tdes = _algorithms.Rent();
+            try
+            {
+                written = tdes.DecryptCbc(ciphertext, _iv, destination, PaddingMode.Zeros);
+            }
+            finally
+            {
+                _algorithms.Return(tdes);
+            }
+#else
+            byte[] buffer = ArrayPool<byte>.Shared.Rent(ciphertext.Length);
+            try
+            {
+                ciphertext.CopyTo(buffer);
+                TransformBlocks(_decryptors, buffer, ciphertext.Length);
+                buffer.AsSpan(0, ciphertext.Length).CopyTo(destination);
+                written = ciphertext.Length;
+            }
+            finally
+            {
+                ArrayPool<byte>.Shared.Return(buffer);
+            }
+#endif
+
+            // Zero padding cannot be removed by the cipher; same as TrimEnd('\0')
+            while (written > 0 && destination[written - 1] == 0)
+                written--;
+
+            return written;
+        }
+
+#if NET6_0_OR_GREATER
+        private TripleDES CreateAlgorithm()
+        {
+            TripleDES tdes = TripleDES.Create();
+            try
+            {
+                tdes.Key = _key;
+                return tdes;
+            }
+            catch
+            {
+                tdes.Dispose();
+                throw;
+            }
+        }
+#else
+        private ICryptoTransform CreateTransform(bool encrypt)
+        {
+            using (TripleDES tdes = TripleDES.Create())
+            {
+                tdes.Mode = CipherMode.CBC;
+                tdes.Padding = PaddingMode.None;
+
+                return encrypt
+                    ? tdes.CreateEncryptor(_key, _iv)
+                    : tdes.CreateDecryptor(_key, _iv);
+            }
+        }
+
+        private static void TransformBlocks(CryptoPool<ICryptoTransform> pool, byte[] buffer, int length)
+        {
+            ICryptoTransform transform = pool.Rent();
+            bool reusable = false;
+            try
+            {
+                transform.TransformBlock(buffer, 0, length, buffer, 0);
+
+                // Final block resets the CBC chain back to the IV for the next caller
+                transform.TransformFinalBlock(Array.Empty<byte>(), 0, 0);
+                reusable = transform.CanReuseTransform;
+            }
+            finally
+            {
+                if (reusable)
+                    pool.Return(transform);
+                else
+                    transform.Dispose();
+            }
+        }
+#endif
+
+        public void Dispose()
+        {
+#if NET6_0_OR_GREATER
+            _algorithms.Dispose();
+#else
+            _encryptors.Dispose();
+            _decryptors.Dispose();
+#endif
+        }
+    }
+
+    /// <summary>
+    /// Small thread-safe pool for disposable crypto objects
+    /// </summary>
+    internal sealed class CryptoPool<T> : IDisposable where T : class, IDisposable
+    {
+        private readonly ConcurrentBag<T> _items = new ConcurrentBag<T>();
+        private readonly Func<T> _factory;
+        private readonly int _maxRetained;
+        private int _count;
+        private volatile bool _disposed;
+
+        public CryptoPool(Func<T> factory)
+            : this(factory, Environment.ProcessorCount * 2)
+        {
+        }
+
+        public CryptoPool(Func<T> factory, int maxRetained)
+        {
+            _factory = factory ?? throw new ArgumentNullException(nameof(factory));
+            _maxRetained = maxRetained;
+        }
+
+        public T Rent()
+        {
+            if (_items.TryTake(out T item))
+            {
+                Interlocked.Decrement(ref _count);
+                return item;
+            }
+
+            return _factory();
+        }
+
+        public void Return(T item)
+        {
+            if (!_disposed && Interlocked.Increment(ref _count) <= _maxRetained)
+            {
+                _items.Add(item);
+                return;
+            }
+
+            Interlocked.Decrement(ref _count);
+            item.Dispose();
+        }
+
+        public void Dispose()
+        {
+            _disposed = true;
+            while (_items.TryTake(out T item))
+            {
+                item.Dispose();
+            }
+        }
+    }
+
+    #endregion
+
+    #region Hex Codec
+
+    /// <summary>
+    /// Hex encoding of ciphertext as used on the wire (upper-case, no separators).
+    /// All span-based methods write into caller-provided (or pooled) buffers and
+    /// report invalid input through their return value instead of throwing.
+    /// </summary>
+    public static class HexCodec
+    {
+        private const string HexDigits = "0123456789ABCDEF";
+
+        /// <summary>
+        /// Number of hex characters needed for the given number of bytes
+        /// </summary>
+        public static int GetEncodedLength(int byteCount)
+        {
+            if (byteCount < 0 || byteCount > int.MaxValue / 2)
+                throw new ArgumentOutOfRangeException(nameof(byteCount));
+
+            return byteCount * 2;
+        }
+
+        /// <summary>
+        /// Number of bytes produced by decoding the given number of hex characters
+        /// </summary>
+        public static int GetDecodedLength(int hexLength)
+        {
+            if (hexLength < 0)
+                throw new ArgumentOutOfRangeException(nameof(hexLength));
+
+            return hexLength / 2;
+        }
+
+        /// <summary>
+        /// Encode bytes to an upper-case hex string (same output as
+        /// BitConverter.ToString(bytes).Replace("-", ""))
+        /// </summary>
+        public static string Encode(ReadOnlySpan<byte> bytes)
+        {
+            if (bytes.IsEmpty)
+                return string.Empty;
+
+#if NET5_0_OR_GREATER
+            // Vectorized on .NET 8+
+            return Convert.ToHexString(bytes);
+#else
+            int length = GetEncodedLength(bytes.Length);
+            char[] buffer = ArrayPool<char>.Shared.Rent(length);
+            try
+            {
+                EncodeCore(bytes, buffer);
+                return new string(buffer, 0, length);
+            }
+            finally
+            {
+                ArrayPool<char>.Shared.Return(buffer);
+            }
+#endif
+        }
+
+        /// <summary>
+        /// Encode bytes as hex characters into a caller-provided buffer
+        /// </summary>
+        /// <returns>False if the destination is too small</returns>
+        public static bool TryEncode(ReadOnlySpan<byte> bytes, Span<char> destination, out int charsWritten)
+        {
+            charsWritten = 0;
+            if (destination.Length / 2 < bytes.Length)
+                return false;
+
+#if NET9_0_OR_GREATER
+            return Convert.TryToHexString(bytes, destination, out charsWritten);
+#else
+            EncodeCore(bytes, destination);
+            charsWritten = bytes.Length * 2;
+            return true;
+#endif
+        }
+
+        /// <summary>
+        /// Encode bytes as UTF-8 hex digits into a caller-provided buffer
+        /// (e.g. straight into a JSON writer's output)
+        /// </summary>
+        /// <returns>False if the destination is too small</returns>
+        public static bool TryEncodeUtf8(ReadOnlySpan<byte> bytes, Span<byte> utf8Destination, out int bytesWritten)
+        {
+            bytesWritten = 0;
+            if (utf8Destination.Length / 2 < bytes.Length)
+                return false;
+
+            for (int i = 0, j = 0; i < bytes.Length; i++, j += 2)
+            {
+                byte b = bytes[i];
+                utf8Destination[j] = (byte)HexDigits[b >> 4];
+                utf8Destination[j + 1] = (byte)HexDigits[b & 0xF];
+            }
+
+            bytesWritten = bytes.Length * 2;
+            return true;
+        }
+
+        /// <summary>
+        /// Decode a hex string (either case) into a new array
+        /// </summary>
+        /// <exception cref="FormatException">Input has odd length or non-hex characters</exception>
+        public static byte[] Decode(string hex)
+        {
+            if (hex == null)
+                throw new ArgumentNullException(nameof(hex));
+
+            var bytes = new byte[GetDecodedLength(hex.Length)];
+            if (!TryDecode(hex.AsSpan(), bytes, out _))
+                throw new FormatException("Input is not a valid hex string");
+
+            return bytes;
+        }
+
+        /// <summary>
+        /// Decode hex characters (either case) into a caller-provided buffer
+        /// </summary>
+        /// <returns>False if the input has odd length, contains non-hex
+        /// characters, or the destination is too small</returns>
+        public static bool TryDecode(ReadOnlySpan<char> hex, Span<byte> destination, out int bytesWritten)
+        {
+            bytesWritten = 0;
+            if ((hex.Length & 1) != 0 || destination.Length < hex.Length / 2)
+                return false;
+
+#if NET9_0_OR_GREATER
+            // Vectorized, non-throwing
+            return Convert.FromHexString(hex, destination, out _, out bytesWritten) == OperationStatus.Done;
+#else
+            int invalid = 0;
+            for (int i = 0, j = 0; j < hex.Length; i++, j += 2)
+            {
+                int high = FromHexChar(hex[j]);
+                int low = FromHexChar(hex[j + 1]);
+
+                // Any -1 sets the sign bit; checked once after the loop
+                invalid |= high | low;
+                destination[i] = (byte)((high << 4) | low);
+            }
+
+            if (invalid < 0)
+                return false;
+
+            bytesWritten = hex.Length / 2;
+            return true;
+#endif
+        }
+
+        /// <summary>
+        /// Decode UTF-8 hex digits (either case) into a caller-provided buffer.
+        /// The destination may be the input buffer itself (in-place).
+        /// </summary>
+        /// <returns>False if the input has odd length, contains non-hex
+        /// characters, or the destination is too small</returns>
+        public static bool TryDecodeUtf8(ReadOnlySpan<byte> utf8Hex, Span<byte> destination, out int bytesWritten)
+        {
+            bytesWritten = 0;
+            if ((utf8Hex.Length & 1) != 0 || destination.Length < utf8Hex.Length / 2)
+                return false;
+
+            // Output index always trails input index, so in-place decoding is safe
+            int invalid = 0;
+            for (int i = 0, j = 0; j < utf8Hex.Length; i++, j += 2)
+            {
+                int high = FromHexChar(utf8Hex[j]);
+                int low = FromHexChar(utf8Hex[j + 1]);
+
+                invalid |= high | low;
+                destination[i] = (byte)((high << 4) | low);
+            }
+
+            if (invalid < 0)
+                return false;
+
+            bytesWritten = utf8Hex.Length / 2;
+            return true;
+        }
+
+        private static void EncodeCore(ReadOnlySpan<byte> bytes, Span<char> destination)
+        {
+            for (int i = 0, j = 0; i < bytes.Length; i++, j += 2)
+            {
+                byte b = bytes[i];
+                destination[j] = HexDigits[b >> 4];
+                destination[j + 1] = HexDigits[b & 0xF];
+            }
+        }
+
+        // '0'-'9' => 0-9, 'A'-'F'/'a'-'f' => 10-15, anything else => -1
+        private static int FromHexChar(int c)
+        {
+            if ((uint)(c - '0') <= 9)
+                return c - '0';
+
+            int lower = c | 0x20;
+            if ((uint)(lower - 'a') <= 'f' - 'a')
+                return lower - 'a' + 10;
+
+            return -1;
+        }
+    }
+
+    #endregion
+
+    #region Buffers
+
+    /// <summary>
+    /// Growable IBufferWriter backed by ArrayPool, used to serialize, encrypt
+    /// and encode payloads without intermediate arrays. Dispose to return
+    /// the buffer to the pool.
+    /// </summary>
+    public sealed class PooledBufferWriter : IBufferWriter<byte>, IDisposable
+    {
+        private const int DefaultInitialCapacity = 1024;
+        private const int MinimumReadSize = 1024;
+
+        private byte[] _buffer;
+        private int _written;
+
+        public PooledBufferWriter()
+            : this(DefaultInitialCapacity)
+        {
+        }
+
+        public PooledBufferWriter(int initialCapacity)
+        {
+            if (initialCapacity <= 0)
+                throw new ArgumentOutOfRangeException(nameof(initialCapacity));
+
+            _buffer = ArrayPool<byte>.Shared.Rent(initialCapacity);
+        }
+
+        /// <summary>
+        /// Number of bytes written so far
+        /// </summary>
+        public int WrittenCount => _written;
+
+        /// <summary>
+        /// Bytes written so far (mutable, for in-place transforms)
+        /// </summary>
+        public Span<byte> WrittenSpan => CheckDisposed().AsSpan(0, _written);
+
+        /// <summary>
+        /// Bytes written so far
+        /// </summary>
+        public ReadOnlyMemory<byte> WrittenMemory => CheckDisposed().AsMemory(0, _written);
+
+        public void Advance(int count)
+        {
+            if (count < 0 || _written + count > CheckDisposed().Length)
+                throw new ArgumentOutOfRangeException(nameof(count));
+
+            _written += count;
+        }
+
+        public Memory<byte> GetMemory(int sizeHint = 0)
+        {
+            EnsureCapacity(sizeHint);
+            return _buffer.AsMemory(_written);
+        }
+
+        public Span<byte> GetSpan(int sizeHint = 0)
+        {
+            EnsureCapacity(sizeHint);
+            return _buffer.AsSpan(_written);
+        }
+
+        /// <summary>
+        /// Append the remaining contents of a stream (e.g. an HTTP body)
+        /// </summary>
+        public async Task CopyFromAsync(Stream stream, CancellationToken cancellationToken = default)
+        {
+            if (stream == null)
+                throw new ArgumentNullException(nameof(stream));
+
+            while (true)
+            {
+                EnsureCapacity(MinimumReadSize);
+
+                int read = await stream.ReadAsync(_buffer, _written, _buffer.Length - _written, cancellationToken);
+                if (read == 0)
+                    return;
+
+                _written += read;
+            }
+        }
+
+        /// <summary>
+        /// Discard written data, keeping the rented buffer
+        /// </summary>
+        public void Clear()
+        {
+            _written = 0;
+        }
+
+        private void EnsureCapacity(int sizeHint)
+        {
+            byte[] buffer = CheckDisposed();
+            int required = _written + Math.Max(sizeHint, 1);
+            if (required <= buffer.Length)
+                return;
+
+            byte[] larger = ArrayPool<byte>.Shared.Rent(Math.Max(required, buffer.Length * 2));
+            buffer.AsSpan(0, _written).CopyTo(larger);
+            _buffer = larger;
+            ArrayPool<byte>.Shared.Return(buffer);
+        }
+
+        private byte[] CheckDisposed()
+        {
+            return _buffer ?? throw new ObjectDisposedException(nameof(PooledBufferWriter));
+        }
+
+        public void Dispose()
+        {
+            byte[] buffer = _buffer;
+            _buffer = null;
+            if (buffer != null)
+                ArrayPool<byte>.Shared.Return(buffer);
+        }
+    }
+
+    #endregion
+
+    #region Envelope
+
+    /// <summary>
+    /// The encrypted {"data":"HEX"} envelope used in both directions.
+    /// Writing goes UTF-8 JSON -> in-place encryption -> hex straight into the
+    /// output buffer; reading locates the data token, hex-decodes and decrypts
+    /// it in place so the plaintext JSON can be parsed from the same buffer.
+    /// </summary>
+    public static class EncryptedEnvelope
+    {
+        // The envelope has a fixed shape and hex digits never need escaping,
+        // so it is written directly rather than through Utf8JsonWriter.
+        private static readonly byte[] Prefix = Encoding.ASCII.GetBytes("{\"data\":\"");
+        private static readonly byte[] Suffix = Encoding.ASCII.GetBytes("\"}");
+
+        /// <summary>
+        /// Encrypt the UTF-8 JSON held by plaintext (in place) and return it as
+        /// application/json HttpContent. The returned content owns a pooled
+        /// buffer; dispose it (or let the framework dispose it) after sending.
+        /// </summary>
+        public static HttpContent CreateContent(TripleDesCryptoEngine engine, PooledBufferWriter plaintext)
+        {
+            if (engine == null)
+                throw new ArgumentNullException(nameof(engine));
+
+            if (plaintext == null)
+                throw new ArgumentNullException(nameof(plaintext));
+
+            int cipherLength = engine.EncryptInPlace(plaintext);
+
+            var envelope = new PooledBufferWriter(Prefix.Length + HexCodec.GetEncodedLength(cipherLength) + Suffix.Length);
+            try
+            {
+                Write(plaintext.WrittenSpan.Slice(0, cipherLength), envelope);
+                return new PooledJsonContent(envelope);
+            }
+            catch
+            {
+                envelope.Dispose();
+                throw;
+            }
+        }
+
+        /// <summary>
+        /// Write {"data":"HEX"} for the given ciphertext
+        /// </summary>
+        public static void Write(ReadOnlySpan<byte> ciphertext, IBufferWriter<byte> output)
+        {
+            if (output == null)
+                throw new ArgumentNullException(nameof(output));
+
+            WriteLiteral(Prefix, output);
+
+            int hexLength = HexCodec.GetEncodedLength(ciphertext.Length);
+            HexCodec.TryEncodeUtf8(ciphertext, output.GetSpan(hexLength), out int written);
+            output.Advance(written);
+
+            WriteLiteral(Suffix, output);
+        }
+
+        /// <summary>
+        /// Locate the raw value of the "data" string property (matched
+        /// case-insensitively, like the Newtonsoft model binding it replaces)
+        /// </summary>
+        /// <returns>False if the body is not a JSON object with a string "data" property</returns>
+        public static bool TryFindData(ReadOnlySpan<byte> envelope, out int offset, out int length)
+        {
+            offset = 0;
+            length = 0;
+
+            try
+            {
+                var reader = new Utf8JsonReader(envelope);
+                if (!reader.Read() || reader.TokenType != JsonTokenType.StartObject)
+                    return false;
+
+                while (reader.Read() && reader.TokenType == JsonTokenType.PropertyName)
+                {
+                    bool isData = IsDataProperty(reader.ValueSpan);
+                    if (!reader.Read())
+                        return false;
+
+                    if (isData)
+                    {
+                        if (reader.TokenType != JsonTokenType.String)
+                            return false;
+
+                        // TokenStartIndex points at the opening quote
+                        offset = (int)reader.TokenStartIndex + 1;
+                        length = reader.ValueSpan.Length;
+                        return true;
+                    }
+
+                    reader.Skip();
+                }
+
+                return false;
+            }
+            catch (JsonException)
+            {
+                return false;
+            }
+        }
+
+        /// <summary>
+        /// Hex-decode and decrypt the data value in place
+        /// </summary>
+        /// <param name="data">The hex value located by TryFindData</param>
+        /// <returns>Length of the plaintext JSON, starting at the beginning of data</returns>
+        /// <exception cref="FormatException">Data is not valid hex</exception>
+        /// <exception cref="CryptographicException">Data cannot be decrypted</exception>
+        public static int OpenInPlace(TripleDesCryptoEngine engine, Span<byte> data)
+        {
+            if (engine == null)
+                throw new ArgumentNullException(nameof(engine));
+
+            if (!HexCodec.TryDecodeUtf8(data, data, out int cipherLength))
+                throw new FormatException("Encrypted data is not a valid hex string");
+
+            return engine.Decrypt(data.Slice(0, cipherLength), data);
+        }
+
+        private static bool IsDataProperty(ReadOnlySpan<byte> name)
+        {
+            return name.Length == 4
+                && (name[0] | 0x20) == 'd'
+                && (name[1] | 0x20) == 'a'
+                && (name[2] | 0x20) == 't'
+                && (name[3] | 0x20) == 'a';
+        }
+
+        private static void WriteLiteral(byte[] literal, IBufferWriter<byte> output)
+        {
+            literal.CopyTo(output.GetSpan(literal.Length));
+            output.Advance(literal.Length);
+        }
+    }
+
+    /// <summary>
+    /// application/json HttpContent over a pooled buffer; returns the buffer
+    /// to the pool when disposed
+    /// </summary>
+    public sealed class PooledJsonContent : HttpContent
+    {
+        private PooledBufferWriter _buffer;
+
+        public PooledJsonContent(PooledBufferWriter buffer)
+        {
+            _buffer = buffer ?? throw new ArgumentNullException(nameof(buffer));
+            Headers.ContentType = new MediaTypeHeaderValue("application/json") { CharSet = "utf-8" };
+        }
+
+        protected override Task SerializeToStreamAsync(Stream stream, TransportContext context)
+        {
+            PooledBufferWriter buffer = _buffer ?? throw new ObjectDisposedException(nameof(PooledJsonContent));
+
+            MemoryMarshal.TryGetArray(buffer.WrittenMemory, out ArraySegment<byte> segment);
+            return stream.WriteAsync(segment.Array, segment.Offset, segment.Count);
+        }
+
+        protected override bool TryComputeLength(out long length)
+        {
+            length = _buffer?.WrittenCount ?? 0;
+            return _buffer != null;
+        }
+
+        protected override void Dispose(bool disposing)
+        {
+            if (disposing)
+            {
+                _buffer?.Dispose();
+                _buffer = null;
+            }
+
+            base.Dispose(disposing);
+        }
+    }
+
+    #endregion
+}
@@ -0,0 +1,221 @@
+// ============================================================================
+// Track Application Status API SDK - Benchmarks
+//
+// Measures time and allocations per call for the SDK hot paths and compares
+// them with the original implementation ("before") so regressions are easy
+// to spot.
+//
+// USAGE:
+// 1. Create a console project (.NET 6 or later) with this file,
+//    TrackApplicationSDK.cs, TrackApplicationCrypto.cs and TrackApplicationCaching.cs
+// 2. Run in Release mode: dotnet run -c Release
+// 3. Compare "Bytes/op" and "us/op" between the before/after rows
+// ============================================================================
+
+using System;
+using System.Collections.Generic;
+using System.Diagnostics;
+using System.Security.Cryptography;
+using System.Text;
+using MaharashtraGov.TrackApplicationAPI.Crypto;
+
+namespace TrackApplicationSDK.Benchmarks
+{
+    /// <summary>
+    /// TripleDES encrypt/decrypt of a typical status response payload
+    /// </summary>
+    public class CryptoBenchmark
+    {
+        private const string EncryptionKey = "benchmark-24-char-key-00";
+        private const string EncryptionIV = "bench-iv";
+
+        private readonly TripleDesCryptoEngine _engine = new TripleDesCryptoEngine(EncryptionKey, EncryptionIV);
+        private readonly byte[] _plaintext = Encoding.UTF8.GetBytes(BenchmarkData.SampleResponseJson);
+        private readonly byte[] _ciphertext;
+        private readonly byte[] _buffer;
+
+        public CryptoBenchmark()
+        {
+            _ciphertext = _engine.Encrypt(_plaintext);
+            _buffer = new byte[_ciphertext.Length];
+        }
+
+        public IEnumerable<BenchmarkResult> Run(int iterations)
+        {
+            yield return BenchmarkRunner.Measure("Encrypt (before)", iterations, () => LegacyEncrypt(_plaintext));
+            yield return BenchmarkRunner.Measure("Encrypt (engine)", iterations, () => _engine.Encrypt(_plaintext, _buffer));
+            yield return BenchmarkRunner.Measure("Decrypt (before)", iterations, () => LegacyDecrypt(_ciphertext));
+            yield return BenchmarkRunner.Measure("Decrypt (engine)", iterations, () => _engine.Decrypt(_ciphertext, _buffer));
+        }
+
+        // Original per-call implementation: encode key/IV, create cipher and transform
+        private static byte[] LegacyEncrypt(byte[] data)
+        {
+            byte[] key = Encoding.UTF8.GetBytes(EncryptionKey);
+            byte[] iv = Encoding.UTF8.GetBytes(EncryptionIV);
+
+            using (TripleDES tdes = TripleDES.Create())
+            {
+                tdes.IV = iv;
+                tdes.Key = key;
+                tdes.Mode = CipherMode.CBC;
+                tdes.Padding = PaddingMode.Zeros;
+
+                using (ICryptoTransform encryptor = tdes.CreateEncryptor())
+                {
+                    return encryptor.TransformFinalBlock(data, 0, data.Length);
+                }
+            }
+        }
+
+        private static byte[] LegacyDecrypt(byte[] data)
+        {
+            byte[] key = Encoding.UTF8.GetBytes(EncryptionKey);
+            byte[] iv = Encoding.UTF8.GetBytes(EncryptionIV);
+
+            using (TripleDES tdes = TripleDES.Create())
+            {
+                tdes.IV = iv;
+                tdes.Key = key;
+                tdes.Mode = CipherMode.CBC;
+                tdes.Padding = PaddingMode.Zeros;
+
+                using (ICryptoTransform decryptor = tdes.CreateDecryptor())
+                {
+                    return decryptor.TransformFinalBlock(data, 0, data.Length);
+                }
+            }
+        }
+    }
+
+    /// <summary>
+    /// Hex encode/decode of an encrypted status response
+    /// </summary>
+    public class HexBenchmark
+    {
+        private readonly byte[] _bytes;
+        private readonly string _hex;
+        private readonly char[] _chars;
+        private readonly byte[] _decoded;
+
+        public HexBenchmark()
+        {
+            var engine = new TripleDesCryptoEngine("benchmark-24-char-key-00", "bench-iv");
+            _bytes = engine.Encrypt(Encoding.UTF8.GetBytes(BenchmarkData.SampleResponseJson));
+            _hex = HexCodec.Encode(_bytes);
+            _chars = new char[_hex.Length];
+            _decoded = new byte[_bytes.Length];
+        }
+
+        public IEnumerable<BenchmarkResult> Run(int iterations)
+        {
+            yield return BenchmarkRunner.Measure("Hex encode (before)", iterations, () => BitConverter.ToString(_bytes).Replace("-", ""));
+            yield return BenchmarkRunner.Measure("Hex encode (HexCodec string)", iterations, () => HexCodec.Encode(_bytes));
+            yield return BenchmarkRunner.Measure("Hex encode (HexCodec span)", iterations, () => HexCodec.TryEncode(_bytes, _chars, out _));
+            yield return BenchmarkRunner.Measure("Hex decode (before)", iterations, () => LegacyHexStringToByteArray(_hex));
+            yield return BenchmarkRunner.Measure("Hex decode (HexCodec span)", iterations, () => HexCodec.TryDecode(_hex.AsSpan(), _decoded, out _));
+        }
+
+        private static byte[] LegacyHexStringToByteArray(string hex)
+        {
+            int numberChars = hex.Length;
+            byte[] bytes = new byte[numberChars / 2];
+            for (int i = 0; i < numberChars; i += 2)
+            {
+                bytes[i / 2] = Convert.ToByte(hex.Substring(i, 2), 16);
+            }
+            return bytes;
+        }
+    }
+
+    // ========================================================================
+    // HARNESS
+    // ========================================================================
+
+    public class BenchmarkResult
+    {
+        public string Name { get; set; }
+        public int Iterations { get; set; }
+        public double MicrosecondsPerOp { get; set; }
+        public long BytesPerOp { get; set; }
+    }
+
+    public static class BenchmarkRunner
+    {
+        /// <summary>
+        /// Run action after a warm-up and report mean time and allocated bytes per call
+        /// </summary>
+        public static BenchmarkResult Measure(string name, int iterations, Action action)
+        {
+            for (int i = 0; i < Math.Min(iterations, 1000); i++)
+                action();
+
+            GC.Collect();
+            GC.WaitForPendingFinalizers();
+            GC.Collect();
+
+            long allocatedBefore = GC.GetAllocatedBytesForCurrentThread();
+            var stopwatch = Stopwatch.StartNew();
+
+            for (int i = 0; i < iterations; i++)
+                action();
+
+            stopwatch.Stop();
+            long allocated = GC.GetAllocatedBytesForCurrentThread() - allocatedBefore;
+
+            return new BenchmarkResult
+            {
+                Name = name,
+                Iterations = iterations,
+                MicrosecondsPerOp = stopwatch.Elapsed.TotalMilliseconds * 1000 / iterations,
+                BytesPerOp = allocated / iterations
+            };
+        }
+
+        public static void Print(BenchmarkResult result)
+        {
+            Console.WriteLine($"  {result.Name,-32} {result.MicrosecondsPerOp,10:F2} us/op {result.BytesPerOp,10:N0} Bytes/op");
+        }
+    }
+
+    internal static class BenchmarkData
+    {
+        public const string SampleResponseJson =
+            "{\"ApplicationID\":\"INC12345678\",\"ServiceName\":\"Income Certificate\"," +
+            "\"ApplicantName\":\"Ramesh Patil\",\"EstimatedDisbursalDays\":7," +
+            "\"ApplicationSubmissionDate\":\"18-Sep-2025,17:30:00\",\"ApplicationPaymentDate\":\"18-Sep-2025,17:45:10\"," +
+            "\"NextActionRequiredDetails\":\"\",\"FinalDecision\":\"2\",\"DepartmentRedirectionURL\":\"\"," +
+            "\"TotalNumberOfDesks\":3,\"CurrentDeskNumber\":2,\"NextDeskNumber\":3,\"DeskDetails\":[" +
+            "{\"DeskNumber\":\"Desk 1\",\"ReviewActionBy\":\"Talathi, Haveli\",\"ReviewActionDateTime\":\"20-Sep-2025,11:02:45\"," +
+            "\"ReviewActionDetails\":\"Documents verified and forwarded to Circle Officer\"}," +
+            "{\"DeskNumber\":\"Desk 2\",\"ReviewActionBy\":\"\",\"ReviewActionDateTime\":\"\",\"ReviewActionDetails\":\"\"}]}";
+    }
+
+    // ========================================================================
+    // CONSOLE RUNNER
+    // ========================================================================
+
+    class Program
+    {
+        static void Main(string[] args)
+        {
+            int iterations = args.Length > 0 ? int.Parse(args[0]) : 100_000;
+
+            Console.WriteLine("=".PadRight(70, '='));
+            Console.WriteLine("Track Application SDK - Benchmarks");
+            Console.WriteLine("=".PadRight(70, '='));
+            Console.WriteLine($"Runtime:    {Environment.Version}");
+            Console.WriteLine($"Iterations: {iterations:N0}");
+            Console.WriteLine();
+
+            Console.WriteLine("TripleDES");
+            foreach (var result in new CryptoBenchmark().Run(iterations))
+                BenchmarkRunner.Print(result);
+
+            Console.WriteLine();
+            Console.WriteLine("Hex codec");
+            foreach (var result in new HexBenchmark().Run(iterations))
+                BenchmarkRunner.Print(result);
+        }
+    }
+}
@@ -7,10 +7,13 @@
 
 using System;
 using System.Collections.Generic;
+using System.IO;
 using System.Linq;
+using System.Threading;
 using System.Threading.Tasks;
 using System.Web.Mvc; // For ASP.NET MVC examples
 using MaharashtraGov.TrackApplicationAPI;
+using Newtonsoft.Json;
 
 namespace TrackApplicationSDK.Examples
 {
@@ -93,17 +96,22 @@ namespace TrackApplicationSDK.Examples
 
     public class ApplicationStatusController : Controller
     {
-        private readonly TrackApplicationClient _apiClient;
-
-        // Initialize client in constructor (dependency injection recommended)
-        public ApplicationStatusController()
-        {
-            _apiClient = new TrackApplicationClient(
+        // Controllers are created per request - share one client (and its
+        // connection pool) across requests instead of creating one each time
+        private static readonly Lazy<TrackApplicationClient> SharedClient =
+            new Lazy<TrackApplicationClient>(() => new TrackApplicationClient(
                 apiBaseUrl: System.Configuration.ConfigurationManager.AppSettings["ApiBaseUrl"],
                 encryptionKey: System.Configuration.ConfigurationManager.AppSettings["EncryptionKey"],
                 encryptionIV: System.Configuration.ConfigurationManager.AppSettings["EncryptionIV"],
                 departmentName: "Revenue Department"
-            );
+            ));
+
+        private readonly TrackApplicationClient _apiClient;
+
+        // Dependency injection recommended (see Example 10)
+        public ApplicationStatusController()
+        {
+            _apiClient = SharedClient.Value;
         }
 
         // GET: /ApplicationStatus/Track?applicationId=INC12345678&serviceId=4111
@@ -203,8 +211,16 @@ namespace TrackApplicationSDK.Examples
 
     public class ApplicationMonitoringService
     {
+        // Upper bound on API calls per tick; with a 5 second tick this is at
+        // most 14,400 checks an hour however many applications fall due together
+        private const int MaxChecksPerTick = 20;
+        private const string DepartmentName = "Revenue Department";
+        private static readonly TimeSpan TickInterval = TimeSpan.FromSeconds(5);
+
         private readonly TrackApplicationClient _apiClient;
-        private readonly INotificationService _notificationService;
+        private readonly NotificationOutbox _outbox;
+        private readonly StatusSnapshotStore _snapshots;
+        private readonly PollingScheduler<PendingApplication> _schedule;
 
         public ApplicationMonitoringService(
             string apiBaseUrl,
@@ -216,20 +232,72 @@ namespace TrackApplicationSDK.Examples
                 apiBaseUrl,
                 encryptionKey,
                 encryptionIV,
-                "Revenue Department"
+                DepartmentName
             );
-            _notificationService = notificationService;
+
+            // Last known status per application, kept on local disk so polling
+            // needs no central database round trip
+            _snapshots = new StatusSnapshotStore("status-snapshots");
+
+            // Polling only records notifications; the outbox sends them, so a
+            // slow email or SMS gateway never holds up status checks
+            _outbox = new NotificationOutbox(notificationService, new NotificationOutboxOptions
+            {
+                FilePath = "notifications.outbox",
+                EmailsPerSecond = 10,
+                SmsPerSecond = 5
+            });
+
+            // Each application is checked on its own schedule: more often near its
+            // estimated disbursal date, less often while stuck at one desk, and no
+            // more once approved or rejected
+            _schedule = new PollingScheduler<PendingApplication>(app => app.ApplicationId);
+
+            foreach (var app in GetPendingApplicationsFromDatabase())
+                _schedule.Add(app);
         }
 
         /// <summary>
-        /// Check all pending applications and send notifications for status changes
+        /// Start monitoring a newly submitted application
+        /// </summary>
+        public void Monitor(PendingApplication app)
+        {
+            _schedule.Add(app);
+        }
+
+        /// <summary>
+        /// Check due applications every few seconds and deliver notifications
+        /// until cancelled
+        /// </summary>
+        public async Task RunAsync(CancellationToken cancellationToken)
+        {
+            var dispatcher = _outbox.RunAsync(cancellationToken);
+
+            while (!cancellationToken.IsCancellationRequested)
+            {
+                await CheckPendingApplicationsAsync();
+
+                try
+                {
+                    await Task.Delay(TickInterval, cancellationToken);
+                }
+                catch (OperationCanceledException)
+                {
+                    break;
+                }
+            }
+
+            await dispatcher;
+        }
+
+        /// <summary>
+        /// Check the applications that are due and queue notifications for status changes
         /// </summary>
         public async Task CheckPendingApplicationsAsync()
         {
-            // Get list of applications to check from database
-            var pendingApplications = GetPendingApplicationsFromDatabase();
+            var dueApplications = _schedule.TakeDue(DateTime.UtcNow, MaxChecksPerTick);
 
-            foreach (var app in pendingApplications)
+            foreach (var app in dueApplications)
             {
                 try
                 {
@@ -238,41 +306,65 @@ namespace TrackApplicationSDK.Examples
                         app.ServiceId
                     );
 
-                    // Check if status changed
-                    if (HasStatusChanged(app, response))
+                    // Unchanged poll: one 8-byte compare, no disk or database access
+                    var key = new SnapshotKey(DepartmentName, app.ServiceId, app.ApplicationId);
+                    ulong fingerprint = StatusFingerprint.Compute(response);
+                    if (!_snapshots.TryGetFingerprint(key, out var storedFingerprint) || fingerprint != storedFingerprint)
                     {
+                        _snapshots.TryGet(key, out var stored);
+                        var change = StatusChange.Compare(stored, response);
+
+                        _snapshots.Put(key, response);
+
                         // Update database
                         UpdateApplicationStatus(app.ApplicationId, response);
 
-                        // Send notification to citizen
-                        if (response.IsFinalDecisionMade)
+                        // Queue notification to citizen; the state key makes a repeat
+                        // of the same change (e.g. after a restart) a no-op
+                        var stateKey = fingerprint.ToString("x16");
+                        if (change.Closed)
                         {
                             var decision = StatusHelper.GetFinalDecisionText(response.FinalDecision);
-                            await _notificationService.SendEmailAsync(
+                            _outbox.EnqueueEmail(
+                                app.ApplicationId,
+                                stateKey,
                                 app.CitizenEmail,
                                 "Application Status Update",
                                 $"Your application {app.ApplicationId} has been {decision}."
                             );
 
-                            await _notificationService.SendSMSAsync(
+                            _outbox.EnqueueSMS(
+                                app.ApplicationId,
+                                stateKey,
                                 app.CitizenMobile,
                                 $"Your application {app.ApplicationId} has been {decision}."
                             );
                         }
-                        else if (response.IsActionRequired)
+                        else if (change.ActionRequiredChanged && response.IsActionRequired)
                         {
-                            await _notificationService.SendEmailAsync(
+                            _outbox.EnqueueEmail(
+                                app.ApplicationId,
+                                stateKey,
                                 app.CitizenEmail,
                                 "Action Required on Your Application",
                                 response.NextActionRequiredDetails
                             );
                         }
                     }
+
+                    // Returns false once approved or rejected; monitoring stops
+                    _schedule.Reschedule(app, response);
+                }
+                catch (ApplicationNotFoundException)
+                {
+                    LogError($"Application {app.ApplicationId} not found, no longer monitoring");
+                    _schedule.Remove(app.ApplicationId);
                 }
                 catch (Exception ex)
                 {
-                    // Log error and continue with next application
+                    // Log error, retry later and continue with next application
                     LogError($"Failed to check application {app.ApplicationId}: {ex.Message}");
+                    _schedule.RescheduleAfterError(app);
                 }
             }
         }
@@ -284,15 +376,9 @@ namespace TrackApplicationSDK.Examples
             return new List<PendingApplication>();
         }
 
-        private bool HasStatusChanged(PendingApplication app, ApplicationStatusResponse response)
-        {
-            // Compare with stored status
-            return false;
-        }
-
         private void UpdateApplicationStatus(string applicationId, ApplicationStatusResponse response)
         {
-            // Update database
+            // Update database (only called when the status changed)
         }
 
         private void LogError(string message)
@@ -315,6 +401,485 @@ namespace TrackApplicationSDK.Examples
         Task SendSMSAsync(string mobile, string message);
     }
 
+    public enum NotificationChannel
+    {
+        Email,
+        SMS
+    }
+
+    /// <summary>
+    /// A notification waiting in the outbox
+    /// </summary>
+    public class OutboxNotification
+    {
+        public string Id { get; set; }
+        public NotificationChannel Channel { get; set; }
+        public string ApplicationId { get; set; }
+
+        /// <summary>
+        /// Identifies the application state being reported (e.g. its status
+        /// fingerprint); the same channel, application and state is sent once
+        /// </summary>
+        public string StateKey { get; set; }
+
+        public string Recipient { get; set; }
+        public string Subject { get; set; }
+        public string Body { get; set; }
+        public DateTime CreatedAt { get; set; }
+        public int Attempts { get; set; }
+
+        [JsonIgnore]
+        internal DateTime NextAttemptAt { get; set; }
+
+        [JsonIgnore]
+        internal string DedupeKey => $"{Channel}|{ApplicationId}|{StateKey}";
+    }
+
+    public class NotificationOutboxOptions
+    {
+        /// <summary>
+        /// Append-only file holding undelivered notifications across restarts
+        /// </summary>
+        public string FilePath { get; set; } = "notifications.outbox";
+
+        /// <summary>
+        /// Notifications taken per channel per round; their delivery is recorded
+        /// with a single file write
+        /// </summary>
+        public int BatchSize { get; set; } = 50;
+
+        /// <summary>
+        /// Gateway quotas; sends are spaced to stay within them
+        /// </summary>
+        public double EmailsPerSecond { get; set; } = 10;
+        public double SmsPerSecond { get; set; } = 5;
+
+        /// <summary>
+        /// Attempts before a notification is given up and logged
+        /// </summary>
+        public int MaxAttempts { get; set; } = 5;
+
+        /// <summary>
+        /// Wait before the first retry; doubles with each failed attempt
+        /// </summary>
+        public TimeSpan RetryDelay { get; set; } = TimeSpan.FromSeconds(30);
+
+        /// <summary>
+        /// How long a delivered notification still suppresses duplicates
+        /// </summary>
+        public TimeSpan DedupeWindow { get; set; } = TimeSpan.FromDays(7);
+
+        /// <summary>
+        /// Rewrite the file once it holds this many finished records
+        /// </summary>
+        public int CompactAfterRecords { get; set; } = 10000;
+    }
+
+    /// <summary>
+    /// Durable notification outbox. Enqueue records a notification and returns at
+    /// once; RunAsync delivers them per channel in rate-limited batches. Records
+    /// are appended to a local file (one JSON line each) before Enqueue returns,
+    /// so undelivered notifications are sent after a restart.
+    /// </summary>
+    public sealed class NotificationOutbox : IDisposable
+    {
+        private readonly object _lock = new object();
+        private readonly INotificationService _service;
+        private readonly NotificationOutboxOptions _options;
+        private readonly Dictionary<NotificationChannel, Queue<OutboxNotification>> _queues;
+        private readonly Dictionary<NotificationChannel, SemaphoreSlim> _signals;
+
+        // Taken by a channel loop and not yet completed; kept in the file by Rewrite
+        private readonly Dictionary<string, OutboxNotification> _inFlight = new Dictionary<string, OutboxNotification>();
+
+        // Dedupe key -> delivered time (null while pending)
+        private readonly Dictionary<string, DateTime?> _known = new Dictionary<string, DateTime?>();
+        private StreamWriter _log;
+        private int _finishedRecords;
+
+        public NotificationOutbox(INotificationService service, NotificationOutboxOptions options = null)
+        {
+            _service = service ?? throw new ArgumentNullException(nameof(service));
+            _options = options ?? new NotificationOutboxOptions();
+
+            _queues = new Dictionary<NotificationChannel, Queue<OutboxNotification>>();
+            _signals = new Dictionary<NotificationChannel, SemaphoreSlim>();
+            foreach (NotificationChannel channel in Enum.GetValues(typeof(NotificationChannel)))
+            {
+                _queues[channel] = new Queue<OutboxNotification>();
+                _signals[channel] = new SemaphoreSlim(0);
+            }
+
+            Recover();
+        }
+
+        /// <summary>
+        /// Notifications not yet delivered
+        /// </summary>
+        public int PendingCount
+        {
+            get { lock (_lock) return _queues.Values.Sum(q => q.Count) + _inFlight.Count; }
+        }
+
+        /// <returns>False if the same notification was already queued or sent</returns>
+        public bool EnqueueEmail(string applicationId, string stateKey, string email, string subject, string body)
+        {
+            return Enqueue(NotificationChannel.Email, applicationId, stateKey, email, subject, body);
+        }
+
+        /// <returns>False if the same notification was already queued or sent</returns>
+        public bool EnqueueSMS(string applicationId, string stateKey, string mobile, string message)
+        {
+            return Enqueue(NotificationChannel.SMS, applicationId, stateKey, mobile, null, message);
+        }
+
+        private bool Enqueue(NotificationChannel channel, string applicationId, string stateKey,
+            string recipient, string subject, string body)
+        {
+            if (string.IsNullOrEmpty(recipient))
+                return false;
+
+            var notification = new OutboxNotification
+            {
+                Id = Guid.NewGuid().ToString("N"),
+                Channel = channel,
+                ApplicationId = applicationId,
+                StateKey = stateKey,
+                Recipient = recipient,
+                Subject = subject,
+                Body = body,
+                CreatedAt = DateTime.UtcNow
+            };
+
+            lock (_lock)
+            {
+                if (_known.ContainsKey(notification.DedupeKey))
+                    return false;
+
+                Append(new OutboxRecord { Type = OutboxRecord.Enqueued, Notification = notification });
+                _known[notification.DedupeKey] = null;
+                _queues[channel].Enqueue(notification);
+            }
+
+            _signals[channel].Release();
+            return true;
+        }
+
+        /// <summary>
+        /// Deliver queued notifications until cancelled
+        /// </summary>
+        public Task RunAsync(CancellationToken cancellationToken)
+        {
+            return Task.WhenAll(_queues.Keys.Select(channel => RunChannelAsync(channel, cancellationToken)));
+        }
+
+        private async Task RunChannelAsync(NotificationChannel channel, CancellationToken cancellationToken)
+        {
+            double perSecond = channel == NotificationChannel.Email ? _options.EmailsPerSecond : _options.SmsPerSecond;
+            var spacing = TimeSpan.FromSeconds(1 / Math.Max(perSecond, 0.001));
+
+            while (!cancellationToken.IsCancellationRequested)
+            {
+                var batch = TakeBatch(channel);
+                if (batch.Count == 0)
+                {
+                    try
+                    {
+                        // Wake on enqueue, or periodically for retries that became due
+                        await _signals[channel].WaitAsync(TimeSpan.FromSeconds(1), cancellationToken);
+                    }
+                    catch (OperationCanceledException)
+                    {
+                        break;
+                    }
+                    continue;
+                }
+
+                // Start sends spaced by the gateway quota and let them complete together
+                var sends = new List<Task<bool>>(batch.Count);
+                foreach (var notification in batch)
+                {
+                    if (sends.Count > 0)
+                    {
+                        try
+                        {
+                            await Task.Delay(spacing, cancellationToken);
+                        }
+                        catch (OperationCanceledException)
+                        {
+                            break;
+                        }
+                    }
+                    sends.Add(SendAsync(notification));
+                }
+
+                var delivered = await Task.WhenAll(sends);
+
+                // Not started because of cancellation; still pending in the file.
+                // Queued again before Complete so a compaction there keeps them.
+                lock (_lock)
+                {
+                    foreach (var notification in batch.Skip(delivered.Length))
+                    {
+                        _inFlight.Remove(notification.Id);
+                        _queues[channel].Enqueue(notification);
+                    }
+                }
+
+                Complete(batch.Take(delivered.Length).ToList(), delivered);
+            }
+        }
+
+        private List<OutboxNotification> TakeBatch(NotificationChannel channel)
+        {
+            var batch = new List<OutboxNotification>();
+            var now = DateTime.UtcNow;
+
+            lock (_lock)
+            {
+                var queue = _queues[channel];
+                int remaining = queue.Count;
+
+                // One pass over the queue; retries not yet due go to the back
+                while (remaining-- > 0 && batch.Count < _options.BatchSize)
+                {
+                    var notification = queue.Dequeue();
+                    if (notification.NextAttemptAt <= now)
+                    {
+                        batch.Add(notification);
+                        _inFlight[notification.Id] = notification;
+                    }
+                    else
+                        queue.Enqueue(notification);
+                }
+            }
+
+            return batch;
+        }
+
+        private async Task<bool> SendAsync(OutboxNotification notification)
+        {
+            try
+            {
+                if (notification.Channel == NotificationChannel.Email)
+                    await _service.SendEmailAsync(notification.Recipient, notification.Subject, notification.Body);
+                else
+                    await _service.SendSMSAsync(notification.Recipient, notification.Body);
+
+                return true;
+            }
+            catch (Exception ex)
+            {
+                System.Diagnostics.Trace.TraceWarning(
+                    $"{notification.Channel} for application {notification.ApplicationId} failed: {ex.Message}");
+                return false;
+            }
+        }
+
+        private void Complete(List<OutboxNotification> batch, bool[] delivered)
+        {
+            var now = DateTime.UtcNow;
+
+            lock (_lock)
+            {
+                for (int i = 0; i < batch.Count; i++)
+                {
+                    var notification = batch[i];
+                    _inFlight.Remove(notification.Id);
+
+                    if (delivered[i])
+                    {
+                        _log.WriteLine(JsonConvert.SerializeObject(new OutboxRecord { Type = OutboxRecord.Delivered, Id = notification.Id, At = now }));
+                        _known[notification.DedupeKey] = now;
+                        _finishedRecords++;
+                    }
+                    else if (++notification.Attempts >= _options.MaxAttempts)
+                    {
+                        _log.WriteLine(JsonConvert.SerializeObject(new OutboxRecord { Type = OutboxRecord.Abandoned, Id = notification.Id, At = now }));
+                        _known.Remove(notification.DedupeKey);
+                        _finishedRecords++;
+                        System.Diagnostics.Trace.TraceError(
+                            $"Giving up {notification.Channel} for application {notification.ApplicationId} after {notification.Attempts} attempts");
+                    }
+                    else
+                    {
+                        _log.WriteLine(JsonConvert.SerializeObject(new OutboxRecord { Type = OutboxRecord.Failed, Id = notification.Id, At = now }));
+                        notification.NextAttemptAt = now + TimeSpan.FromTicks(
+                            _options.RetryDelay.Ticks << Math.Min(notification.Attempts - 1, 10));
+                        _queues[notification.Channel].Enqueue(notification);
+                    }
+                }
+
+                // One flush for the whole batch
+                Flush();
+
+                if (_finishedRecords >= _options.CompactAfterRecords)
+                    Compact();
+            }
+        }
+
+        #region Log File
+
+        private void Recover()
+        {
+            var pending = new Dictionary<string, OutboxNotification>();
+            var delivered = new List<KeyValuePair<OutboxNotification, DateTime>>();
+
+            if (File.Exists(_options.FilePath))
+            {
+                foreach (var line in File.ReadLines(_options.FilePath))
+                {
+                    OutboxRecord record;
+                    try
+                    {
+                        record = JsonConvert.DeserializeObject<OutboxRecord>(line);
+                    }
+                    catch (JsonException)
+                    {
+                        // Torn last line from a crash mid-write
+                        continue;
+                    }
+
+                    if (record == null)
+                        continue;
+
+                    switch (record.Type)
+                    {
+                        case OutboxRecord.Enqueued:
+                            if (record.Notification?.Id != null)
+                                pending[record.Notification.Id] = record.Notification;
+                            break;
+                        case OutboxRecord.Failed:
+                            if (pending.TryGetValue(record.Id ?? string.Empty, out var failed))
+                                failed.Attempts++;
+                            break;
+                        case OutboxRecord.Delivered:
+                            if (pending.TryGetValue(record.Id ?? string.Empty, out var sent))
+                            {
+                                pending.Remove(record.Id);
+                                delivered.Add(new KeyValuePair<OutboxNotification, DateTime>(sent, record.At));
+                            }
+                            break;
+                        case OutboxRecord.Abandoned:
+                            pending.Remove(record.Id ?? string.Empty);
+                            break;
+                    }
+                }
+            }
+
+            var dedupeFrom = DateTime.UtcNow - _options.DedupeWindow;
+            foreach (var item in delivered.Where(d => d.Value >= dedupeFrom))
+                _known[item.Key.DedupeKey] = item.Value;
+
+            foreach (var notification in pending.Values.OrderBy(n => n.CreatedAt))
+            {
+                _known[notification.DedupeKey] = null;
+                _queues[notification.Channel].Enqueue(notification);
+            }
+
+            // Start from a compact file holding only what is still needed
+            Rewrite(delivered.Where(d => d.Value >= dedupeFrom));
+        }
+
+        private void Compact()
+        {
+            var dedupeFrom = DateTime.UtcNow - _options.DedupeWindow;
+            var recent = new List<KeyValuePair<OutboxNotification, DateTime>>();
+
+            // Delivered notifications inside the dedupe window are kept as a
+            // minimal Enqueued + Delivered pair so duplicates stay suppressed
+            foreach (var entry in _known)
+            {
+                if (entry.Value.HasValue && entry.Value.Value >= dedupeFrom)
+                {
+                    var parts = entry.Key.Split(new[] { '|' }, 3);
+                    recent.Add(new KeyValuePair<OutboxNotification, DateTime>(new OutboxNotification
+                    {
+                        Id = Guid.NewGuid().ToString("N"),
+                        Channel = (NotificationChannel)Enum.Parse(typeof(NotificationChannel), parts[0]),
+                        ApplicationId = parts[1],
+                        StateKey = parts[2],
+                        CreatedAt = entry.Value.Value
+                    }, entry.Value.Value));
+                }
+            }
+
+            foreach (var key in _known.Where(e => e.Value.HasValue && e.Value.Value < dedupeFrom).Select(e => e.Key).ToList())
+                _known.Remove(key);
+
+            Rewrite(recent);
+        }
+
+        /// <summary>
+        /// Write pending (queued or being sent) and recently delivered notifications
+        /// to a new file and swap it in, so a crash leaves either the old or the new file
+        /// </summary>
+        private void Rewrite(IEnumerable<KeyValuePair<OutboxNotification, DateTime>> recentlyDelivered)
+        {
+            _log?.Dispose();
+
+            var tempPath = _options.FilePath + ".tmp";
+            using (var writer = new StreamWriter(tempPath, false))
+            {
+                foreach (var item in recentlyDelivered)
+                {
+                    writer.WriteLine(JsonConvert.SerializeObject(new OutboxRecord { Type = OutboxRecord.Enqueued, Notification = item.Key }));
+                    writer.WriteLine(JsonConvert.SerializeObject(new OutboxRecord { Type = OutboxRecord.Delivered, Id = item.Key.Id, At = item.Value }));
+                }
+
+                foreach (var notification in _queues.Values.SelectMany(q => q).Concat(_inFlight.Values))
+                    writer.WriteLine(JsonConvert.SerializeObject(new OutboxRecord { Type = OutboxRecord.Enqueued, Notification = notification }));
+
+                writer.Flush();
+                ((FileStream)writer.BaseStream).Flush(true);
+            }
+
+            if (File.Exists(_options.FilePath))
+                File.Replace(tempPath, _options.FilePath, null);
+            else
+                File.Move(tempPath, _options.FilePath);
+
+            _log = new StreamWriter(new FileStream(_options.FilePath, FileMode.Append, FileAccess.Write, FileShare.Read));
+            _finishedRecords = 0;
+        }
+
+        private void Append(OutboxRecord record)
+        {
+            _log.WriteLine(JsonConvert.SerializeObject(record));
+            Flush();
+        }
+
+        private void Flush()
+        {
+            _log.Flush();
+            ((FileStream)_log.BaseStream).Flush(true);
+        }
+
+        #endregion
+
+        public void Dispose()
+        {
+            lock (_lock)
+            {
+                _log?.Dispose();
+                _log = null;
+            }
+        }
+
+        private class OutboxRecord
+        {
+            public const string Enqueued = "E";
+            public const string Delivered = "D";
+            public const string Failed = "F";
+            public const string Abandoned = "A";
+
+            public string Type { get; set; }
+            public string Id { get; set; }
+            public DateTime At { get; set; }
+            public OutboxNotification Notification { get; set; }
+        }
+    }
+
     // ========================================================================
     // EXAMPLE 4: Batch Processing - Check Multiple Applications
     // ========================================================================
@@ -342,34 +907,59 @@ namespace TrackApplicationSDK.Examples
         {
             var results = new List<BatchResult>();
 
-            foreach (var appId in applicationIds)
+            await foreach (var result in CheckApplicationsAsync(applicationIds, serviceId))
+                results.Add(result);
+
+            return results;
+        }
+
+        /// <summary>
+        /// Check a large number of applications (e.g. a nightly sweep), 16 at a
+        /// time, handling each result as soon as it arrives
+        /// </summary>
+        public async IAsyncEnumerable<BatchResult> CheckApplicationsAsync(
+            IEnumerable<string> applicationIds,
+            string serviceId,
+            [System.Runtime.CompilerServices.EnumeratorCancellation] CancellationToken cancellationToken = default)
+        {
+            var requests = applicationIds.Select(appId => _apiClient.CreateRequest(appId, serviceId));
+
+            var options = new BatchOptions
             {
-                try
+                MaxDegreeOfParallelism = 16,
+                Progress = new Progress<BatchProgress>(p =>
                 {
-                    var response = await _apiClient.GetApplicationStatusAsync(appId, serviceId);
+                    if (p.Completed % 1000 == 0)
+                        Console.WriteLine($"{p.Completed:N0} checked ({p.Failed:N0} failed) in {p.Elapsed:hh\\:mm\\:ss}");
+                })
+            };
 
-                    results.Add(new BatchResult
+            // Results arrive in completion order, not input order
+            await foreach (var result in _apiClient.GetApplicationStatusesAsync(requests, options, cancellationToken))
+            {
+                if (result.Success)
+                {
+                    var response = result.Response;
+                    yield return new BatchResult
                     {
-                        ApplicationId = appId,
+                        ApplicationId = result.Request.AppID,
                         Success = true,
                         ServiceName = response.ServiceName,
                         ApplicantName = response.ApplicantName,
                         Status = StatusHelper.GetFinalDecisionText(response.FinalDecision),
                         Progress = response.ProgressPercentage
-                    });
+                    };
                 }
-                catch (Exception ex)
+                else
                 {
-                    results.Add(new BatchResult
+                    yield return new BatchResult
                     {
-                        ApplicationId = appId,
+                        ApplicationId = result.Request.AppID,
                         Success = false,
-                        ErrorMessage = ex.Message
-                    });
+                        ErrorMessage = result.Error.Message
+                    };
                 }
             }
-
-            return results;
         }
 
         public class BatchResult
@@ -403,7 +993,18 @@ namespace TrackApplicationSDK.Examples
                 // Advanced options
                 Timeout = TimeSpan.FromSeconds(60),        // Increase timeout
                 MaxRetries = 5,                            // More retries
-                RetryDelay = TimeSpan.FromSeconds(3),      // Longer delay between retries
+                RetryDelay = TimeSpan.FromSeconds(3),      // Base delay (jittered, grows per retry)
+                RetryMaxDelay = TimeSpan.FromSeconds(20),  // Cap per retry delay
+                RetryBudgetRatio = 0.1,                    // Retries at most 10% of traffic
+                SerializerMode = SerializerMode.SystemTextJson, // Source-generated JSON (.NET 6+)
+                MaxConnectionsPerServer = 50,              // Connection pool size
+                PooledConnectionLifetime = TimeSpan.FromMinutes(2), // Pick up DNS changes sooner
+                EnableHttp2 = true,                        // Multiplex requests (.NET 5+)
+                EnableRequestCoalescing = true,            // Share identical concurrent lookups
+                EnableResponseCache = true,                // Cache by status (decided: 24h, pending: 30s-10min)
+                ServeStaleOnError = true,                  // Last known status if department is down
+                EnableHedging = true,                      // Second request if first is slower than p95
+                EnableAdaptiveConcurrency = true,          // Find the department's safe concurrency
                 EnableLogging = true,                      // Enable logging
                 LogLevel = LogLevel.Debug                  // Detailed logs
             };
@@ -452,6 +1053,13 @@ namespace TrackApplicationSDK.Examples
 
                 // Fix: Contact API provider - response format may have changed
             }
+            catch (ApplicationNotFoundException ex)
+            {
+                // 404 - wrong Application ID (not retried; remembered for NotFoundCacheDuration when set)
+                Console.WriteLine($"Application {ex.ApplicationId} not found");
+
+                // Fix: Ask the citizen to check the Application ID
+            }
             catch (ApiException ex)
             {
                 // API returned error status code
@@ -461,9 +1069,20 @@ namespace TrackApplicationSDK.Examples
                 // Fix depends on status code:
                 // - 400: Check request format
                 // - 401/403: Check authentication
-                // - 404: Application not found
                 // - 500: API server error (try again later)
             }
+            catch (ConcurrencyLimitExceededException ex)
+            {
+                // Department is at its concurrency limit - the call was not sent
+                Console.WriteLine($"Department busy (limit {ex.Limit}), try again shortly");
+            }
+            catch (CircuitBreakerOpenException ex)
+            {
+                // Department has been failing - the call was not sent
+                Console.WriteLine($"Department unavailable, try again in {ex.RetryIn.TotalSeconds:0}s");
+
+                // Fix: Nothing to do - the SDK probes the department again automatically
+            }
             catch (TrackApplicationException ex)
             {
                 // General SDK error (e.g., network issues, retries exhausted)
@@ -484,16 +1103,20 @@ namespace TrackApplicationSDK.Examples
 
     public class MobileApiController : Controller
     {
-        private readonly TrackApplicationClient _apiClient;
-
-        public MobileApiController()
-        {
-            _apiClient = new TrackApplicationClient(
+        // One client for all requests (see Example 2)
+        private static readonly Lazy<TrackApplicationClient> SharedClient =
+            new Lazy<TrackApplicationClient>(() => new TrackApplicationClient(
                 System.Configuration.ConfigurationManager.AppSettings["ApiBaseUrl"],
                 System.Configuration.ConfigurationManager.AppSettings["EncryptionKey"],
                 System.Configuration.ConfigurationManager.AppSettings["EncryptionIV"],
                 "Revenue Department"
-            );
+            ));
+
+        private readonly TrackApplicationClient _apiClient;
+
+        public MobileApiController()
+        {
+            _apiClient = SharedClient.Value;
         }
 
         // GET: /api/mobile/application-status?appId=INC12345678&serviceId=4111&lang=en
@@ -644,6 +1267,26 @@ namespace TrackApplicationSDK.Examples
         );
     });
 
+    Or, with IHttpClientFactory managing the HttpClient as a typed client:
+
+    services.AddHttpClient<TrackApplicationClient>((http, sp) =>
+    {
+        var config = sp.GetRequiredService<IConfiguration>();
+        http.Timeout = TimeSpan.FromSeconds(30);
+        return new TrackApplicationClient(http, new ClientConfiguration
+        {
+            ApiBaseUrl = config["TrackApplicationAPI:BaseUrl"],
+            EncryptionKey = config["TrackApplicationAPI:EncryptionKey"],
+            EncryptionIV = config["TrackApplicationAPI:EncryptionIV"],
+            DepartmentName = config["TrackApplicationAPI:DepartmentName"]
+        });
+    })
+    .ConfigurePrimaryHttpMessageHandler(() => new SocketsHttpHandler
+    {
+        PooledConnectionLifetime = TimeSpan.FromMinutes(5),
+        MaxConnectionsPerServer = 20
+    });
+
     Then inject in controller:
 
     public class ApplicationController : Controller
@@ -658,4 +1301,153 @@ namespace TrackApplicationSDK.Examples
         // Use _apiClient...
     }
     */
+
+    // ========================================================================
+    // EXAMPLE 11: Multiple Departments - One Registry for All Department APIs
+    // ========================================================================
+
+    public class Example11_MultipleDepartments
+    {
+        // Create once at startup and keep for the lifetime of the application
+        private static readonly DepartmentClientRegistry Registry =
+            new DepartmentClientRegistry(LoadDepartments());
+
+        public static async Task TrackAcrossDepartments()
+        {
+            // Each department has its own concurrency limit, so a slow Revenue
+            // API cannot hold up requests to the Agriculture API
+            var revenue = Registry.GetApplicationStatusAsync("Revenue Department", "INC12345678", "4111");
+            var agriculture = Registry.GetApplicationStatusAsync("Agriculture Department", "AGR00004567", "5120");
+
+            try
+            {
+                await Task.WhenAll(revenue, agriculture);
+            }
+            catch (BulkheadRejectedException ex)
+            {
+                Console.WriteLine($"{ex.DepartmentName} is busy, try again later");
+            }
+
+            foreach (var stats in Registry.GetStatistics())
+            {
+                Console.WriteLine($"{stats.DepartmentName}: {stats.InFlightRequests}/{stats.MaxConcurrentRequests} in flight, {stats.RejectedRequests} rejected");
+            }
+        }
+
+        // Alert operations when a department's circuit opens or recovers
+        public static void MonitorDepartments()
+        {
+            CircuitBreakers.StateChanged += (sender, e) =>
+                Console.WriteLine($"{e.BaseUrl}: {e.PreviousState} -> {e.NewState}");
+        }
+
+        // Call when the department table changes (e.g. from a file watcher or
+        // admin screen); in-flight requests finish on their current client
+        public static void OnDepartmentTableChanged()
+        {
+            Registry.Reload(LoadDepartments());
+        }
+
+        private static IEnumerable<ClientConfiguration> LoadDepartments()
+        {
+            yield return new ClientConfiguration
+            {
+                ApiBaseUrl = "https://api.revenue.maharashtra.gov.in",
+                EncryptionKey = "revenue-dept-key-24char",
+                EncryptionIV = "rev-iv-8",
+                DepartmentName = "Revenue Department",
+                MaxConcurrentRequests = 50
+            };
+
+            yield return new ClientConfiguration
+            {
+                ApiBaseUrl = "https://api.agriculture.maharashtra.gov.in",
+                EncryptionKey = "agri-dept-key-24-chars!!",
+                EncryptionIV = "agri-iv8",
+                DepartmentName = "Agriculture Department",
+                MaxConcurrentRequests = 10,
+                BulkheadWaitTimeout = TimeSpan.FromSeconds(2)
+            };
+        }
+    }
+
+    // ========================================================================
+    // EXAMPLE 12: Nightly Sweep - Pipelined Bulk Fetch with Stage Metrics
+    // ========================================================================
+
+    public class Example12_PipelinedSweep
+    {
+        public static async Task SweepAsync(TrackApplicationClient client, IEnumerable<string> applicationIds)
+        {
+            var pipeline = client.CreatePipeline(new PipelineOptions
+            {
+                EncryptParallelism = 2,   // CPU: JSON + 3DES + hex
+                SendParallelism = 32,     // I/O: requests in flight to the department
+                DecryptParallelism = 2,   // CPU: hex + 3DES + JSON
+                QueueCapacity = 128
+            });
+
+            var failed = new List<string>();
+            var requests = applicationIds.Select(id => client.CreateRequest(id, "4111"));
+
+            await foreach (var result in pipeline.RunAsync(requests))
+            {
+                if (result.Success)
+                    Console.WriteLine($"{result.Request.AppID}: {result.Response.ProgressPercentage}%");
+                else
+                    failed.Add(result.Request.AppID);
+            }
+
+            // A stage with a deep queue is the bottleneck - give it more parallelism
+            foreach (var stage in pipeline.GetStatistics())
+            {
+                Console.WriteLine($"{stage.Stage,-8} x{stage.Parallelism}: {stage.Processed:N0} done, " +
+                    $"{stage.Failed:N0} failed, avg {stage.AverageLatency.TotalMilliseconds:0.0} ms, max queue {stage.MaxQueueDepth}");
+            }
+
+            // The pipeline does not retry - resubmit failures through the regular client
+            if (failed.Count > 0)
+            {
+                await foreach (var retry in client.GetApplicationStatusesAsync(failed.Select(id => client.CreateRequest(id, "4111"))))
+                {
+                    if (!retry.Success)
+                        Console.WriteLine($"{retry.Request.AppID} still failing: {retry.Error.Message}");
+                }
+            }
+        }
+    }
+
+    // ========================================================================
+    // EXAMPLE 13: Operations Dashboard - Queries over Stored Statuses
+    // ========================================================================
+
+    public class Example13_OperationsDashboard
+    {
+        public static void PrintDashboard(StatusSnapshotStore store)
+        {
+            // Built once from the store, then kept current as statuses are stored
+            using (var index = new StatusSnapshotIndex(store))
+            {
+                // Which applications are stuck at Desk 2 of service 4111?
+                var atDesk2 = index.Query(new StatusQuery
+                {
+                    ServiceID = "4111",
+                    CurrentDeskNumber = 2,
+                    IsClosed = false // Pending or not yet decided
+                });
+                Console.WriteLine($"Service 4111, desk 2: {atDesk2.Count}");
+
+                // Which need citizen action?
+                int actionRequired = index.CountMatching(new StatusQuery { IsActionRequired = true });
+                Console.WriteLine($"Waiting for citizen action: {actionRequired}");
+
+                // Which are overdue against EstimatedDisbursalDays? Most overdue first
+                foreach (var status in index.GetOverdue(DateTime.Now, maxResults: 20))
+                {
+                    var daysLate = (DateTime.Now - status.DueDate.Value).TotalDays;
+                    Console.WriteLine($"{status.Key.AppID} ({status.Key.ServiceID}): {daysLate:0} days overdue, desk {status.CurrentDeskNumber}");
+                }
+            }
+        }
+    }
 }
@@ -4,7 +4,8 @@
 // Compatible with: API V3 Specification (November 2025)
 //
 // Installation:
-//   Copy this file to your project, or
+//   Copy this file, TrackApplicationCrypto.cs and TrackApplicationCaching.cs
+//   to your project, or
 //   Install-Package MaharashtraGov.TrackApplicationAPI (when available)
 //
 // Usage:
@@ -15,6 +16,8 @@
 // ============================================================================
 
 using System;
+using System.Buffers;
+using System.Collections.Concurrent;
 using System.Collections.Generic;
 using System.IO;
 using System.Linq;
@@ -23,7 +26,16 @@ using System.Security.Cryptography;
 using System.Text;
 using System.Threading;
 using System.Threading.Tasks;
+using MaharashtraGov.TrackApplicationAPI.Crypto;
 using Newtonsoft.Json;
+#if NETCOREAPP3_0_OR_GREATER
+using System.Runtime.CompilerServices;
+using System.Threading.Channels;
+#endif
+#if NET6_0_OR_GREATER
+using System.Text.Encodings.Web;
+using Stj = System.Text.Json;
+#endif
 
 namespace MaharashtraGov.TrackApplicationAPI
 {
@@ -34,9 +46,27 @@ namespace MaharashtraGov.TrackApplicationAPI
     /// </summary>
     public class TrackApplicationClient : IDisposable
     {
+        private const string UserAgent = "TrackApplicationSDK/1.0";
+
         private readonly HttpClient _httpClient;
-        private readonly string _encryptionKey;
-        private readonly string _encryptionIV;
+        private readonly bool _ownsHttpClient;
+        private readonly Uri _endpointUri;
+        private readonly TripleDesCryptoEngine _crypto;
+        private readonly PayloadSerializer _serializer;
+        private readonly ConcurrentDictionary<StatusRequestKey, Lazy<Task<ApplicationStatusResponse>>> _inFlight =
+            new ConcurrentDictionary<StatusRequestKey, Lazy<Task<ApplicationStatusResponse>>>();
+        private readonly ResponseCache _cache;
+        private readonly IRetryPolicy _retryPolicy;
+        private readonly CircuitBreaker _circuitBreaker;
+        private readonly AdaptiveConcurrencyLimiter _concurrencyLimiter;
+        private readonly LatencyTracker _latency = new LatencyTracker();
+        private long _requestCount;
+        private long _coalescedCount;
+        private long _cacheHitCount;
+        private long _staleCount;
+        private long _retryCount;
+        private long _hedgeCount;
+        private long _hedgeWinCount;
         private readonly string _departmentName;
         private readonly ClientConfiguration _config;
 
@@ -63,9 +93,63 @@ namespace MaharashtraGov.TrackApplicationAPI
         }
 
         /// <summary>
-        /// Initialize Track Application API client with configuration
+        /// Initialize Track Application API client with configuration.
+        /// Connections come from a handler shared by all clients with the same
+        /// transport settings, so create one client per department and reuse it.
         /// </summary>
         public TrackApplicationClient(ClientConfiguration config)
+        {
+            ValidateConfiguration(config);
+
+            _config = config;
+            _crypto = new TripleDesCryptoEngine(config.EncryptionKey, config.EncryptionIV);
+            _serializer = PayloadSerializer.Create(config.SerializerMode);
+            _departmentName = config.DepartmentName;
+            _endpointUri = new Uri(new Uri(config.ApiBaseUrl), config.ApiEndpoint);
+            _cache = config.EnableResponseCache || config.NotFoundCacheDuration > TimeSpan.Zero
+                ? new ResponseCache(config)
+                : null;
+            _retryPolicy = config.RetryPolicy ?? new DefaultRetryPolicy(config);
+            _circuitBreaker = config.EnableCircuitBreaker ? CircuitBreakers.Get(config) : null;
+            _concurrencyLimiter = config.EnableAdaptiveConcurrency ? ConcurrencyLimiters.Get(config) : null;
+
+            _httpClient = new HttpClient(SharedHttpHandlers.Get(config), disposeHandler: false)
+            {
+                Timeout = config.Timeout
+            };
+            _ownsHttpClient = true;
+        }
+
+        /// <summary>
+        /// Initialize Track Application API client over an externally managed
+        /// HttpClient (e.g. a typed client from IHttpClientFactory).
+        /// The HttpClient's own handler and Timeout apply; transport options in
+        /// the configuration are ignored and the HttpClient is not disposed.
+        /// </summary>
+        public TrackApplicationClient(HttpClient httpClient, ClientConfiguration config)
+        {
+            if (httpClient == null)
+                throw new ArgumentNullException(nameof(httpClient));
+
+            ValidateConfiguration(config);
+
+            _config = config;
+            _crypto = new TripleDesCryptoEngine(config.EncryptionKey, config.EncryptionIV);
+            _serializer = PayloadSerializer.Create(config.SerializerMode);
+            _departmentName = config.DepartmentName;
+            _endpointUri = new Uri(new Uri(config.ApiBaseUrl), config.ApiEndpoint);
+            _cache = config.EnableResponseCache || config.NotFoundCacheDuration > TimeSpan.Zero
+                ? new ResponseCache(config)
+                : null;
+            _retryPolicy = config.RetryPolicy ?? new DefaultRetryPolicy(config);
+            _circuitBreaker = config.EnableCircuitBreaker ? CircuitBreakers.Get(config) : null;
+            _concurrencyLimiter = config.EnableAdaptiveConcurrency ? ConcurrencyLimiters.Get(config) : null;
+
+            _httpClient = httpClient;
+            _ownsHttpClient = false;
+        }
+
+        private static void ValidateConfiguration(ClientConfiguration config)
         {
             if (config == null)
                 throw new ArgumentNullException(nameof(config));
@@ -82,18 +166,8 @@ namespace MaharashtraGov.TrackApplicationAPI
             if (string.IsNullOrEmpty(config.DepartmentName))
                 throw new ArgumentException("DepartmentName is required", nameof(config));
 
-            _config = config;
-            _encryptionKey = config.EncryptionKey;
-            _encryptionIV = config.EncryptionIV;
-            _departmentName = config.DepartmentName;
-
-            _httpClient = new HttpClient
-            {
-                BaseAddress = new Uri(config.ApiBaseUrl),
-                Timeout = config.Timeout
-            };
-
-            _httpClient.DefaultRequestHeaders.Add("User-Agent", "TrackApplicationSDK/1.0");
+            if (config.MaxConnectionsPerServer <= 0)
+                throw new ArgumentException("MaxConnectionsPerServer must be positive", nameof(config));
         }
 
         /// <summary>
@@ -110,16 +184,74 @@ namespace MaharashtraGov.TrackApplicationAPI
             Language language = Language.English,
             CancellationToken cancellationToken = default)
         {
-            var request = new ApplicationStatusRequest
+            var request = CreateRequest(applicationId, serviceId, language);
+
+            return await GetApplicationStatusAsync(request, cancellationToken);
+        }
+
+        /// <summary>
+        /// Build a request for this client's department
+        /// </summary>
+        public ApplicationStatusRequest CreateRequest(
+            string applicationId,
+            string serviceId,
+            Language language = Language.English)
+        {
+            return new ApplicationStatusRequest
             {
                 AppID = applicationId,
                 ServiceID = serviceId,
                 DeptName = _departmentName,
                 Language = language == Language.English ? "EN" : "MR"
             };
+        }
 
-            return await GetApplicationStatusAsync(request, cancellationToken);
+#if NETCOREAPP3_0_OR_GREATER
+        /// <summary>
+        /// Create a staged encrypt/send/decrypt engine for bulk lookups against
+        /// this client's department
+        /// </summary>
+        public StatusFetchPipeline CreatePipeline(PipelineOptions options = null)
+        {
+            return new StatusFetchPipeline(this, options ?? new PipelineOptions());
+        }
+
+        /// <summary>
+        /// Get the status of many applications in parallel. Results are streamed
+        /// in completion order (not input order); failures are reported in the
+        /// result instead of being thrown. Use CreateRequest to build requests.
+        /// </summary>
+        public IAsyncEnumerable<BatchResult> GetApplicationStatusesAsync(
+            IEnumerable<ApplicationStatusRequest> requests,
+            BatchOptions options = null,
+            CancellationToken cancellationToken = default)
+        {
+            if (requests == null)
+                throw new ArgumentNullException(nameof(requests));
+
+            return GetApplicationStatusesAsync(BatchRunner.ToAsyncEnumerable(requests), options, cancellationToken);
+        }
+
+        /// <summary>
+        /// Get the status of a stream of applications in parallel; see the
+        /// IEnumerable overload
+        /// </summary>
+        public IAsyncEnumerable<BatchResult> GetApplicationStatusesAsync(
+            IAsyncEnumerable<ApplicationStatusRequest> requests,
+            BatchOptions options = null,
+            CancellationToken cancellationToken = default)
+        {
+            if (requests == null)
+                throw new ArgumentNullException(nameof(requests));
+
+            return BatchRunner.RunAsync(
+                requests,
+                (request, token) => GetApplicationStatusAsync(request, token),
+                options ?? new BatchOptions(),
+                perDepartment: false,
+                cancellationToken);
         }
+#endif
 
         /// <summary>
         /// Get application status with full request object
@@ -143,87 +275,122 @@ namespace MaharashtraGov.TrackApplicationAPI
 
             Log($"Requesting status for application: {request.AppID}");
 
-            // Retry logic
-            Exception lastException = null;
+            Interlocked.Increment(ref _requestCount);
 
-            for (int attempt = 0; attempt <= _config.MaxRetries; attempt++)
+            if (_cache != null)
             {
-                try
+                var lookup = _cache.TryGet(new StatusRequestKey(request), out var cached);
+
+                if (lookup == CacheLookup.NotFound)
                 {
-                    // Serialize request to JSON
-                    var requestJson = JsonConvert.SerializeObject(request, new JsonSerializerSettings
-                    {
-                        NullValueHandling = NullValueHandling.Include
-                    });
+                    Interlocked.Increment(ref _cacheHitCount);
+                    LogDebug($"Cached not-found result for {request.AppID}");
+                    throw new ApplicationNotFoundException(request.AppID, null);
+                }
 
-                    LogDebug($"Request JSON: {requestJson}");
+                if (lookup == CacheLookup.Fresh)
+                {
+                    Interlocked.Increment(ref _cacheHitCount);
+                    LogDebug($"Cache hit for {request.AppID}");
+                    return cached;
+                }
 
-                    // Encrypt request
-                    var encryptedRequest = Encrypt(requestJson);
-                    LogDebug("Request encrypted successfully");
+                if (lookup == CacheLookup.Stale)
+                {
+                    // Either stale mode: answer now and let the retries of a slow
+                    // or failing department run in the background, not in the caller's path
+                    RefreshInBackground(request);
+                    return ServeStale(cached, "refreshing in background");
+                }
+            }
 
-                    // Create encrypted payload
-                    var payload = new { data = encryptedRequest };
-                    var payloadJson = JsonConvert.SerializeObject(payload);
+            if (!_config.EnableRequestCoalescing)
+                return await LoadAsync(request, cancellationToken);
 
-                    // Send HTTP request
-                    var content = new StringContent(payloadJson, Encoding.UTF8, "application/json");
-                    var httpResponse = await _httpClient.PostAsync(
-                        _config.ApiEndpoint,
-                        content,
-                        cancellationToken
-                    );
+            return await GetCoalescedAsync(request, cancellationToken);
+        }
 
-                    LogDebug($"HTTP response: {httpResponse.StatusCode}");
+        /// <summary>
+        /// Remove cached responses for an application (all services and languages),
+        /// e.g. after the department notifies a status change
+        /// </summary>
+        /// <returns>Number of cached responses removed</returns>
+        public int InvalidateApplication(string applicationId)
+        {
+            if (string.IsNullOrEmpty(applicationId))
+                throw new ArgumentException("Application ID is required", nameof(applicationId));
 
-                    // Read response
-                    var responseContent = await httpResponse.Content.ReadAsStringAsync();
+            return _cache?.Invalidate(applicationId) ?? 0;
+        }
 
-                    // Check for HTTP errors
-                    if (!httpResponse.IsSuccessStatusCode)
-                    {
-                        throw new ApiException(
-                            $"API returned error status {httpResponse.StatusCode}",
-                            httpResponse.StatusCode,
-                            responseContent
-                        );
-                    }
+        /// <summary>
+        /// Snapshot of the client's request counters
+        /// </summary>
+        public ClientStatistics GetStatistics()
+        {
+            return new ClientStatistics
+            {
+                Requests = Interlocked.Read(ref _requestCount),
+                CoalescedRequests = Interlocked.Read(ref _coalescedCount),
+                CacheHits = Interlocked.Read(ref _cacheHitCount),
+                StaleResponses = Interlocked.Read(ref _staleCount),
+                Retries = Interlocked.Read(ref _retryCount),
+                CircuitState = _circuitBreaker?.State ?? CircuitBreakerState.Closed,
+                ConcurrencyLimit = _concurrencyLimiter?.Limit,
+                HedgedRequests = Interlocked.Read(ref _hedgeCount),
+                HedgeWins = Interlocked.Read(ref _hedgeWinCount),
+                LatencyP50 = _latency.TryGetPercentile(0.50, out var p50) ? p50 : (TimeSpan?)null,
+                LatencyP95 = _latency.TryGetPercentile(0.95, out var p95) ? p95 : (TimeSpan?)null,
+                CachedResponses = _cache?.Count ?? 0
+            };
+        }
 
-                    // Parse encrypted response
-                    var encryptedResponse = JsonConvert.DeserializeObject<EncryptedResponse>(responseContent);
+        /// <summary>
+        /// Fetch from the department and cache the result
+        /// </summary>
+        private async Task<ApplicationStatusResponse> LoadAsync(
+            ApplicationStatusRequest request,
+            CancellationToken cancellationToken)
+        {
+            long invalidationStamp = _cache?.InvalidationStamp ?? 0;
 
-                    if (encryptedResponse?.data == null)
-                    {
-                        throw new ApiException(
-                            "Response does not contain encrypted data",
-                            httpResponse.StatusCode,
-                            responseContent
-                        );
-                    }
+            ApplicationStatusResponse response;
+            try
+            {
+                response = await SendWithRetriesAsync(request, cancellationToken);
+            }
+            catch (ApplicationNotFoundException ex)
+            {
+                // A bare 404 may be a wrong route or base URL; never cache that as "not found"
+                if (ex.IsDepartmentNotFound)
+                    _cache?.SetNotFound(new StatusRequestKey(request), invalidationStamp);
+                throw;
+            }
 
-                    // Decrypt response
-                    var decryptedJson = Decrypt(encryptedResponse.data);
-                    LogDebug($"Response decrypted: {decryptedJson}");
+            response.RetrievedAt = DateTime.UtcNow;
 
-                    // Parse response
-                    var response = JsonConvert.DeserializeObject<ApplicationStatusResponse>(decryptedJson);
+            _cache?.Set(new StatusRequestKey(request), response, invalidationStamp);
+            return response;
+        }
 
-                    if (response == null)
-                    {
-                        throw new ApiException(
-                            "Failed to parse API response",
-                            httpResponse.StatusCode,
-                            decryptedJson
-                        );
-                    }
+        private async Task<ApplicationStatusResponse> SendWithRetriesAsync(
+            ApplicationStatusRequest request,
+            CancellationToken cancellationToken)
+        {
+            // Retry logic
+            Exception lastException = null;
+            TimeSpan previousDelay = TimeSpan.Zero;
+            int attempts = 0;
 
-                    Log($"Status retrieved successfully for {request.AppID}");
-                    return response;
-                }
-                catch (HttpRequestException ex)
+            _retryPolicy.RecordRequest(_departmentName);
+
+            for (int attempt = 0; ; attempt++)
+            {
+                attempts++;
+
+                try
                 {
-                    lastException = ex;
-                    LogError($"HTTP request failed (attempt {attempt + 1}): {ex.Message}");
+                    return await SendAttemptAsync(request, cancellationToken);
                 }
                 catch (EncryptionException ex)
                 {
@@ -241,6 +408,25 @@ namespace MaharashtraGov.TrackApplicationAPI
                 {
                     throw; // Don't retry validation errors
                 }
+                catch (ApplicationNotFoundException)
+                {
+                    Log($"Application not found: {request.AppID}");
+                    throw; // Don't retry - the application does not exist
+                }
+                catch (OperationCanceledException) when (cancellationToken.IsCancellationRequested)
+                {
+                    throw; // Cancelled by the caller
+                }
+                catch (Exception ex) when (!_retryPolicy.IsRetryable(ex))
+                {
+                    LogError($"Request failed (not retryable): {ex.Message}");
+                    throw; // e.g. 400/401/403 - the same request will fail again
+                }
+                catch (HttpRequestException ex)
+                {
+                    lastException = ex;
+                    LogError($"HTTP request failed (attempt {attempt + 1}): {ex.Message}");
+                }
                 catch (Exception ex)
                 {
                     lastException = ex;
@@ -248,210 +434,5111 @@ namespace MaharashtraGov.TrackApplicationAPI
                 }
 
                 // Wait before retry
-                if (attempt < _config.MaxRetries)
-                {
-                    var delay = _config.RetryDelay * (attempt + 1);
-                    Log($"Retrying in {delay.TotalSeconds} seconds...");
-                    await Task.Delay(delay, cancellationToken);
-                }
+                var retry = new RetryContext(_departmentName, attempt + 1, lastException, previousDelay);
+                if (!_retryPolicy.ShouldRetry(retry, out var delay))
+                    break;
+
+                Interlocked.Increment(ref _retryCount);
+                Log($"Retrying in {delay.TotalSeconds:0.##} seconds...");
+                await Task.Delay(delay, cancellationToken);
+                previousDelay = delay;
             }
 
-            // All retries failed
+            // All retries failed (or the retry budget is spent)
             throw new TrackApplicationException(
-                $"Request failed after {_config.MaxRetries + 1} attempts",
+                $"Request failed after {attempts} attempts",
                 lastException
             );
         }
 
         /// <summary>
-        /// Validate request without sending
+        /// One attempt, hedged when enabled: if no response arrives within the
+        /// department's observed latency percentile, an identical request is sent
+        /// and the first successful response wins
         /// </summary>
-        public ValidationResult ValidateRequest(ApplicationStatusRequest request)
+        private async Task<ApplicationStatusResponse> SendAttemptAsync(
+            ApplicationStatusRequest request,
+            CancellationToken cancellationToken)
         {
-            var result = new ValidationResult();
+            if (!_config.EnableHedging || !_latency.TryGetPercentile(_config.HedgingPercentile, out var threshold))
+                return await SendTimedAsync(request, cancellationToken);
 
-            if (request == null)
+            if (threshold < _config.HedgingMinDelay)
+                threshold = _config.HedgingMinDelay;
+
+            using (var hedgeCts = CancellationTokenSource.CreateLinkedTokenSource(cancellationToken))
             {
-                result.AddError("Request cannot be null");
-                return result;
-            }
+                var first = SendTimedAsync(request, hedgeCts.Token);
+                var running = new List<Task<ApplicationStatusResponse>> { first };
+                int hedges = 0;
 
-            if (string.IsNullOrWhiteSpace(request.AppID))
-                result.AddError("AppID is required");
+                while (true)
+                {
+                    var waitOn = new List<Task>(running);
+                    Task hedgeTimer = null;
 
-            if (string.IsNullOrWhiteSpace(request.ServiceID))
-                result.AddError("ServiceID is required");
+                    if (hedges < _config.MaxHedgedRequests)
+                    {
+                        hedgeTimer = Task.Delay(threshold, hedgeCts.Token);
+                        waitOn.Add(hedgeTimer);
+                    }
 
-            if (string.IsNullOrWhiteSpace(request.DeptName))
-                result.AddError("DeptName is required");
+                    var completed = await Task.WhenAny(waitOn);
 
-            if (string.IsNullOrWhiteSpace(request.Language))
-                result.AddError("Language is required");
-            else if (request.Language != "EN" && request.Language != "MR")
-                result.AddError("Language must be 'EN' or 'MR'");
+                    if (completed == hedgeTimer)
+                    {
+                        cancellationToken.ThrowIfCancellationRequested();
 
-            return result;
+                        hedges++;
+                        Interlocked.Increment(ref _hedgeCount);
+                        LogDebug($"No response after {threshold.TotalMilliseconds:0} ms, sending hedged request {hedges} for {request.AppID}");
+                        running.Add(SendTimedAsync(request, hedgeCts.Token));
+                        continue;
+                    }
+
+                    var attempt = (Task<ApplicationStatusResponse>)completed;
+                    running.Remove(attempt);
+
+                    if (attempt.Status == TaskStatus.RanToCompletion)
+                    {
+                        if (attempt != first)
+                            Interlocked.Increment(ref _hedgeWinCount);
+
+                        // Cancel the losers; their outcome no longer matters
+                        hedgeCts.Cancel();
+                        foreach (var loser in running)
+                            loser.ContinueWith(t => t.Exception, TaskContinuationOptions.OnlyOnFaulted);
+
+                        return attempt.Result;
+                    }
+
+                    // Failed: wait for the others unless none are left, the caller
+                    // cancelled or the failure is deterministic (e.g. 404), then
+                    // surface the error. A cancellation the caller did not ask for
+                    // (an HttpClient timeout) is just a failed attempt.
+                    if (running.Count == 0
+                        || cancellationToken.IsCancellationRequested
+                        || (attempt.IsFaulted && !_retryPolicy.IsRetryable(attempt.Exception.GetBaseException())))
+                    {
+                        hedgeCts.Cancel();
+                        foreach (var loser in running)
+                            loser.ContinueWith(t => t.Exception, TaskContinuationOptions.OnlyOnFaulted);
+
+                        return await attempt;
+                    }
+                }
+            }
         }
 
-        #region Encryption/Decryption (Matching their exact implementation)
+        /// <summary>
+        /// Send one attempt and record its latency for the hedging threshold
+        /// </summary>
+        private async Task<ApplicationStatusResponse> SendTimedAsync(
+            ApplicationStatusRequest request,
+            CancellationToken cancellationToken)
+        {
+            var stopwatch = System.Diagnostics.Stopwatch.StartNew();
+            var response = await SendOnceAsync(request, cancellationToken);
+            _latency.Record(stopwatch.Elapsed);
+            return response;
+        }
+
+        /// <summary>
+        /// One encrypted round trip to the department: encrypt, send through the
+        /// circuit breaker and concurrency limiter, then decrypt and parse
+        /// </summary>
+        private async Task<ApplicationStatusResponse> SendOnceAsync(
+            ApplicationStatusRequest request,
+            CancellationToken cancellationToken)
+        {
+            // Serialize and encrypt request straight into the {"data":"..."} payload
+            using (var rawResponse = await SendGuardedAsync(request, CreateEncryptedContent(request), cancellationToken))
+            {
+                // Decrypt and parse response in place
+                var response = OpenResponse(rawResponse.Body, rawResponse.StatusCode);
+
+                Log($"Status retrieved successfully for {request.AppID}");
+                return response;
+            }
+        }
+
+        /// <summary>
+        /// Send an encrypted payload through the circuit breaker and concurrency
+        /// limiter. Takes ownership of the content.
+        /// </summary>
+        internal async Task<RawResponse> SendGuardedAsync(
+            ApplicationStatusRequest request,
+            HttpContent content,
+            CancellationToken cancellationToken)
+        {
+            using (content)
+            {
+                return await SendThroughCircuitBreakerAsync(request, content, cancellationToken);
+            }
+        }
 
-        private string Encrypt(string plainText)
+        /// <summary>
+        /// Send one attempt unless the department's circuit is open, and record
+        /// its outcome. Failures the retry policy would retry (network errors,
+        /// timeouts, 5xx) count against the circuit; 4xx responses do not.
+        /// </summary>
+        private async Task<RawResponse> SendThroughCircuitBreakerAsync(
+            ApplicationStatusRequest request,
+            HttpContent content,
+            CancellationToken cancellationToken)
+        {
+            if (_circuitBreaker == null)
+                return await SendLimitedAsync(request, content, cancellationToken);
+
+            if (!_circuitBreaker.TryAcquire(out var permit, out var retryIn))
+            {
+                throw new CircuitBreakerOpenException(
+                    $"Circuit for {_circuitBreaker.BaseUrl} is open; not calling the department for {retryIn.TotalSeconds:0} more seconds",
+                    _circuitBreaker.BaseUrl,
+                    retryIn);
+            }
+
+            var outcome = CallOutcome.Success;
+            var stopwatch = System.Diagnostics.Stopwatch.StartNew();
+            try
+            {
+                return await SendLimitedAsync(request, content, cancellationToken);
+            }
+            catch (OperationCanceledException) when (cancellationToken.IsCancellationRequested)
+            {
+                outcome = CallOutcome.Ignored;
+                throw;
+            }
+            catch (ConcurrencyLimitExceededException)
+            {
+                outcome = CallOutcome.Ignored; // Shed locally - never reached the department
+                throw;
+            }
+            catch (Exception ex)
+            {
+                if (_retryPolicy.IsRetryable(ex))
+                    outcome = CallOutcome.Failure;
+                throw;
+            }
+            finally
+            {
+                _circuitBreaker.Record(permit, outcome, stopwatch.Elapsed);
+            }
+        }
+
+        /// <summary>
+        /// Send one attempt within the department's adaptive concurrency limit,
+        /// feeding the observed latency back into the limit
+        /// </summary>
+        private async Task<RawResponse> SendLimitedAsync(
+            ApplicationStatusRequest request,
+            HttpContent content,
+            CancellationToken cancellationToken)
         {
+            if (_concurrencyLimiter == null)
+                return await SendEncryptedAsync(request, content, cancellationToken);
+
+            await _concurrencyLimiter.AcquireAsync(cancellationToken);
+
+            var outcome = CallOutcome.Success;
+            var stopwatch = System.Diagnostics.Stopwatch.StartNew();
             try
             {
-                byte[] key = Encoding.UTF8.GetBytes(_encryptionKey);
-                byte[] iv = Encoding.UTF8.GetBytes(_encryptionIV);
-                byte[] data = Encoding.UTF8.GetBytes(plainText);
+                return await SendEncryptedAsync(request, content, cancellationToken);
+            }
+            catch (OperationCanceledException) when (cancellationToken.IsCancellationRequested)
+            {
+                outcome = CallOutcome.Ignored;
+                throw;
+            }
+            catch (Exception ex)
+            {
+                if (_retryPolicy.IsRetryable(ex))
+                    outcome = CallOutcome.Failure;
+                throw;
+            }
+            finally
+            {
+                _concurrencyLimiter.Release(outcome, stopwatch.Elapsed);
+            }
+        }
+
+        /// <summary>
+        /// POST the encrypted payload and read the response body into a pooled
+        /// buffer. Non-success status codes are thrown as ApiException.
+        /// </summary>
+        private async Task<RawResponse> SendEncryptedAsync(
+            ApplicationStatusRequest request,
+            HttpContent content,
+            CancellationToken cancellationToken)
+        {
+            using (var httpRequest = CreateHttpRequest(content))
+            using (var httpResponse = await _httpClient.SendAsync(
+                httpRequest,
+                cancellationToken
+            ))
+            {
+                LogDebug($"HTTP response: {httpResponse.StatusCode}");
 
-                using (TripleDES tdes = TripleDES.Create())
+                var responseBody = new PooledBufferWriter();
+                try
                 {
-                    tdes.IV = iv;
-                    tdes.Key = key;
-                    tdes.Mode = CipherMode.CBC;
-                    tdes.Padding = PaddingMode.Zeros;
+                    // Read response into a pooled buffer
+                    await responseBody.CopyFromAsync(
+                        await httpResponse.Content.ReadAsStreamAsync(),
+                        cancellationToken
+                    );
+
+                    // Check for HTTP errors
+                    if (httpResponse.StatusCode == System.Net.HttpStatusCode.NotFound)
+                    {
+                        throw new ApplicationNotFoundException(
+                            request.AppID,
+                            PayloadSerializer.GetString(responseBody.WrittenSpan)
+                        );
+                    }
 
-                    using (ICryptoTransform encryptor = tdes.CreateEncryptor())
+                    if (!httpResponse.IsSuccessStatusCode)
                     {
-                        byte[] encrypted = encryptor.TransformFinalBlock(data, 0, data.Length);
-                        return ByteArrayToHexString(encrypted);
+                        throw new ApiException(
+                            $"API returned error status {httpResponse.StatusCode}",
+                            httpResponse.StatusCode,
+                            PayloadSerializer.GetString(responseBody.WrittenSpan)
+                        )
+                        {
+                            RetryAfter = GetRetryAfter(httpResponse)
+                        };
                     }
+
+                    return new RawResponse(httpResponse.StatusCode, responseBody);
+                }
+                catch
+                {
+                    responseBody.Dispose();
+                    throw;
                 }
             }
-            catch (Exception ex)
+        }
+
+        private static TimeSpan? GetRetryAfter(HttpResponseMessage httpResponse)
+        {
+            var retryAfter = httpResponse.Headers.RetryAfter;
+            if (retryAfter == null)
+                return null;
+
+            if (retryAfter.Delta.HasValue)
+                return retryAfter.Delta.Value;
+
+            if (retryAfter.Date.HasValue)
             {
-                throw new EncryptionException("Failed to encrypt request data", ex);
+                var wait = retryAfter.Date.Value - DateTimeOffset.UtcNow;
+                return wait > TimeSpan.Zero ? wait : TimeSpan.Zero;
+            }
+
+            return null;
+        }
+
+        /// <summary>
+        /// Validate request without sending
+        /// </summary>
+        public ValidationResult ValidateRequest(ApplicationStatusRequest request)
+        {
+            var result = new ValidationResult();
+
+            if (request == null)
+            {
+                result.AddError("Request cannot be null");
+                return result;
+            }
+
+            if (string.IsNullOrWhiteSpace(request.AppID))
+                result.AddError("AppID is required");
+
+            if (string.IsNullOrWhiteSpace(request.ServiceID))
+                result.AddError("ServiceID is required");
+
+            if (string.IsNullOrWhiteSpace(request.DeptName))
+                result.AddError("DeptName is required");
+
+            if (string.IsNullOrWhiteSpace(request.Language))
+                result.AddError("Language is required");
+            else if (request.Language != "EN" && request.Language != "MR")
+                result.AddError("Language must be 'EN' or 'MR'");
+
+            return result;
+        }
+
+        private HttpRequestMessage CreateHttpRequest(HttpContent content)
+        {
+            var httpRequest = new HttpRequestMessage(HttpMethod.Post, _endpointUri)
+            {
+                Content = content
+            };
+
+            httpRequest.Headers.TryAddWithoutValidation("User-Agent", UserAgent);
+
+#if NET5_0_OR_GREATER
+            if (_config.EnableHttp2)
+            {
+                // Multiplex over HTTP/2 where the department supports it, HTTP/1.1 otherwise
+                httpRequest.Version = System.Net.HttpVersion.Version20;
+                httpRequest.VersionPolicy = HttpVersionPolicy.RequestVersionOrLower;
+            }
+#endif
+
+            return httpRequest;
+        }
+
+        #region Request Coalescing
+
+        /// <summary>
+        /// Join an identical request that is already in flight, or start one.
+        /// The shared call is not tied to any one caller's cancellation token, so a
+        /// caller that gives up does not cancel the request for the others; it is
+        /// still bounded by the configured Timeout and retries.
+        /// </summary>
+        private async Task<ApplicationStatusResponse> GetCoalescedAsync(
+            ApplicationStatusRequest request,
+            CancellationToken cancellationToken)
+        {
+            var shared = GetOrStartShared(request, out bool joined);
+
+            if (joined)
+            {
+                Interlocked.Increment(ref _coalescedCount);
+                LogDebug($"Joined in-flight request for {request.AppID}");
+            }
+
+            return await WaitAsync(shared, cancellationToken);
+        }
+
+        private Task<ApplicationStatusResponse> GetOrStartShared(ApplicationStatusRequest request, out bool joined)
+        {
+            var key = new StatusRequestKey(request);
+            Lazy<Task<ApplicationStatusResponse>> created = null;
+            created = new Lazy<Task<ApplicationStatusResponse>>(() => SendSharedAsync(key, request, created));
+            var shared = _inFlight.GetOrAdd(key, created);
+
+            joined = shared != created;
+            return shared.Value;
+        }
+
+        /// <summary>
+        /// Refresh a stale cache entry without making the caller wait. Uses the
+        /// in-flight table (even with coalescing off) so a burst of stale hits
+        /// triggers a single refresh.
+        /// </summary>
+        private void RefreshInBackground(ApplicationStatusRequest request)
+        {
+            var refresh = GetOrStartShared(request, out bool joined);
+
+            if (!joined)
+            {
+                LogDebug($"Refreshing stale status for {request.AppID} in background");
+                refresh.ContinueWith(
+                    t => LogError($"Background refresh failed for {request.AppID}: {t.Exception.GetBaseException().Message}"),
+                    CancellationToken.None,
+                    TaskContinuationOptions.OnlyOnFaulted,
+                    TaskScheduler.Default);
+            }
+        }
+
+        private ApplicationStatusResponse ServeStale(ApplicationStatusResponse cached, string reason)
+        {
+            Interlocked.Increment(ref _staleCount);
+            Log($"Serving status from {cached.RetrievedAt:u} for {cached.ApplicationID} ({reason})");
+            return cached.AsStale();
+        }
+
+        private async Task<ApplicationStatusResponse> SendSharedAsync(
+            StatusRequestKey key,
+            ApplicationStatusRequest request,
+            Lazy<Task<ApplicationStatusResponse>> entry)
+        {
+            try
+            {
+                return await LoadAsync(request, CancellationToken.None);
+            }
+            finally
+            {
+                // Remove only this call's entry, never a newer one for the same key
+                ((ICollection<KeyValuePair<StatusRequestKey, Lazy<Task<ApplicationStatusResponse>>>>)_inFlight)
+                    .Remove(new KeyValuePair<StatusRequestKey, Lazy<Task<ApplicationStatusResponse>>>(key, entry));
+            }
+        }
+
+        private static async Task<T> WaitAsync<T>(Task<T> task, CancellationToken cancellationToken)
+        {
+            if (!cancellationToken.CanBeCanceled || task.IsCompleted)
+                return await task;
+
+#if NET6_0_OR_GREATER
+            return await task.WaitAsync(cancellationToken);
+#else
+            var cancelled = new TaskCompletionSource<bool>(TaskCreationOptions.RunContinuationsAsynchronously);
+            using (cancellationToken.Register(state => ((TaskCompletionSource<bool>)state).TrySetResult(true), cancelled))
+            {
+                if (await Task.WhenAny(task, cancelled.Task) != task)
+                    cancellationToken.ThrowIfCancellationRequested();
+            }
+
+            return await task;
+#endif
+        }
+
+        #endregion
+
+        #region Encryption/Decryption (Matching their exact implementation)
+
+        internal HttpContent CreateEncryptedContent(ApplicationStatusRequest request)
+        {
+            using (var buffer = new PooledBufferWriter())
+            {
+                // Serialize straight into the pooled buffer
+                _serializer.SerializeRequest(request, buffer);
+
+                if (IsDebugLogging)
+                    LogDebug($"Request JSON: {PayloadSerializer.GetString(buffer.WrittenSpan)}");
+
+                try
+                {
+                    // Encrypt in place, then hex-encode straight into the payload
+                    var content = EncryptedEnvelope.CreateContent(_crypto, buffer);
+                    LogDebug("Request encrypted successfully");
+                    return content;
+                }
+                catch (Exception ex)
+                {
+                    throw new EncryptionException("Failed to encrypt request data", ex);
+                }
+            }
+        }
+
+        internal ApplicationStatusResponse OpenResponse(PooledBufferWriter responseBody, System.Net.HttpStatusCode statusCode)
+        {
+            // Locate encrypted data
+            if (!EncryptedEnvelope.TryFindData(responseBody.WrittenSpan, out int offset, out int length))
+            {
+                throw new ApiException(
+                    "Response does not contain encrypted data",
+                    statusCode,
+                    PayloadSerializer.GetString(responseBody.WrittenSpan)
+                );
+            }
+
+            // Hex-decode and decrypt in place; length excludes the zero padding
+            Span<byte> data = responseBody.WrittenSpan.Slice(offset, length);
+            int plainLength;
+            try
+            {
+                plainLength = EncryptedEnvelope.OpenInPlace(_crypto, data);
+            }
+            catch (Exception ex)
+            {
+                throw new DecryptionException("Failed to decrypt response data", ex);
+            }
+
+            ReadOnlySpan<byte> decryptedJson = data.Slice(0, plainLength);
+
+            if (IsDebugLogging)
+                LogDebug($"Response decrypted: {PayloadSerializer.GetString(decryptedJson)}");
+
+            // Parse straight from the decrypted bytes
+            var response = _serializer.DeserializeResponse(decryptedJson);
+
+            if (response == null)
+            {
+                throw new ApiException(
+                    "Failed to parse API response",
+                    statusCode,
+                    PayloadSerializer.GetString(decryptedJson)
+                );
+            }
+
+            return response;
+        }
+
+        #endregion
+
+        #region Logging
+
+        private void Log(string message)
+        {
+            if (_config.EnableLogging)
+            {
+                Console.WriteLine($"[TrackApplicationSDK] {message}");
+            }
+        }
+
+        private bool IsDebugLogging => _config.EnableLogging && _config.LogLevel == LogLevel.Debug;
+
+        private void LogDebug(string message)
+        {
+            if (IsDebugLogging)
+            {
+                Console.WriteLine($"[TrackApplicationSDK][DEBUG] {message}");
+            }
+        }
+
+        private void LogError(string message)
+        {
+            if (_config.EnableLogging)
+            {
+                Console.Error.WriteLine($"[TrackApplicationSDK][ERROR] {message}");
+            }
+        }
+
+        #endregion
+
+        public void Dispose()
+        {
+            if (_ownsHttpClient)
+                _httpClient?.Dispose();
+
+            _crypto?.Dispose();
+        }
+    }
+
+    /// <summary>
+    /// Request counters for a TrackApplicationClient
+    /// </summary>
+    public class ClientStatistics
+    {
+        /// <summary>
+        /// Status lookups made through the client
+        /// </summary>
+        public long Requests { get; set; }
+
+        /// <summary>
+        /// Lookups that joined an identical request already in flight
+        /// </summary>
+        public long CoalescedRequests { get; set; }
+
+        /// <summary>
+        /// Share of lookups served by an in-flight request (0.0 - 1.0)
+        /// </summary>
+        public double CoalescingHitRate => Requests == 0 ? 0 : (double)CoalescedRequests / Requests;
+
+        /// <summary>
+        /// Lookups answered from the response cache
+        /// </summary>
+        public long CacheHits { get; set; }
+
+        /// <summary>
+        /// Responses currently held in the cache
+        /// </summary>
+        public int CachedResponses { get; set; }
+
+        /// <summary>
+        /// Share of lookups answered from the cache (0.0 - 1.0)
+        /// </summary>
+        public double CacheHitRate => Requests == 0 ? 0 : (double)CacheHits / Requests;
+
+        /// <summary>
+        /// Lookups answered with an expired cache entry (stale-while-revalidate
+        /// or because the department was unavailable)
+        /// </summary>
+        public long StaleResponses { get; set; }
+
+        /// <summary>
+        /// Retry attempts made after a failed request
+        /// </summary>
+        public long Retries { get; set; }
+
+        /// <summary>
+        /// State of the circuit breaker for this client's department
+        /// </summary>
+        public CircuitBreakerState CircuitState { get; set; }
+
+        /// <summary>
+        /// Current adaptive concurrency limit for this client's department
+        /// (null when EnableAdaptiveConcurrency is off)
+        /// </summary>
+        public int? ConcurrencyLimit { get; set; }
+
+        /// <summary>
+        /// Extra requests sent by hedging, and how many of them answered first
+        /// </summary>
+        public long HedgedRequests { get; set; }
+        public long HedgeWins { get; set; }
+
+        /// <summary>
+        /// Latency of recent successful attempts (null until enough samples)
+        /// </summary>
+        public TimeSpan? LatencyP50 { get; set; }
+        public TimeSpan? LatencyP95 { get; set; }
+    }
+
+    /// <summary>
+    /// Identity of a status lookup: (AppID, ServiceID, DeptName, Language),
+    /// compared exactly (case-sensitive); the department decides what its IDs mean
+    /// </summary>
+    internal struct StatusRequestKey : IEquatable<StatusRequestKey>
+    {
+        public readonly string AppID;
+        public readonly string ServiceID;
+        public readonly string DeptName;
+        public readonly string Language;
+
+        public StatusRequestKey(ApplicationStatusRequest request)
+        {
+            AppID = request.AppID;
+            ServiceID = request.ServiceID;
+            DeptName = request.DeptName;
+            Language = request.Language;
+        }
+
+        public bool Equals(StatusRequestKey other)
+        {
+            return string.Equals(AppID, other.AppID, StringComparison.Ordinal)
+                && string.Equals(ServiceID, other.ServiceID, StringComparison.Ordinal)
+                && string.Equals(DeptName, other.DeptName, StringComparison.Ordinal)
+                && string.Equals(Language, other.Language, StringComparison.Ordinal);
+        }
+
+        public override bool Equals(object obj)
+        {
+            return obj is StatusRequestKey other && Equals(other);
+        }
+
+        public override int GetHashCode()
+        {
+            unchecked
+            {
+                int hash = (AppID ?? string.Empty).GetHashCode();
+                hash = hash * 31 + (ServiceID ?? string.Empty).GetHashCode();
+                hash = hash * 31 + (DeptName ?? string.Empty).GetHashCode();
+                hash = hash * 31 + (Language ?? string.Empty).GetHashCode();
+                return hash;
+            }
+        }
+    }
+
+    /// <summary>
+    /// Successful HTTP response whose encrypted body is still in a pooled buffer
+    /// </summary>
+    internal sealed class RawResponse : IDisposable
+    {
+        public RawResponse(System.Net.HttpStatusCode statusCode, PooledBufferWriter body)
+        {
+            StatusCode = statusCode;
+            Body = body;
+        }
+
+        public System.Net.HttpStatusCode StatusCode { get; }
+        public PooledBufferWriter Body { get; }
+
+        public void Dispose()
+        {
+            Body.Dispose();
+        }
+    }
+
+    #endregion
+
+    #region Transport
+
+    /// <summary>
+    /// HTTP handlers shared by all clients with the same transport settings,
+    /// so that every client for a department uses one connection pool
+    /// </summary>
+    internal static class SharedHttpHandlers
+    {
+        private static readonly ConcurrentDictionary<TransportSettings, Lazy<HttpMessageHandler>> Handlers =
+            new ConcurrentDictionary<TransportSettings, Lazy<HttpMessageHandler>>();
+
+        public static HttpMessageHandler Get(ClientConfiguration config)
+        {
+            var settings = new TransportSettings(config);
+#if !NET5_0_OR_GREATER
+            ConfigureServicePoint(new Uri(config.ApiBaseUrl), settings);
+#endif
+            return Handlers.GetOrAdd(settings, s => new Lazy<HttpMessageHandler>(() => Create(s))).Value;
+        }
+
+        private static HttpMessageHandler Create(TransportSettings settings)
+        {
+#if NET5_0_OR_GREATER
+            return new SocketsHttpHandler
+            {
+                MaxConnectionsPerServer = settings.MaxConnectionsPerServer,
+                PooledConnectionLifetime = settings.PooledConnectionLifetime,
+                PooledConnectionIdleTimeout = settings.PooledConnectionIdleTimeout,
+                EnableMultipleHttp2Connections = settings.EnableMultipleHttp2Connections,
+                KeepAlivePingDelay = settings.KeepAlivePingDelay,
+                KeepAlivePingTimeout = settings.KeepAlivePingTimeout,
+                KeepAlivePingPolicy = HttpKeepAlivePingPolicy.WithActiveRequests
+            };
+#else
+            // Lifetime/idle timeout are set per server in ConfigureServicePoint
+            return new HttpClientHandler
+            {
+                MaxConnectionsPerServer = settings.MaxConnectionsPerServer
+            };
+#endif
+        }
+
+#if !NET5_0_OR_GREATER
+        /// <summary>
+        /// On .NET Framework connection lifetime and idle timeout belong to the
+        /// ServicePoint of each department server, not to the handler
+        /// </summary>
+        private static void ConfigureServicePoint(Uri baseUri, TransportSettings settings)
+        {
+            var servicePoint = System.Net.ServicePointManager.FindServicePoint(baseUri);
+            servicePoint.ConnectionLeaseTimeout = ToMilliseconds(settings.PooledConnectionLifetime);
+            servicePoint.MaxIdleTime = ToMilliseconds(settings.PooledConnectionIdleTimeout);
+        }
+
+        private static int ToMilliseconds(TimeSpan value)
+        {
+            if (value < TimeSpan.Zero)
+                return System.Threading.Timeout.Infinite;
+
+            return (int)Math.Min(value.TotalMilliseconds, int.MaxValue);
+        }
+#endif
+
+        private struct TransportSettings : IEquatable<TransportSettings>
+        {
+            public readonly int MaxConnectionsPerServer;
+            public readonly TimeSpan PooledConnectionLifetime;
+            public readonly TimeSpan PooledConnectionIdleTimeout;
+            public readonly bool EnableMultipleHttp2Connections;
+            public readonly TimeSpan KeepAlivePingDelay;
+            public readonly TimeSpan KeepAlivePingTimeout;
+
+            public TransportSettings(ClientConfiguration config)
+            {
+                MaxConnectionsPerServer = config.MaxConnectionsPerServer;
+                PooledConnectionLifetime = config.PooledConnectionLifetime;
+                PooledConnectionIdleTimeout = config.PooledConnectionIdleTimeout;
+                EnableMultipleHttp2Connections = config.EnableMultipleHttp2Connections;
+                KeepAlivePingDelay = config.KeepAlivePingDelay;
+                KeepAlivePingTimeout = config.KeepAlivePingTimeout;
+            }
+
+            public bool Equals(TransportSettings other)
+            {
+                return MaxConnectionsPerServer == other.MaxConnectionsPerServer
+                    && PooledConnectionLifetime == other.PooledConnectionLifetime
+                    && PooledConnectionIdleTimeout == other.PooledConnectionIdleTimeout
+                    && EnableMultipleHttp2Connections == other.EnableMultipleHttp2Connections
+                    && KeepAlivePingDelay == other.KeepAlivePingDelay
+                    && KeepAlivePingTimeout == other.KeepAlivePingTimeout;
+            }
+
+            public override bool Equals(object obj)
+            {
+                return obj is TransportSettings other && Equals(other);
+            }
+
+            public override int GetHashCode()
+            {
+                unchecked
+                {
+                    int hash = MaxConnectionsPerServer;
+                    hash = hash * 31 + PooledConnectionLifetime.GetHashCode();
+                    hash = hash * 31 + PooledConnectionIdleTimeout.GetHashCode();
+                    hash = hash * 31 + EnableMultipleHttp2Connections.GetHashCode();
+                    hash = hash * 31 + KeepAlivePingDelay.GetHashCode();
+                    hash = hash * 31 + KeepAlivePingTimeout.GetHashCode();
+                    return hash;
+                }
+            }
+        }
+    }
+
+    #endregion
+
+    #region Retry Policy
+
+    /// <summary>
+    /// Decides which failures are retried and how long to wait before each retry
+    /// </summary>
+    public interface IRetryPolicy
+    {
+        /// <summary>
+        /// Called once per status lookup (not per attempt), so budgets can track traffic
+        /// </summary>
+        void RecordRequest(string departmentName);
+
+        /// <summary>
+        /// False for failures that will not go away by trying again
+        /// </summary>
+        bool IsRetryable(Exception exception);
+
+        /// <summary>
+        /// Whether to retry a retryable failure, and the delay before doing so
+        /// </summary>
+        bool ShouldRetry(RetryContext context, out TimeSpan delay);
+    }
+
+    /// <summary>
+    /// A failed attempt being considered for retry
+    /// </summary>
+    public class RetryContext
+    {
+        public RetryContext(string departmentName, int failedAttempts, Exception exception, TimeSpan previousDelay)
+        {
+            DepartmentName = departmentName;
+            FailedAttempts = failedAttempts;
+            Exception = exception;
+            PreviousDelay = previousDelay;
+        }
+
+        public string DepartmentName { get; }
+
+        /// <summary>
+        /// Attempts made so far, including the one that just failed
+        /// </summary>
+        public int FailedAttempts { get; }
+
+        public Exception Exception { get; }
+
+        /// <summary>
+        /// Delay before the attempt that just failed (zero for the first attempt)
+        /// </summary>
+        public TimeSpan PreviousDelay { get; }
+
+        /// <summary>
+        /// Wait requested by the server's Retry-After header, if any
+        /// </summary>
+        public TimeSpan? RetryAfter => (Exception as ApiException)?.RetryAfter;
+    }
+
+    /// <summary>
+    /// Exponential backoff with decorrelated jitter, status code classification,
+    /// Retry-After support and a per-department retry budget
+    /// </summary>
+    public class DefaultRetryPolicy : IRetryPolicy
+    {
+        private readonly int _maxRetries;
+        private readonly TimeSpan _baseDelay;
+        private readonly TimeSpan _maxDelay;
+        private readonly double _budgetRatio;
+        private readonly int _budgetBurst;
+        private readonly ConcurrentDictionary<string, RetryBudget> _budgets =
+            new ConcurrentDictionary<string, RetryBudget>(StringComparer.OrdinalIgnoreCase);
+
+#if !NET6_0_OR_GREATER
+        private static readonly Random SharedRandom = new Random();
+#endif
+
+        public DefaultRetryPolicy(ClientConfiguration config)
+            : this(config.MaxRetries, config.RetryDelay, config.RetryMaxDelay, config.RetryBudgetRatio, config.RetryBudgetBurst)
+        {
+        }
+
+        public DefaultRetryPolicy(int maxRetries, TimeSpan baseDelay, TimeSpan maxDelay, double budgetRatio, int budgetBurst)
+        {
+            if (maxRetries < 0)
+                throw new ArgumentOutOfRangeException(nameof(maxRetries));
+
+            if (budgetRatio < 0)
+                throw new ArgumentOutOfRangeException(nameof(budgetRatio));
+
+            _maxRetries = maxRetries;
+            _baseDelay = baseDelay;
+            _maxDelay = maxDelay < baseDelay ? baseDelay : maxDelay;
+            _budgetRatio = budgetRatio;
+            _budgetBurst = Math.Max(1, budgetBurst);
+        }
+
+        public virtual void RecordRequest(string departmentName)
+        {
+            GetBudget(departmentName).Deposit(_budgetRatio);
+        }
+
+        public virtual bool IsRetryable(Exception exception)
+        {
+            if (exception is ApiException apiException)
+                return IsRetryableStatusCode(apiException.StatusCode);
+
+            // Validation, encryption and decryption failures are deterministic
+            if (exception is TrackApplicationException)
+                return false;
+
+            // Network errors, timeouts, connection resets
+            return true;
+        }
+
+        /// <summary>
+        /// 408, 429 and 5xx (except 501/505) may succeed later; other codes will not
+        /// </summary>
+        public static bool IsRetryableStatusCode(System.Net.HttpStatusCode statusCode)
+        {
+            int code = (int)statusCode;
+
+            if (code == 408 || code == 429)
+                return true;
+
+            return code >= 500 && code != 501 && code != 505;
+        }
+
+        public virtual bool ShouldRetry(RetryContext context, out TimeSpan delay)
+        {
+            delay = TimeSpan.Zero;
+
+            if (context.FailedAttempts > _maxRetries)
+                return false;
+
+            var retryAfter = context.RetryAfter;
+            if (retryAfter.HasValue && retryAfter.Value > _maxDelay)
+                return false; // Server asked us to stay away longer than we are willing to wait
+
+            if (!GetBudget(context.DepartmentName).TryWithdraw())
+                return false;
+
+            // Decorrelated jitter: random between base and 3x the previous delay
+            var previous = context.PreviousDelay > _baseDelay ? context.PreviousDelay : _baseDelay;
+            double upperTicks = Math.Min(_maxDelay.Ticks, previous.Ticks * 3.0);
+            double ticks = _baseDelay.Ticks + NextDouble() * Math.Max(0, upperTicks - _baseDelay.Ticks);
+            delay = TimeSpan.FromTicks((long)ticks);
+
+            if (retryAfter.HasValue && retryAfter.Value > delay)
+                delay = retryAfter.Value;
+
+            return true;
+        }
+
+        private RetryBudget GetBudget(string departmentName)
+        {
+            return _budgets.GetOrAdd(departmentName ?? string.Empty, _ => new RetryBudget(_budgetBurst));
+        }
+
+        private static double NextDouble()
+        {
+#if NET6_0_OR_GREATER
+            return Random.Shared.NextDouble();
+#else
+            lock (SharedRandom)
+                return SharedRandom.NextDouble();
+#endif
+        }
+
+        /// <summary>
+        /// Token bucket: each request adds a fraction of a token, each retry
+        /// spends a whole one
+        /// </summary>
+        private sealed class RetryBudget
+        {
+            private readonly object _lock = new object();
+            private readonly double _capacity;
+            private double _tokens;
+
+            public RetryBudget(int capacity)
+            {
+                _capacity = capacity;
+                _tokens = capacity;
+            }
+
+            public void Deposit(double amount)
+            {
+                lock (_lock)
+                    _tokens = Math.Min(_capacity, _tokens + amount);
+            }
+
+            public bool TryWithdraw()
+            {
+                lock (_lock)
+                {
+                    if (_tokens < 1)
+                        return false;
+
+                    _tokens -= 1;
+                    return true;
+                }
+            }
+        }
+    }
+
+    #endregion
+
+    #region Latency Tracking
+
+    /// <summary>
+    /// Latencies of the most recent successful calls, with percentiles
+    /// recomputed every few samples rather than on every read
+    /// </summary>
+    internal sealed class LatencyTracker
+    {
+        private const int Capacity = 256;
+        private const int MinimumSamples = 20;
+        private const int RecomputeEvery = 16;
+
+        private readonly object _lock = new object();
+        private readonly long[] _samples = new long[Capacity];
+        private long[] _sorted = new long[0];
+        private int _count;
+        private int _index;
+        private int _sinceSort;
+
+        public void Record(TimeSpan latency)
+        {
+            lock (_lock)
+            {
+                _samples[_index] = latency.Ticks;
+                _index = (_index + 1) % Capacity;
+                if (_count < Capacity)
+                    _count++;
+                _sinceSort++;
+            }
+        }
+
+        /// <summary>
+        /// False until MinimumSamples latencies have been recorded
+        /// </summary>
+        public bool TryGetPercentile(double percentile, out TimeSpan latency)
+        {
+            lock (_lock)
+            {
+                if (_count < MinimumSamples)
+                {
+                    latency = TimeSpan.Zero;
+                    return false;
+                }
+
+                if (_sinceSort >= RecomputeEvery || _sorted.Length == 0)
+                {
+                    _sorted = new long[_count];
+                    Array.Copy(_samples, _sorted, _count);
+                    Array.Sort(_sorted);
+                    _sinceSort = 0;
+                }
+
+                int rank = (int)Math.Ceiling(percentile * _sorted.Length) - 1;
+                latency = TimeSpan.FromTicks(_sorted[Math.Max(0, Math.Min(_sorted.Length - 1, rank))]);
+                return true;
+            }
+        }
+    }
+
+    #endregion
+
+    #region Circuit Breaker
+
+    public enum CircuitBreakerState
+    {
+        /// <summary>
+        /// Calls flow normally
+        /// </summary>
+        Closed,
+
+        /// <summary>
+        /// Calls fail fast without reaching the department
+        /// </summary>
+        Open,
+
+        /// <summary>
+        /// A limited number of probe calls test whether the department has recovered
+        /// </summary>
+        HalfOpen
+    }
+
+    /// <summary>
+    /// Circuit breakers shared by all clients, one per department base URL
+    /// </summary>
+    public static class CircuitBreakers
+    {
+        private static readonly ConcurrentDictionary<string, CircuitBreaker> Breakers =
+            new ConcurrentDictionary<string, CircuitBreaker>(StringComparer.OrdinalIgnoreCase);
+
+        /// <summary>
+        /// Raised whenever a department's circuit changes state
+        /// </summary>
+        public static event EventHandler<CircuitBreakerStateChangedEventArgs> StateChanged;
+
+        /// <summary>
+        /// Current state and counters of every circuit
+        /// </summary>
+        public static IReadOnlyList<CircuitBreakerStatistics> GetStatistics()
+        {
+            return Breakers.Values.Select(b => b.GetStatistics()).ToList();
+        }
+
+        internal static CircuitBreaker Get(ClientConfiguration config)
+        {
+            var baseUrl = config.ApiBaseUrl.TrimEnd('/');
+            return Breakers.GetOrAdd(baseUrl, url => new CircuitBreaker(url, config));
+        }
+
+        internal static void OnStateChanged(CircuitBreakerStateChangedEventArgs args)
+        {
+            StateChanged?.Invoke(null, args);
+        }
+    }
+
+    public class CircuitBreakerStateChangedEventArgs : EventArgs
+    {
+        public CircuitBreakerStateChangedEventArgs(string baseUrl, CircuitBreakerState previousState, CircuitBreakerState newState)
+        {
+            BaseUrl = baseUrl;
+            PreviousState = previousState;
+            NewState = newState;
+        }
+
+        public string BaseUrl { get; }
+        public CircuitBreakerState PreviousState { get; }
+        public CircuitBreakerState NewState { get; }
+    }
+
+    public class CircuitBreakerStatistics
+    {
+        public string BaseUrl { get; set; }
+        public CircuitBreakerState State { get; set; }
+
+        /// <summary>
+        /// Failure and slow-call rates over the current window (0.0 - 1.0)
+        /// </summary>
+        public double FailureRate { get; set; }
+        public double SlowCallRate { get; set; }
+
+        /// <summary>
+        /// Calls rejected while the circuit was open
+        /// </summary>
+        public long RejectedCalls { get; set; }
+
+        /// <summary>
+        /// Times the circuit has opened
+        /// </summary>
+        public long TimesOpened { get; set; }
+    }
+
+    /// <summary>
+    /// What a call was admitted as: the breaker generation (bumped on every
+    /// state change) it started in, and whether it is a half-open probe
+    /// </summary>
+    internal struct CircuitPermit
+    {
+        public readonly long Generation;
+        public readonly bool IsProbe;
+
+        public CircuitPermit(long generation, bool isProbe)
+        {
+            Generation = generation;
+            IsProbe = isProbe;
+        }
+    }
+
+    internal enum CallOutcome
+    {
+        Success,
+        Failure,
+
+        /// <summary>
+        /// Cancelled by the caller - says nothing about the department
+        /// </summary>
+        Ignored
+    }
+
+    /// <summary>
+    /// Count-based sliding window breaker: opens when the failure rate or the
+    /// slow-call rate over the last WindowSize calls crosses its threshold,
+    /// lets HalfOpenProbes calls through after BreakDuration, and closes again
+    /// once they all succeed
+    /// </summary>
+    internal sealed class CircuitBreaker
+    {
+        private const byte FailedFlag = 1;
+        private const byte SlowFlag = 2;
+
+        private readonly object _lock = new object();
+        private readonly double _failureRateThreshold;
+        private readonly double _slowCallRateThreshold;
+        private readonly TimeSpan _slowCallDuration;
+        private readonly int _minimumCalls;
+        private readonly TimeSpan _breakDuration;
+        private readonly int _halfOpenProbes;
+        private readonly byte[] _window;
+
+        private int _windowCount;
+        private int _windowIndex;
+        private int _failedCalls;
+        private int _slowCalls;
+
+        private CircuitBreakerState _state = CircuitBreakerState.Closed;
+        private long _generation;
+        private DateTime _openedAt;
+        private int _probesInFlight;
+        private int _probeSuccesses;
+        private long _rejectedCalls;
+        private long _timesOpened;
+
+        public CircuitBreaker(string baseUrl, ClientConfiguration config)
+        {
+            BaseUrl = baseUrl;
+            _failureRateThreshold = config.CircuitBreakerFailureRateThreshold;
+            _slowCallRateThreshold = config.CircuitBreakerSlowCallRateThreshold;
+            _slowCallDuration = config.CircuitBreakerSlowCallDuration;
+            _minimumCalls = Math.Max(1, config.CircuitBreakerMinimumCalls);
+            _breakDuration = config.CircuitBreakerBreakDuration;
+            _halfOpenProbes = Math.Max(1, config.CircuitBreakerHalfOpenProbes);
+            _window = new byte[Math.Max(_minimumCalls, config.CircuitBreakerWindowSize)];
+        }
+
+        public string BaseUrl { get; }
+
+        public CircuitBreakerState State
+        {
+            get { lock (_lock) return _state; }
+        }
+
+        /// <summary>
+        /// False when the call must not be sent; retryIn is the time left until
+        /// probe calls are allowed, or one break duration while probes are
+        /// running (the circuit closes sooner if they succeed)
+        /// </summary>
+        public bool TryAcquire(out CircuitPermit permit, out TimeSpan retryIn)
+        {
+            permit = default;
+            retryIn = TimeSpan.Zero;
+            CircuitBreakerStateChangedEventArgs transition = null;
+
+            try
+            {
+                lock (_lock)
+                {
+                    if (_state == CircuitBreakerState.Open)
+                    {
+                        var openFor = DateTime.UtcNow - _openedAt;
+                        if (openFor < _breakDuration)
+                        {
+                            _rejectedCalls++;
+                            retryIn = _breakDuration - openFor;
+                            return false;
+                        }
+
+                        transition = TransitionTo(CircuitBreakerState.HalfOpen);
+                    }
+
+                    if (_state == CircuitBreakerState.HalfOpen)
+                    {
+                        if (_probesInFlight + _probeSuccesses >= _halfOpenProbes)
+                        {
+                            _rejectedCalls++;
+                            retryIn = _breakDuration;
+                            return false;
+                        }
+
+                        _probesInFlight++;
+                        permit = new CircuitPermit(_generation, isProbe: true);
+                        return true;
+                    }
+
+                    permit = new CircuitPermit(_generation, isProbe: false);
+                    return true;
+                }
+            }
+            finally
+            {
+                if (transition != null)
+                    CircuitBreakers.OnStateChanged(transition);
+            }
+        }
+
+        public void Record(CircuitPermit permit, CallOutcome outcome, TimeSpan duration)
+        {
+            bool slow = duration >= _slowCallDuration;
+            CircuitBreakerStateChangedEventArgs transition = null;
+
+            lock (_lock)
+            {
+                // Started before the latest state change (e.g. a Closed call
+                // finishing during HalfOpen): says nothing about the current state
+                if (permit.Generation != _generation)
+                    return;
+
+                switch (_state)
+                {
+                    case CircuitBreakerState.HalfOpen:
+                        _probesInFlight--;
+
+                        if (outcome == CallOutcome.Ignored)
+                            break;
+
+                        if (outcome == CallOutcome.Failure || slow)
+                        {
+                            transition = Open();
+                        }
+                        else if (++_probeSuccesses >= _halfOpenProbes)
+                        {
+                            ResetWindow();
+                            transition = TransitionTo(CircuitBreakerState.Closed);
+                        }
+                        break;
+
+                    case CircuitBreakerState.Closed:
+                        if (outcome == CallOutcome.Ignored)
+                            break;
+
+                        AddToWindow(outcome == CallOutcome.Failure, slow);
+
+                        if (_windowCount >= _minimumCalls
+                            && ((double)_failedCalls / _windowCount >= _failureRateThreshold
+                                || (double)_slowCalls / _windowCount >= _slowCallRateThreshold))
+                        {
+                            transition = Open();
+                        }
+                        break;
+                }
+            }
+
+            if (transition != null)
+                CircuitBreakers.OnStateChanged(transition);
+        }
+
+        public CircuitBreakerStatistics GetStatistics()
+        {
+            lock (_lock)
+            {
+                return new CircuitBreakerStatistics
+                {
+                    BaseUrl = BaseUrl,
+                    State = _state,
+                    FailureRate = _windowCount == 0 ? 0 : (double)_failedCalls / _windowCount,
+                    SlowCallRate = _windowCount == 0 ? 0 : (double)_slowCalls / _windowCount,
+                    RejectedCalls = _rejectedCalls,
+                    TimesOpened = _timesOpened
+                };
+            }
+        }
+
+        private CircuitBreakerStateChangedEventArgs Open()
+        {
+            _openedAt = DateTime.UtcNow;
+            _timesOpened++;
+            return TransitionTo(CircuitBreakerState.Open);
+        }
+
+        private CircuitBreakerStateChangedEventArgs TransitionTo(CircuitBreakerState state)
+        {
+            var previous = _state;
+            _state = state;
+            _generation++;
+            _probesInFlight = 0;
+            _probeSuccesses = 0;
+            return new CircuitBreakerStateChangedEventArgs(BaseUrl, previous, state);
+        }
+
+        private void AddToWindow(bool failed, bool slow)
+        {
+            if (_windowCount == _window.Length)
+            {
+                // Drop the oldest outcome
+                var oldest = _window[_windowIndex];
+                if ((oldest & FailedFlag) != 0) _failedCalls--;
+                if ((oldest & SlowFlag) != 0) _slowCalls--;
+            }
+            else
+            {
+                _windowCount++;
+            }
+
+            byte flags = 0;
+            if (failed) { flags |= FailedFlag; _failedCalls++; }
+            if (slow) { flags |= SlowFlag; _slowCalls++; }
+
+            _window[_windowIndex] = flags;
+            _windowIndex = (_windowIndex + 1) % _window.Length;
+        }
+
+        private void ResetWindow()
+        {
+            Array.Clear(_window, 0, _window.Length);
+            _windowCount = 0;
+            _windowIndex = 0;
+            _failedCalls = 0;
+            _slowCalls = 0;
+        }
+    }
+
+    #endregion
+
+    #region Adaptive Concurrency
+
+    /// <summary>
+    /// Adaptive concurrency limiters shared by all clients, one per department base URL
+    /// </summary>
+    public static class ConcurrencyLimiters
+    {
+        private static readonly ConcurrentDictionary<string, AdaptiveConcurrencyLimiter> Limiters =
+            new ConcurrentDictionary<string, AdaptiveConcurrencyLimiter>(StringComparer.OrdinalIgnoreCase);
+
+        /// <summary>
+        /// Current limit, load and counters of every limiter
+        /// </summary>
+        public static IReadOnlyList<ConcurrencyLimiterStatistics> GetStatistics()
+        {
+            return Limiters.Values.Select(l => l.GetStatistics()).ToList();
+        }
+
+        internal static AdaptiveConcurrencyLimiter Get(ClientConfiguration config)
+        {
+            var baseUrl = config.ApiBaseUrl.TrimEnd('/');
+            return Limiters.GetOrAdd(baseUrl, url => new AdaptiveConcurrencyLimiter(url, config));
+        }
+    }
+
+    public class ConcurrencyLimiterStatistics
+    {
+        public string BaseUrl { get; set; }
+        public int Limit { get; set; }
+        public int InFlight { get; set; }
+        public int Queued { get; set; }
+        public long RejectedCalls { get; set; }
+
+        /// <summary>
+        /// Long-term average latency the limit is steered against
+        /// </summary>
+        public TimeSpan AverageLatency { get; set; }
+    }
+
+    /// <summary>
+    /// Gradient concurrency limiter. For every successful call the limit moves
+    /// towards limit * gradient + sqrt(limit), where gradient is the long-term
+    /// average latency over this call's latency (clamped to 0.5 - 1.0, with some
+    /// tolerance), so the limit grows while the department keeps up and backs off
+    /// as queues build on its side. Failed calls cut the limit multiplicatively.
+    /// </summary>
+    internal sealed class AdaptiveConcurrencyLimiter
+    {
+        private const double Tolerance = 1.5;
+        private const double Smoothing = 0.2;
+        private const double BackoffRatio = 0.9;
+        private const double LongTermWindow = 100;
+
+        private readonly object _lock = new object();
+        private readonly LinkedList<TaskCompletionSource<bool>> _waiters = new LinkedList<TaskCompletionSource<bool>>();
+        private readonly int _maxLimit;
+        private readonly int _queueLimit;
+        private readonly TimeSpan _queueTimeout;
+
+        private double _limit;
+        private double _longTermLatencyTicks;
+        private int _inFlight;
+        private long _rejectedCalls;
+
+        public AdaptiveConcurrencyLimiter(string baseUrl, ClientConfiguration config)
+        {
+            BaseUrl = baseUrl;
+            _maxLimit = Math.Max(1, config.MaxConcurrencyLimit);
+            _limit = Math.Max(1, Math.Min(_maxLimit, config.InitialConcurrencyLimit));
+            _queueLimit = Math.Max(0, config.ConcurrencyQueueLimit);
+            _queueTimeout = config.ConcurrencyQueueTimeout;
+        }
+
+        public string BaseUrl { get; }
+
+        public int Limit
+        {
+            get { lock (_lock) return (int)_limit; }
+        }
+
+        /// <summary>
+        /// Take a slot, waiting up to the queue timeout when all slots are in use
+        /// </summary>
+        /// <exception cref="ConcurrencyLimitExceededException">Queue full or wait timed out</exception>
+        public async Task AcquireAsync(CancellationToken cancellationToken)
+        {
+            TaskCompletionSource<bool> waiter;
+            LinkedListNode<TaskCompletionSource<bool>> node;
+
+            lock (_lock)
+            {
+                if (_inFlight < (int)_limit && _waiters.Count == 0)
+                {
+                    _inFlight++;
+                    return;
+                }
+
+                if (_waiters.Count >= _queueLimit)
+                {
+                    _rejectedCalls++;
+                    throw Rejected("queue is full");
+                }
+
+                waiter = new TaskCompletionSource<bool>(TaskCreationOptions.RunContinuationsAsynchronously);
+                node = _waiters.AddLast(waiter);
+            }
+
+            using (var timeoutCts = CancellationTokenSource.CreateLinkedTokenSource(cancellationToken))
+            {
+                timeoutCts.CancelAfter(_queueTimeout);
+
+                using (timeoutCts.Token.Register(state => ((TaskCompletionSource<bool>)state).TrySetCanceled(), waiter))
+                {
+                    try
+                    {
+                        await waiter.Task;
+                    }
+                    catch (OperationCanceledException)
+                    {
+                        lock (_lock)
+                        {
+                            if (node.List != null)
+                                _waiters.Remove(node);
+
+                            if (!cancellationToken.IsCancellationRequested)
+                                _rejectedCalls++;
+                        }
+
+                        cancellationToken.ThrowIfCancellationRequested();
+                        throw Rejected($"no slot within {_queueTimeout.TotalSeconds:0.#} seconds");
+                    }
+                }
+            }
+        }
+
+        /// <summary>
+        /// Free a slot and adjust the limit from the call's outcome and latency
+        /// </summary>
+        public void Release(CallOutcome outcome, TimeSpan latency)
+        {
+            lock (_lock)
+            {
+                _inFlight--;
+
+                if (outcome == CallOutcome.Failure)
+                {
+                    _limit = Math.Max(1, _limit * BackoffRatio);
+                }
+                else if (outcome == CallOutcome.Success && latency.Ticks > 0)
+                {
+                    _longTermLatencyTicks = _longTermLatencyTicks == 0
+                        ? latency.Ticks
+                        : _longTermLatencyTicks + (latency.Ticks - _longTermLatencyTicks) / LongTermWindow;
+
+                    double gradient = Math.Max(0.5, Math.Min(1.0, Tolerance * _longTermLatencyTicks / latency.Ticks));
+                    double target = _limit * gradient + Math.Sqrt(_limit);
+
+                    // Only grow while the limit is actually being used
+                    if (target < _limit || _inFlight + 1 >= _limit / 2)
+                        _limit = Math.Max(1, Math.Min(_maxLimit, _limit * (1 - Smoothing) + target * Smoothing));
+                }
+
+                // Admit queued calls up to the (possibly new) limit
+                while (_waiters.Count > 0 && _inFlight < (int)_limit)
+                {
+                    var next = _waiters.First.Value;
+                    _waiters.RemoveFirst();
+
+                    _inFlight++;
+                    if (!next.TrySetResult(true))
+                        _inFlight--; // Timed out or cancelled in the meantime
+                }
+            }
+        }
+
+        public ConcurrencyLimiterStatistics GetStatistics()
+        {
+            lock (_lock)
+            {
+                return new ConcurrencyLimiterStatistics
+                {
+                    BaseUrl = BaseUrl,
+                    Limit = (int)_limit,
+                    InFlight = _inFlight,
+                    Queued = _waiters.Count,
+                    RejectedCalls = _rejectedCalls,
+                    AverageLatency = TimeSpan.FromTicks((long)_longTermLatencyTicks)
+                };
+            }
+        }
+
+        private ConcurrencyLimitExceededException Rejected(string reason)
+        {
+            return new ConcurrencyLimitExceededException(
+                $"Concurrency limit ({(int)_limit}) reached for {BaseUrl}: {reason}",
+                BaseUrl,
+                (int)_limit);
+        }
+    }
+
+    #endregion
+
+    #region Response Cache
+
+    /// <summary>
+    /// Size-bounded LRU cache of status responses keyed by request. How long a
+    /// response stays fresh depends on the application's state: final decisions
+    /// are kept for a long time, pending applications only briefly.
+    /// </summary>
+    internal sealed class ResponseCache
+    {
+        private readonly ClientConfiguration _config;
+        private readonly object _lock = new object();
+        private readonly Dictionary<StatusRequestKey, LinkedListNode<CacheEntry>> _entries =
+            new Dictionary<StatusRequestKey, LinkedListNode<CacheEntry>>();
+        private readonly Dictionary<string, List<StatusRequestKey>> _keysByAppId =
+            new Dictionary<string, List<StatusRequestKey>>(StringComparer.OrdinalIgnoreCase);
+        private readonly LinkedList<CacheEntry> _lru = new LinkedList<CacheEntry>();
+
+        // Stamp of the latest invalidation per AppID; Clear (or too many tracked
+        // AppIDs) raises _clearedStamp instead, which covers every application
+        private readonly Dictionary<string, long> _invalidatedStamps =
+            new Dictionary<string, long>(StringComparer.OrdinalIgnoreCase);
+        private long _invalidationStamp;
+        private long _clearedStamp;
+
+        public ResponseCache(ClientConfiguration config)
+        {
+            _config = config;
+        }
+
+        /// <summary>
+        /// Read before a fetch and pass to Set, so a response fetched before its
+        /// application was invalidated is not stored. Only invalidations of the
+        /// same AppID (or Clear) discard it.
+        /// </summary>
+        public long InvalidationStamp => Interlocked.Read(ref _invalidationStamp);
+
+        /// <summary>
+        /// Look up a response. Expired entries are still returned as Stale while
+        /// they are younger than StaleResponseMaxAge and a stale mode is enabled.
+        /// </summary>
+        public CacheLookup TryGet(StatusRequestKey key, out ApplicationStatusResponse response)
+        {
+            var now = DateTime.UtcNow;
+
+            lock (_lock)
+            {
+                if (_entries.TryGetValue(key, out var node))
+                {
+                    var entry = node.Value;
+
+                    if (entry.ExpiresAt > now || entry.StaleUntil > now)
+                    {
+                        _lru.Remove(node);
+                        _lru.AddFirst(node);
+
+                        if (entry.Response == null)
+                        {
+                            response = null;
+                            return CacheLookup.NotFound;
+                        }
+
+                        // Callers get their own copy; the cached one stays unchanged
+                        response = entry.Response.Clone();
+                        return entry.ExpiresAt > now ? CacheLookup.Fresh : CacheLookup.Stale;
+                    }
+
+                    RemoveNode(node);
+                }
+            }
+
+            response = null;
+            return CacheLookup.Miss;
+        }
+
+        public void Set(StatusRequestKey key, ApplicationStatusResponse response, long invalidationStamp)
+        {
+            if (!_config.EnableResponseCache)
+                return;
+
+            var timeToLive = GetTimeToLive(response);
+            if (timeToLive <= TimeSpan.Zero)
+                return;
+
+            var now = DateTime.UtcNow;
+            var expiresAt = now + timeToLive;
+            var staleUntil = _config.EnableStaleWhileRevalidate || _config.ServeStaleOnError
+                ? expiresAt + _config.StaleResponseMaxAge
+                : expiresAt;
+            Add(new CacheEntry(key, response.Clone(), expiresAt, staleUntil), invalidationStamp);
+        }
+
+        /// <summary>
+        /// Remember that the department reported the application as not found
+        /// (HTTP 404) for NotFoundCacheDuration
+        /// </summary>
+        public void SetNotFound(StatusRequestKey key, long invalidationStamp)
+        {
+            var timeToLive = _config.NotFoundCacheDuration;
+            if (timeToLive <= TimeSpan.Zero)
+                return;
+
+            var expiresAt = DateTime.UtcNow + timeToLive;
+            Add(new CacheEntry(key, null, expiresAt, expiresAt), invalidationStamp);
+        }
+
+        private void Add(CacheEntry entry, long invalidationStamp)
+        {
+            var key = entry.Key;
+
+            lock (_lock)
+            {
+                if (invalidationStamp < _clearedStamp
+                    || (_invalidatedStamps.TryGetValue(key.AppID, out var invalidated) && invalidationStamp < invalidated))
+                    return;
+
+                if (_entries.TryGetValue(key, out var existing))
+                    RemoveNode(existing);
+
+                var node = _lru.AddFirst(entry);
+                _entries[key] = node;
+
+                if (!_keysByAppId.TryGetValue(key.AppID, out var keys))
+                {
+                    keys = new List<StatusRequestKey>(1);
+                    _keysByAppId[key.AppID] = keys;
+                }
+                keys.Add(key);
+
+                while (_entries.Count > _config.ResponseCacheMaxEntries)
+                    RemoveNode(_lru.Last);
+            }
+        }
+
+        /// <summary>
+        /// Remove every cached response for the application (all services and languages)
+        /// </summary>
+        public int Invalidate(string applicationId)
+        {
+            lock (_lock)
+            {
+                long stamp = Interlocked.Increment(ref _invalidationStamp);
+
+                if (_invalidatedStamps.Count >= _config.ResponseCacheMaxEntries)
+                {
+                    // Bound the bookkeeping: one global cut-off replaces the per-AppID stamps
+                    _invalidatedStamps.Clear();
+                    _clearedStamp = stamp;
+                }
+                else
+                {
+                    _invalidatedStamps[applicationId] = stamp;
+                }
+
+                if (!_keysByAppId.TryGetValue(applicationId, out var keys))
+                    return 0;
+
+                int removed = 0;
+                foreach (var key in keys.ToArray())
+                {
+                    if (_entries.TryGetValue(key, out var node))
+                    {
+                        RemoveNode(node);
+                        removed++;
+                    }
+                }
+
+                return removed;
+            }
+        }
+
+        public void Clear()
+        {
+            lock (_lock)
+            {
+                _clearedStamp = Interlocked.Increment(ref _invalidationStamp);
+                _invalidatedStamps.Clear();
+                _entries.Clear();
+                _keysByAppId.Clear();
+                _lru.Clear();
+            }
+        }
+
+        public int Count
+        {
+            get { lock (_lock) return _entries.Count; }
+        }
+
+        /// <summary>
+        /// Freshness lifetime for a response:
+        /// - Approved/Rejected: FinalDecisionCacheDuration
+        /// - Citizen action required: PendingCacheMinDuration (the citizen may act any moment)
+        /// - Pending: between PendingCacheMinDuration and PendingCacheMaxDuration, longer when
+        ///   the estimated disbursal is far away and many desks remain, shorter near the last desk
+        /// </summary>
+        internal TimeSpan GetTimeToLive(ApplicationStatusResponse response)
+        {
+            var decision = response.FinalDecisionStatus;
+            if (decision == FinalDecisionStatus.Approved || decision == FinalDecisionStatus.Rejected)
+                return _config.FinalDecisionCacheDuration;
+
+            var min = _config.PendingCacheMinDuration;
+            var max = _config.PendingCacheMaxDuration;
+
+            if (response.IsActionRequired || max <= min)
+                return min;
+
+            // Up to 30 days of estimated processing scales the TTL linearly
+            double daysFactor = Math.Max(0.1, Math.Min(1.0, response.EstimatedDisbursalDays / 30.0));
+
+            double remainingFactor = 1.0;
+            if (response.TotalNumberOfDesks > 0 && response.CurrentDeskNumber > 0)
+            {
+                int remainingDesks = Math.Max(1, response.TotalNumberOfDesks - response.CurrentDeskNumber + 1);
+                remainingFactor = Math.Min(1.0, (double)remainingDesks / response.TotalNumberOfDesks);
+            }
+
+            return min + TimeSpan.FromTicks((long)((max - min).Ticks * daysFactor * remainingFactor));
+        }
+
+        private void RemoveNode(LinkedListNode<CacheEntry> node)
+        {
+            var key = node.Value.Key;
+
+            _lru.Remove(node);
+            _entries.Remove(key);
+
+            if (_keysByAppId.TryGetValue(key.AppID, out var keys))
+            {
+                keys.Remove(key);
+                if (keys.Count == 0)
+                    _keysByAppId.Remove(key.AppID);
+            }
+        }
+
+        private sealed class CacheEntry
+        {
+            public readonly StatusRequestKey Key;
+            public readonly ApplicationStatusResponse Response; // null = not found
+            public readonly DateTime ExpiresAt;
+            public readonly DateTime StaleUntil;
+
+            public CacheEntry(StatusRequestKey key, ApplicationStatusResponse response, DateTime expiresAt, DateTime staleUntil)
+            {
+                Key = key;
+                Response = response;
+                ExpiresAt = expiresAt;
+                StaleUntil = staleUntil;
+            }
+        }
+    }
+
+    internal enum CacheLookup
+    {
+        Miss,
+        Fresh,
+        Stale,
+        NotFound
+    }
+
+    #endregion
+
+    #region Batch Processing
+
+    /// <summary>
+    /// Settings for batch status lookups
+    /// </summary>
+    public class BatchOptions
+    {
+        /// <summary>
+        /// Lookups in flight across all departments (default: 16)
+        /// </summary>
+        public int MaxDegreeOfParallelism { get; set; } = 16;
+
+        /// <summary>
+        /// Lookups in flight per department (DeptName) in DepartmentClientRegistry
+        /// batches; 0 means only the overall limit applies. A single client's
+        /// batch goes to one department and uses MaxDegreeOfParallelism (default: 8)
+        /// </summary>
+        public int MaxConcurrencyPerDepartment { get; set; } = 8;
+
+        /// <summary>
+        /// Receives running totals after every completed lookup (optional)
+        /// </summary>
+        public IProgress<BatchProgress> Progress { get; set; }
+    }
+
+    /// <summary>
+    /// Outcome of one lookup in a batch
+    /// </summary>
+    public class BatchResult
+    {
+        /// <summary>
+        /// Position of the request in the input sequence
+        /// </summary>
+        public int Index { get; set; }
+
+        public ApplicationStatusRequest Request { get; set; }
+
+        /// <summary>
+        /// Status, when the lookup succeeded
+        /// </summary>
+        public ApplicationStatusResponse Response { get; set; }
+
+        /// <summary>
+        /// Error, when the lookup failed
+        /// </summary>
+        public Exception Error { get; set; }
+
+        public bool Success => Error == null;
+
+        public TimeSpan Elapsed { get; set; }
+    }
+
+    /// <summary>
+    /// Running totals of a batch
+    /// </summary>
+    public class BatchProgress
+    {
+        /// <summary>
+        /// Requests read from the input so far
+        /// </summary>
+        public long Submitted { get; set; }
+        public long Completed { get; set; }
+        public long Succeeded { get; set; }
+        public long Failed { get; set; }
+        public TimeSpan Elapsed { get; set; }
+    }
+
+#if NETCOREAPP3_0_OR_GREATER
+    /// <summary>
+    /// Runs lookups with an overall and (for multi-department batches) a
+    /// per-department parallelism limit. Each department gets its own lane (a
+    /// queue with MaxConcurrencyPerDepartment workers), so a slow department
+    /// only holds up its own lane. Writing to a lane never waits; instead one
+    /// read-ahead gate limits the requests taken from the input but not yet
+    /// started to a small multiple of MaxDegreeOfParallelism, so the input is
+    /// streamed rather than read into memory. Results go through a bounded
+    /// channel, so a slow consumer slows the batch down instead of buffering
+    /// results without limit.
+    /// </summary>
+    internal static class BatchRunner
+    {
+        private const int ReadAheadFactor = 4;
+
+        public static async IAsyncEnumerable<BatchResult> RunAsync(
+            IAsyncEnumerable<ApplicationStatusRequest> requests,
+            Func<ApplicationStatusRequest, CancellationToken, Task<ApplicationStatusResponse>> fetch,
+            BatchOptions options,
+            bool perDepartment,
+            [EnumeratorCancellation] CancellationToken cancellationToken = default)
+        {
+            if (options.MaxDegreeOfParallelism <= 0)
+                throw new ArgumentException("MaxDegreeOfParallelism must be positive", nameof(options));
+
+            var results = Channel.CreateBounded<BatchResult>(new BoundedChannelOptions(options.MaxDegreeOfParallelism)
+            {
+                SingleReader = true
+            });
+
+            using (var cts = CancellationTokenSource.CreateLinkedTokenSource(cancellationToken))
+            {
+                var run = new BatchRun(fetch, options, perDepartment, results.Writer, cts.Token);
+                var producer = run.ProduceAsync(requests);
+
+                try
+                {
+                    while (await results.Reader.WaitToReadAsync(cts.Token))
+                    {
+                        while (results.Reader.TryRead(out var result))
+                            yield return result;
+                    }
+                }
+                finally
+                {
+                    // Consumer stopped early (break/dispose) or the batch ended:
+                    // stop outstanding work and wait for it before returning
+                    cts.Cancel();
+                    await Task.WhenAny(producer);
+                }
+            }
+        }
+
+        public static async IAsyncEnumerable<T> ToAsyncEnumerable<T>(IEnumerable<T> items)
+        {
+            foreach (var item in items)
+                yield return item;
+
+            await Task.CompletedTask;
+        }
+
+        private sealed class BatchRun
+        {
+            private readonly Func<ApplicationStatusRequest, CancellationToken, Task<ApplicationStatusResponse>> _fetch;
+            private readonly BatchOptions _options;
+            private readonly bool _perDepartment;
+            private readonly ChannelWriter<BatchResult> _results;
+            private readonly CancellationToken _cancellationToken;
+            private readonly SemaphoreSlim _overall;
+            private readonly SemaphoreSlim _readAhead;
+            private readonly Dictionary<string, Lane> _lanes = new Dictionary<string, Lane>(StringComparer.OrdinalIgnoreCase);
+            private readonly System.Diagnostics.Stopwatch _stopwatch = System.Diagnostics.Stopwatch.StartNew();
+
+            private long _submitted;
+            private long _completed;
+            private long _succeeded;
+            private long _failed;
+
+            public BatchRun(
+                Func<ApplicationStatusRequest, CancellationToken, Task<ApplicationStatusResponse>> fetch,
+                BatchOptions options,
+                bool perDepartment,
+                ChannelWriter<BatchResult> results,
+                CancellationToken cancellationToken)
+            {
+                _fetch = fetch;
+                _options = options;
+                _perDepartment = perDepartment && options.MaxConcurrencyPerDepartment > 0;
+                _results = results;
+                _cancellationToken = cancellationToken;
+                _overall = new SemaphoreSlim(options.MaxDegreeOfParallelism, options.MaxDegreeOfParallelism);
+                _readAhead = new SemaphoreSlim(options.MaxDegreeOfParallelism * ReadAheadFactor);
+            }
+
+            public async Task ProduceAsync(IAsyncEnumerable<ApplicationStatusRequest> requests)
+            {
+                Exception error = null;
+                try
+                {
+                    int index = 0;
+                    await foreach (var request in requests.WithCancellation(_cancellationToken))
+                    {
+                        // Released when a worker takes the request off its lane
+                        await _readAhead.WaitAsync(_cancellationToken);
+                        Interlocked.Increment(ref _submitted);
+
+                        // Never waits: lanes are unbounded, the gate above bounds them all
+                        GetLane(request).Queue.Writer.TryWrite((request, index++));
+                    }
+                }
+                catch (Exception ex)
+                {
+                    error = ex;
+                }
+
+                foreach (var lane in _lanes.Values)
+                    lane.Queue.Writer.TryComplete();
+
+                try
+                {
+                    await Task.WhenAll(_lanes.Values.SelectMany(lane => lane.Workers));
+                }
+                catch (Exception ex) when (error == null)
+                {
+                    error = ex;
+                }
+
+                _results.TryComplete(error);
+            }
+
+            private Lane GetLane(ApplicationStatusRequest request)
+            {
+                // Without a per-department limit every request shares one lane
+                string key = _perDepartment ? request?.DeptName ?? string.Empty : string.Empty;
+
+                if (!_lanes.TryGetValue(key, out var lane))
+                {
+                    int workers = _perDepartment
+                        ? Math.Min(_options.MaxConcurrencyPerDepartment, _options.MaxDegreeOfParallelism)
+                        : _options.MaxDegreeOfParallelism;
+
+                    lane = new Lane();
+                    for (int i = 0; i < workers; i++)
+                        lane.Workers.Add(RunLaneAsync(lane));
+
+                    _lanes[key] = lane;
+                }
+
+                return lane;
+            }
+
+            private async Task RunLaneAsync(Lane lane)
+            {
+                while (await lane.Queue.Reader.WaitToReadAsync(_cancellationToken))
+                {
+                    while (lane.Queue.Reader.TryRead(out var item))
+                    {
+                        _readAhead.Release();
+                        await _overall.WaitAsync(_cancellationToken);
+                        BatchResult result;
+                        try
+                        {
+                            result = await FetchAsync(item.Request, item.Index);
+                        }
+                        finally
+                        {
+                            _overall.Release();
+                        }
+
+                        await _results.WriteAsync(result, _cancellationToken);
+                    }
+                }
+            }
+
+            private async Task<BatchResult> FetchAsync(ApplicationStatusRequest request, int index)
+            {
+                var result = new BatchResult { Index = index, Request = request };
+                var started = _stopwatch.Elapsed;
+
+                try
+                {
+                    result.Response = await _fetch(request, _cancellationToken);
+                    Interlocked.Increment(ref _succeeded);
+                }
+                catch (OperationCanceledException) when (_cancellationToken.IsCancellationRequested)
+                {
+                    throw;
+                }
+                catch (Exception ex)
+                {
+                    result.Error = ex;
+                    Interlocked.Increment(ref _failed);
+                }
+
+                result.Elapsed = _stopwatch.Elapsed - started;
+                Interlocked.Increment(ref _completed);
+
+                _options.Progress?.Report(new BatchProgress
+                {
+                    Submitted = Interlocked.Read(ref _submitted),
+                    Completed = Interlocked.Read(ref _completed),
+                    Succeeded = Interlocked.Read(ref _succeeded),
+                    Failed = Interlocked.Read(ref _failed),
+                    Elapsed = _stopwatch.Elapsed
+                });
+
+                return result;
+            }
+
+            private sealed class Lane
+            {
+                public readonly Channel<(ApplicationStatusRequest Request, int Index)> Queue;
+                public readonly List<Task> Workers = new List<Task>();
+
+                public Lane()
+                {
+                    Queue = Channel.CreateUnbounded<(ApplicationStatusRequest Request, int Index)>(new UnboundedChannelOptions
+                    {
+                        SingleWriter = true
+                    });
+                }
+            }
+        }
+    }
+#endif
+
+    #endregion
+
+    #region Pipelined Fetch
+
+    /// <summary>
+    /// Settings for StatusFetchPipeline stages
+    /// </summary>
+    public class PipelineOptions
+    {
+        /// <summary>
+        /// Workers serializing and encrypting requests (default: processor count)
+        /// </summary>
+        public int EncryptParallelism { get; set; } = Environment.ProcessorCount;
+
+        /// <summary>
+        /// Requests in flight to the department (default: 32)
+        /// </summary>
+        public int SendParallelism { get; set; } = 32;
+
+        /// <summary>
+        /// Workers decrypting and parsing responses (default: processor count)
+        /// </summary>
+        public int DecryptParallelism { get; set; } = Environment.ProcessorCount;
+
+        /// <summary>
+        /// Items each stage can have waiting; a full queue makes the previous
+        /// stage (and eventually the producer) wait (default: 64)
+        /// </summary>
+        public int QueueCapacity { get; set; } = 64;
+    }
+
+    /// <summary>
+    /// Point-in-time figures for one pipeline stage
+    /// </summary>
+    public class PipelineStageStatistics
+    {
+        public string Stage { get; set; }
+        public int Parallelism { get; set; }
+
+        /// <summary>
+        /// Items waiting for this stage right now
+        /// </summary>
+        public int QueueDepth { get; set; }
+
+        /// <summary>
+        /// Deepest the queue has been
+        /// </summary>
+        public int MaxQueueDepth { get; set; }
+
+        public long Processed { get; set; }
+        public long Failed { get; set; }
+
+        /// <summary>
+        /// Average time an item spends being worked on in this stage
+        /// </summary>
+        public TimeSpan AverageLatency { get; set; }
+    }
+
+#if NETCOREAPP3_0_OR_GREATER
+    /// <summary>
+    /// Bulk status fetch engine for one department. Each lookup passes through
+    /// three stages connected by bounded channels:
+    ///   encrypt (serialize + 3DES + hex, CPU) -> send (HTTP, I/O) -> decrypt (hex + 3DES + JSON, CPU)
+    /// Each stage has its own workers, so CPU work overlaps network waits, and a
+    /// full queue stops the stage before it, back to the producer. Compare the
+    /// stages' queue depths and latencies to find the bottleneck.
+    ///
+    /// Requests go through the client's circuit breaker and concurrency limiter
+    /// but not its cache, coalescing, retries or hedging; failed lookups are
+    /// returned with Error set and can be resubmitted.
+    /// </summary>
+    public sealed class StatusFetchPipeline
+    {
+        private readonly TrackApplicationClient _client;
+        private readonly PipelineOptions _options;
+        private readonly PipelineStage _encrypt;
+        private readonly PipelineStage _send;
+        private readonly PipelineStage _decrypt;
+
+        internal StatusFetchPipeline(TrackApplicationClient client, PipelineOptions options)
+        {
+            if (options.EncryptParallelism <= 0 || options.SendParallelism <= 0 || options.DecryptParallelism <= 0)
+                throw new ArgumentException("Stage parallelism must be positive", nameof(options));
+
+            if (options.QueueCapacity <= 0)
+                throw new ArgumentException("QueueCapacity must be positive", nameof(options));
+
+            _client = client;
+            _options = options;
+            _encrypt = new PipelineStage("Encrypt", options.EncryptParallelism);
+            _send = new PipelineStage("Send", options.SendParallelism);
+            _decrypt = new PipelineStage("Decrypt", options.DecryptParallelism);
+        }
+
+        /// <summary>
+        /// Fetch the status of every request, streaming results in completion order
+        /// </summary>
+        public IAsyncEnumerable<BatchResult> RunAsync(
+            IEnumerable<ApplicationStatusRequest> requests,
+            CancellationToken cancellationToken = default)
+        {
+            if (requests == null)
+                throw new ArgumentNullException(nameof(requests));
+
+            return RunAsync(BatchRunner.ToAsyncEnumerable(requests), cancellationToken);
+        }
+
+        /// <summary>
+        /// Fetch the status of a stream of requests, streaming results in completion order
+        /// </summary>
+        public async IAsyncEnumerable<BatchResult> RunAsync(
+            IAsyncEnumerable<ApplicationStatusRequest> requests,
+            [EnumeratorCancellation] CancellationToken cancellationToken = default)
+        {
+            if (requests == null)
+                throw new ArgumentNullException(nameof(requests));
+
+            // Statistics describe the latest run
+            _encrypt.Reset();
+            _send.Reset();
+            _decrypt.Reset();
+
+            var encryptQueue = CreateQueue();
+            var sendQueue = CreateQueue();
+            var decryptQueue = CreateQueue();
+            var completed = CreateQueue();
+
+            using (var cts = CancellationTokenSource.CreateLinkedTokenSource(cancellationToken))
+            {
+                var token = cts.Token;
+                var stages = Task.WhenAll(
+                    ProduceAsync(requests, encryptQueue, token),
+                    _encrypt.RunAsync(encryptQueue, sendQueue, Encrypt, token),
+                    _send.RunAsync(sendQueue, decryptQueue, SendAsync, token),
+                    _decrypt.RunAsync(decryptQueue, completed, Decrypt, token));
+
+                try
+                {
+                    while (await completed.Reader.WaitToReadAsync(token))
+                    {
+                        while (completed.Reader.TryRead(out var item))
+                        {
+                            yield return new BatchResult
+                            {
+                                Index = item.Index,
+                                Request = item.Request,
+                                Response = item.Response,
+                                Error = item.Error,
+                                Elapsed = ToTimeSpan(System.Diagnostics.Stopwatch.GetTimestamp() - item.StartedAt)
+                            };
+                        }
+                    }
+                }
+                finally
+                {
+                    cts.Cancel();
+                    await Task.WhenAny(stages);
+
+                    // Stopped early (break, cancellation or a failed stage): return
+                    // the pooled buffers of items still waiting between stages
+                    Drain(sendQueue);
+                    Drain(decryptQueue);
+                    Drain(completed);
+                }
+            }
+        }
+
+        /// <summary>
+        /// Queue depth, throughput and latency of each stage in the current (or
+        /// last) run
+        /// </summary>
+        public IReadOnlyList<PipelineStageStatistics> GetStatistics()
+        {
+            return new[] { _encrypt.GetStatistics(), _send.GetStatistics(), _decrypt.GetStatistics() };
+        }
+
+        private static TimeSpan ToTimeSpan(long stopwatchTicks)
+        {
+            return TimeSpan.FromTicks((long)((double)stopwatchTicks * TimeSpan.TicksPerSecond / System.Diagnostics.Stopwatch.Frequency));
+        }
+
+        private Channel<PipelineItem> CreateQueue()
+        {
+            return Channel.CreateBounded<PipelineItem>(_options.QueueCapacity);
+        }
+
+        private static void Drain(Channel<PipelineItem> queue)
+        {
+            while (queue.Reader.TryRead(out var item))
+                item.ReleaseBuffers();
+        }
+
+        private static async Task ProduceAsync(
+            IAsyncEnumerable<ApplicationStatusRequest> requests,
+            Channel<PipelineItem> output,
+            CancellationToken cancellationToken)
+        {
+            try
+            {
+                int index = 0;
+                await foreach (var request in requests.WithCancellation(cancellationToken))
+                {
+                    var item = new PipelineItem
+                    {
+                        Index = index++,
+                        Request = request,
+                        StartedAt = System.Diagnostics.Stopwatch.GetTimestamp()
+                    };
+
+                    await output.Writer.WriteAsync(item, cancellationToken);
+                }
+
+                output.Writer.TryComplete();
+            }
+            catch (Exception ex)
+            {
+                output.Writer.TryComplete(ex);
+            }
+        }
+
+        private ValueTask Encrypt(PipelineItem item, CancellationToken cancellationToken)
+        {
+            var validation = _client.ValidateRequest(item.Request);
+            if (!validation.IsValid)
+                throw new ValidationException("Request validation failed", validation.Errors);
+
+            item.Content = _client.CreateEncryptedContent(item.Request);
+            return default;
+        }
+
+        private async ValueTask SendAsync(PipelineItem item, CancellationToken cancellationToken)
+        {
+            var content = item.Content;
+            item.Content = null;
+            item.Raw = await _client.SendGuardedAsync(item.Request, content, cancellationToken);
+        }
+
+        private ValueTask Decrypt(PipelineItem item, CancellationToken cancellationToken)
+        {
+            using (var raw = item.Raw)
+            {
+                item.Raw = null;
+                item.Response = _client.OpenResponse(raw.Body, raw.StatusCode);
+                item.Response.RetrievedAt = DateTime.UtcNow;
+            }
+
+            return default;
+        }
+
+        private sealed class PipelineItem
+        {
+            public int Index;
+            public ApplicationStatusRequest Request;
+            public long StartedAt;
+            public HttpContent Content;
+            public RawResponse Raw;
+            public ApplicationStatusResponse Response;
+            public Exception Error;
+
+            public void ReleaseBuffers()
+            {
+                Content?.Dispose();
+                Content = null;
+                Raw?.Dispose();
+                Raw = null;
+            }
+        }
+
+        private sealed class PipelineStage
+        {
+            private readonly string _name;
+            private readonly int _parallelism;
+            private Channel<PipelineItem> _input;
+            private long _processed;
+            private long _failed;
+            private long _busyTicks;
+            private int _maxQueueDepth;
+
+            public PipelineStage(string name, int parallelism)
+            {
+                _name = name;
+                _parallelism = parallelism;
+            }
+
+            /// <summary>
+            /// Run the stage's workers until the input completes, then complete the output.
+            /// Items that already failed pass straight through to the output.
+            /// </summary>
+            public async Task RunAsync(
+                Channel<PipelineItem> input,
+                Channel<PipelineItem> output,
+                Func<PipelineItem, CancellationToken, ValueTask> work,
+                CancellationToken cancellationToken)
+            {
+                _input = input;
+
+                var workers = new Task[_parallelism];
+                for (int i = 0; i < workers.Length; i++)
+                    workers[i] = RunWorkerAsync(input.Reader, output.Writer, work, cancellationToken);
+
+                try
+                {
+                    await Task.WhenAll(workers);
+                    output.Writer.TryComplete();
+                }
+                catch (Exception ex)
+                {
+                    output.Writer.TryComplete(ex);
+                }
+            }
+
+            private async Task RunWorkerAsync(
+                ChannelReader<PipelineItem> input,
+                ChannelWriter<PipelineItem> output,
+                Func<PipelineItem, CancellationToken, ValueTask> work,
+                CancellationToken cancellationToken)
+            {
+                while (await input.WaitToReadAsync(cancellationToken))
+                {
+                    while (input.TryRead(out var item))
+                    {
+                        int depth = input.Count + 1;
+                        if (depth > Volatile.Read(ref _maxQueueDepth))
+                            Interlocked.Exchange(ref _maxQueueDepth, depth);
+
+                        if (item.Error == null)
+                        {
+                            long started = System.Diagnostics.Stopwatch.GetTimestamp();
+                            try
+                            {
+                                await work(item, cancellationToken);
+                            }
+                            catch (OperationCanceledException) when (cancellationToken.IsCancellationRequested)
+                            {
+                                item.ReleaseBuffers();
+                                throw;
+                            }
+                            catch (Exception ex)
+                            {
+                                item.Error = ex;
+                                item.ReleaseBuffers();
+                                Interlocked.Increment(ref _failed);
+                            }
+
+                            Interlocked.Add(ref _busyTicks, System.Diagnostics.Stopwatch.GetTimestamp() - started);
+                            Interlocked.Increment(ref _processed);
+                        }
+
+                        try
+                        {
+                            await output.WriteAsync(item, cancellationToken);
+                        }
+                        catch
+                        {
+                            // Not handed on, so nobody else will release it
+                            item.ReleaseBuffers();
+                            throw;
+                        }
+                    }
+                }
+            }
+
+            public void Reset()
+            {
+                _input = null;
+                Interlocked.Exchange(ref _processed, 0);
+                Interlocked.Exchange(ref _failed, 0);
+                Interlocked.Exchange(ref _busyTicks, 0);
+                Interlocked.Exchange(ref _maxQueueDepth, 0);
+            }
+
+            public PipelineStageStatistics GetStatistics()
+            {
+                long processed = Interlocked.Read(ref _processed);
+                long busy = Interlocked.Read(ref _busyTicks);
+
+                return new PipelineStageStatistics
+                {
+                    Stage = _name,
+                    Parallelism = _parallelism,
+                    QueueDepth = _input?.Reader.Count ?? 0,
+                    MaxQueueDepth = Volatile.Read(ref _maxQueueDepth),
+                    Processed = processed,
+                    Failed = Interlocked.Read(ref _failed),
+                    AverageLatency = processed == 0 ? TimeSpan.Zero : ToTimeSpan(busy / processed)
+                };
+            }
+        }
+    }
+#endif
+
+    #endregion
+
+    #region Polling Scheduler
+
+    /// <summary>
+    /// Settings for PollingScheduler
+    /// </summary>
+    public class PollingScheduleOptions
+    {
+        /// <summary>
+        /// Shortest time between checks of one application (default: 15 minutes)
+        /// </summary>
+        public TimeSpan MinInterval { get; set; } = TimeSpan.FromMinutes(15);
+
+        /// <summary>
+        /// Longest time between checks of one application (default: 24 hours)
+        /// </summary>
+        public TimeSpan MaxInterval { get; set; } = TimeSpan.FromHours(24);
+
+        /// <summary>
+        /// Interval when no estimate is available or citizen action is pending
+        /// (default: 4 hours)
+        /// </summary>
+        public TimeSpan DefaultInterval { get; set; } = TimeSpan.FromHours(4);
+
+        /// <summary>
+        /// Interval multiplier for every check that finds the application still
+        /// at the same desk (default: 1.5)
+        /// </summary>
+        public double StuckBackoffFactor { get; set; } = 1.5;
+
+        /// <summary>
+        /// Wait after a failed check; doubles with each consecutive failure
+        /// (default: 30 minutes)
+        /// </summary>
+        public TimeSpan ErrorRetryInterval { get; set; } = TimeSpan.FromMinutes(30);
+
+        /// <summary>
+        /// Random +/- share added to each interval so checks do not line up (default: 0.1)
+        /// </summary>
+        public double Jitter { get; set; } = 0.1;
+
+        /// <summary>
+        /// Newly added applications get their first check at a random time within
+        /// this window, so a large initial load does not arrive as one burst
+        /// (default: 1 hour)
+        /// </summary>
+        public TimeSpan InitialSpread { get; set; } = TimeSpan.FromHours(1);
+    }
+
+    /// <summary>
+    /// Decides when each monitored application is next checked, from its last
+    /// response: more often as the estimated disbursal date approaches, less
+    /// often while it stays at the same desk, never again once approved or
+    /// rejected. Due applications are kept in a min-heap by next check time.
+    /// </summary>
+    /// <typeparam name="T">Caller's record for an application</typeparam>
+    public sealed class PollingScheduler<T>
+    {
+        private const int MaxStuckBackoffSteps = 8;
+        private const int MaxErrorBackoffSteps = 6;
+
+        private readonly object _lock = new object();
+        private readonly Func<T, string> _keySelector;
+        private readonly PollingScheduleOptions _options;
+        private readonly Dictionary<string, Entry> _entries = new Dictionary<string, Entry>(StringComparer.OrdinalIgnoreCase);
+        private readonly List<Entry> _heap = new List<Entry>();
+        private readonly Random _random = new Random();
+
+        /// <param name="keySelector">Application ID of a record</param>
+        public PollingScheduler(Func<T, string> keySelector, PollingScheduleOptions options = null)
+        {
+            _keySelector = keySelector ?? throw new ArgumentNullException(nameof(keySelector));
+            _options = options ?? new PollingScheduleOptions();
+        }
+
+        /// <summary>
+        /// Applications being monitored (scheduled or currently being checked)
+        /// </summary>
+        public int Count
+        {
+            get { lock (_lock) return _entries.Count; }
+        }
+
+        /// <summary>
+        /// When the next application is due (UTC), or null if none is scheduled
+        /// </summary>
+        public DateTime? NextDueUtc
+        {
+            get { lock (_lock) return _heap.Count > 0 ? _heap[0].DueUtc : (DateTime?)null; }
+        }
+
+        /// <summary>
+        /// Start monitoring an application; its first check is spread over InitialSpread.
+        /// Adding an application that is already monitored replaces its record only.
+        /// </summary>
+        public void Add(T item)
+        {
+            lock (_lock)
+            {
+                var due = DateTime.UtcNow + TimeSpan.FromTicks((long)(_options.InitialSpread.Ticks * _random.NextDouble()));
+                AddLocked(item, due);
+            }
+        }
+
+        /// <summary>
+        /// Start monitoring an application with its first check at the given time (UTC)
+        /// </summary>
+        public void Add(T item, DateTime firstCheckUtc)
+        {
+            lock (_lock)
+                AddLocked(item, firstCheckUtc);
+        }
+
+        /// <summary>
+        /// Stop monitoring an application
+        /// </summary>
+        public bool Remove(string applicationId)
+        {
+            lock (_lock)
+            {
+                if (!_entries.TryGetValue(applicationId, out var entry))
+                    return false;
+
+                _entries.Remove(applicationId);
+                if (entry.HeapIndex >= 0)
+                    RemoveAt(entry.HeapIndex);
+                return true;
+            }
+        }
+
+        /// <summary>
+        /// Take up to maxItems applications that are due. They leave the schedule
+        /// until Reschedule or RescheduleAfterError is called for them. Taking a
+        /// bounded number per tick spreads checks evenly over time.
+        /// </summary>
+        public IReadOnlyList<T> TakeDue(DateTime nowUtc, int maxItems)
+        {
+            var due = new List<T>();
+
+            lock (_lock)
+            {
+                while (due.Count < maxItems && _heap.Count > 0 && _heap[0].DueUtc <= nowUtc)
+                {
+                    var entry = _heap[0];
+                    RemoveAt(0);
+                    due.Add(entry.Item);
+                }
+            }
+
+            return due;
+        }
+
+        /// <summary>
+        /// Schedule the next check from the latest response
+        /// </summary>
+        /// <returns>False when monitoring has ended (final decision made)</returns>
+        public bool Reschedule(T item, ApplicationStatusResponse response)
+        {
+            if (response == null)
+                throw new ArgumentNullException(nameof(response));
+
+            lock (_lock)
+            {
+                if (!_entries.TryGetValue(_keySelector(item), out var entry))
+                    return false;
+
+                entry.Item = item;
+                entry.ConsecutiveErrors = 0;
+
+                if (entry.HasDesk && entry.LastDeskNumber == response.CurrentDeskNumber)
+                    entry.ChecksAtSameDesk++;
+                else
+                    entry.ChecksAtSameDesk = 0;
+
+                entry.HasDesk = true;
+                entry.LastDeskNumber = response.CurrentDeskNumber;
+
+                var interval = GetNextInterval(response, entry.ChecksAtSameDesk);
+                if (interval == null)
+                {
+                    if (entry.HeapIndex >= 0)
+                        RemoveAt(entry.HeapIndex);
+                    _entries.Remove(entry.Key);
+                    return false;
+                }
+
+                Schedule(entry, DateTime.UtcNow + Jittered(interval.Value));
+                return true;
+            }
+        }
+
+        /// <summary>
+        /// Schedule a retry after a failed check, backing off on repeated failures
+        /// </summary>
+        public void RescheduleAfterError(T item)
+        {
+            lock (_lock)
+            {
+                if (!_entries.TryGetValue(_keySelector(item), out var entry))
+                    return;
+
+                entry.ConsecutiveErrors++;
+                double factor = Math.Pow(2, Math.Min(entry.ConsecutiveErrors - 1, MaxErrorBackoffSteps));
+                var interval = Clamp(TimeSpan.FromTicks((long)(_options.ErrorRetryInterval.Ticks * factor)));
+
+                Schedule(entry, DateTime.UtcNow + Jittered(interval));
+            }
+        }
+
+        /// <summary>
+        /// Time until the next check, or null to stop monitoring
+        /// </summary>
+        internal TimeSpan? GetNextInterval(ApplicationStatusResponse response, int checksAtSameDesk)
+        {
+            var decision = response.FinalDecisionStatus;
+            if (decision == FinalDecisionStatus.Approved || decision == FinalDecisionStatus.Rejected)
+                return null;
+
+            var interval = _options.DefaultInterval;
+
+            if (!response.IsActionRequired && response.EstimatedDisbursalDays > 0)
+            {
+                var submitted = StatusHelper.ParseDate(response.ApplicationSubmissionDate);
+                if (submitted.HasValue)
+                {
+                    // API dates are department local time; compare with local now
+                    var remaining = submitted.Value.AddDays(response.EstimatedDisbursalDays) - DateTime.Now;
+
+                    // Check about four times over the remaining estimate; overdue
+                    // applications are checked as often as allowed
+                    interval = remaining > TimeSpan.Zero
+                        ? TimeSpan.FromTicks(remaining.Ticks / 4)
+                        : _options.MinInterval;
+                }
+            }
+
+            if (checksAtSameDesk > 0)
+            {
+                double backoff = Math.Pow(_options.StuckBackoffFactor, Math.Min(checksAtSameDesk, MaxStuckBackoffSteps));
+                interval = TimeSpan.FromTicks((long)Math.Min(interval.Ticks * backoff, _options.MaxInterval.Ticks));
+            }
+
+            return Clamp(interval);
+        }
+
+        private void AddLocked(T item, DateTime dueUtc)
+        {
+            var key = _keySelector(item);
+            if (string.IsNullOrEmpty(key))
+                throw new ArgumentException("Application ID is required", nameof(item));
+
+            if (_entries.TryGetValue(key, out var existing))
+            {
+                existing.Item = item;
+                return;
+            }
+
+            var entry = new Entry { Key = key, Item = item, HeapIndex = -1 };
+            _entries[key] = entry;
+            Schedule(entry, dueUtc);
+        }
+
+        private TimeSpan Clamp(TimeSpan interval)
+        {
+            if (interval < _options.MinInterval)
+                return _options.MinInterval;
+
+            return interval > _options.MaxInterval ? _options.MaxInterval : interval;
+        }
+
+        // Clamped after the jitter is applied, so MinInterval/MaxInterval always hold
+        private TimeSpan Jittered(TimeSpan interval)
+        {
+            double factor = 1 + _options.Jitter * (2 * _random.NextDouble() - 1);
+            return Clamp(TimeSpan.FromTicks((long)(interval.Ticks * factor)));
+        }
+
+        #region Heap
+
+        private void Schedule(Entry entry, DateTime dueUtc)
+        {
+            if (entry.HeapIndex >= 0)
+                RemoveAt(entry.HeapIndex);
+
+            entry.DueUtc = dueUtc;
+            entry.HeapIndex = _heap.Count;
+            _heap.Add(entry);
+            SiftUp(entry.HeapIndex);
+        }
+
+        private void RemoveAt(int index)
+        {
+            var removed = _heap[index];
+            int last = _heap.Count - 1;
+
+            if (index != last)
+            {
+                Move(_heap[last], index);
+                _heap.RemoveAt(last);
+                SiftDown(index);
+                SiftUp(index);
+            }
+            else
+            {
+                _heap.RemoveAt(last);
+            }
+
+            removed.HeapIndex = -1;
+        }
+
+        private void SiftUp(int index)
+        {
+            var entry = _heap[index];
+            while (index > 0)
+            {
+                int parent = (index - 1) / 2;
+                if (_heap[parent].DueUtc <= entry.DueUtc)
+                    break;
+
+                Move(_heap[parent], index);
+                index = parent;
+            }
+            Move(entry, index);
+        }
+
+        private void SiftDown(int index)
+        {
+            var entry = _heap[index];
+            int count = _heap.Count;
+            while (true)
+            {
+                int child = index * 2 + 1;
+                if (child >= count)
+                    break;
+
+                if (child + 1 < count && _heap[child + 1].DueUtc < _heap[child].DueUtc)
+                    child++;
+
+                if (_heap[child].DueUtc >= entry.DueUtc)
+                    break;
+
+                Move(_heap[child], index);
+                index = child;
+            }
+            Move(entry, index);
+        }
+
+        private void Move(Entry entry, int index)
+        {
+            _heap[index] = entry;
+            entry.HeapIndex = index;
+        }
+
+        #endregion
+
+        private sealed class Entry
+        {
+            public string Key;
+            public T Item;
+            public DateTime DueUtc;
+            public int HeapIndex;
+            public bool HasDesk;
+            public int LastDeskNumber;
+            public int ChecksAtSameDesk;
+            public int ConsecutiveErrors;
+        }
+    }
+
+    #endregion
+
+    #region Change Detection
+
+    /// <summary>
+    /// Stable 64-bit fingerprint of the parts of a status a citizen can see change:
+    /// payment, action required, decision, desk position and desk reviews. Store it
+    /// per application; an unchanged poll is then one 8-byte compare.
+    /// The value is the same across processes and machines (xxHash64, seed 0).
+    /// </summary>
+    public static class StatusFingerprint
+    {
+        // Bump when the fields below change so stored fingerprints no longer match
+        private const byte Version = 1;
+
+        /// <summary>
+        /// Compute the fingerprint of a response
+        /// </summary>
+        public static ulong Compute(ApplicationStatusResponse response)
+        {
+            if (response == null)
+                throw new ArgumentNullException(nameof(response));
+
+            var hash = new XxHash64();
+            hash.Append(Version);
+            hash.Append(response.ApplicationID);
+            hash.Append(response.ApplicationPaymentDate);
+            hash.Append(response.NextActionRequiredDetails);
+            hash.Append(response.FinalDecision);
+            hash.Append(response.EstimatedDisbursalDays);
+            hash.Append(response.TotalNumberOfDesks);
+            hash.Append(response.CurrentDeskNumber);
+            hash.Append(response.NextDeskNumber);
+
+            var desks = response.DeskDetails;
+            int deskCount = desks?.Length ?? 0;
+            hash.Append(deskCount);
+
+            for (int i = 0; i < deskCount; i++)
+            {
+                var desk = desks[i];
+                hash.Append(desk?.DeskNumber);
+                hash.Append(desk?.ReviewActionBy);
+                hash.Append(desk?.ReviewActionDateTime);
+                hash.Append(desk?.ReviewActionDetails);
+            }
+
+            return hash.GetDigest();
+        }
+    }
+
+    /// <summary>
+    /// What changed between two statuses of the same application.
+    /// Compute it only when StatusFingerprint differs.
+    /// </summary>
+    public sealed class StatusChange
+    {
+        private static readonly DeskDetail[] NoDesks = new DeskDetail[0];
+
+        public ApplicationStatusResponse Previous { get; private set; }
+        public ApplicationStatusResponse Current { get; private set; }
+
+        /// <summary>
+        /// FinalDecision differs (e.g. "" to "2", or "2" to "0"). Without a
+        /// previous status only an approval or rejection counts.
+        /// </summary>
+        public bool DecisionChanged { get; private set; }
+
+        /// <summary>
+        /// The application was approved or rejected by this change; use this,
+        /// not DecisionChanged, for "decision made" notifications
+        /// </summary>
+        public bool Closed => DecisionChanged && Current.IsClosed;
+
+        /// <summary>
+        /// ApplicationPaymentDate differs (usually: the application was paid)
+        /// </summary>
+        public bool PaymentChanged { get; private set; }
+
+        /// <summary>
+        /// NextActionRequiredDetails differs
+        /// </summary>
+        public bool ActionRequiredChanged { get; private set; }
+
+        /// <summary>
+        /// CurrentDeskNumber differs
+        /// </summary>
+        public bool DeskChanged { get; private set; }
+
+        /// <summary>
+        /// Desk entries that are new or whose review was filled in or updated
+        /// </summary>
+        public IReadOnlyList<DeskDetail> NewDeskEntries { get; private set; }
+
+        /// <summary>
+        /// Any citizen-visible field differs
+        /// </summary>
+        public bool HasChanges =>
+            DecisionChanged || PaymentChanged || ActionRequiredChanged || DeskChanged || NewDeskEntries.Count > 0;
+
+        /// <summary>
+        /// Compare two statuses
+        /// </summary>
+        /// <param name="previous">Last stored status, or null if there is none</param>
+        /// <param name="current">Status just retrieved</param>
+        public static StatusChange Compare(ApplicationStatusResponse previous, ApplicationStatusResponse current)
+        {
+            if (current == null)
+                throw new ArgumentNullException(nameof(current));
+
+            var change = new StatusChange
+            {
+                Previous = previous,
+                Current = current,
+                NewDeskEntries = GetNewDeskEntries(previous?.DeskDetails ?? NoDesks, current.DeskDetails ?? NoDesks)
+            };
+
+            if (previous == null)
+            {
+                change.DecisionChanged = current.IsClosed;
+                change.PaymentChanged = current.IsPaid;
+                change.ActionRequiredChanged = current.IsActionRequired;
+                change.DeskChanged = current.CurrentDeskNumber != 0;
+                return change;
+            }
+
+            change.DecisionChanged = !SameText(previous.FinalDecision, current.FinalDecision);
+            change.PaymentChanged = !SameText(previous.ApplicationPaymentDate, current.ApplicationPaymentDate);
+            change.ActionRequiredChanged = !SameText(previous.NextActionRequiredDetails, current.NextActionRequiredDetails);
+            change.DeskChanged = previous.CurrentDeskNumber != current.CurrentDeskNumber;
+            return change;
+        }
+
+        private static IReadOnlyList<DeskDetail> GetNewDeskEntries(DeskDetail[] previous, DeskDetail[] current)
+        {
+            // Desk details are in ascending order, so match by position and
+            // fall back to a lookup only if the desk at a position was replaced
+            List<DeskDetail> added = null;
+
+            for (int i = 0; i < current.Length; i++)
+            {
+                var desk = current[i];
+                if (desk == null)
+                    continue;
+
+                var before = i < previous.Length && previous[i] != null
+                    && SameText(previous[i].DeskNumber, desk.DeskNumber)
+                    ? previous[i]
+                    : Array.Find(previous, d => d != null && SameText(d.DeskNumber, desk.DeskNumber));
+
+                if (before != null
+                    && SameText(before.ReviewActionBy, desk.ReviewActionBy)
+                    && SameText(before.ReviewActionDateTime, desk.ReviewActionDateTime)
+                    && SameText(before.ReviewActionDetails, desk.ReviewActionDetails))
+                    continue;
+
+                (added ?? (added = new List<DeskDetail>())).Add(desk);
+            }
+
+            return (IReadOnlyList<DeskDetail>)added ?? NoDesks;
+        }
+
+        // The API sends empty strings for missing values; treat null the same way
+        private static bool SameText(string a, string b)
+        {
+            return string.Equals(a ?? string.Empty, b ?? string.Empty, StringComparison.Ordinal);
+        }
+    }
+
+    /// <summary>
+    /// Streaming xxHash64 over little-endian values
+    /// </summary>
+    internal sealed class XxHash64
+    {
+        private const ulong Prime1 = 11400714785074694791UL;
+        private const ulong Prime2 = 14029467366897019727UL;
+        private const ulong Prime3 = 1609587929392839161UL;
+        private const ulong Prime4 = 9650029242287828579UL;
+        private const ulong Prime5 = 2870177450012600261UL;
+
+        private readonly ulong _seed;
+        private readonly byte[] _stripe = new byte[32];
+        private int _stripeLength;
+        private ulong _v1, _v2, _v3, _v4;
+        private ulong _totalLength;
+
+        public XxHash64(ulong seed = 0)
+        {
+            _seed = seed;
+            unchecked
+            {
+                _v1 = seed + Prime1 + Prime2;
+                _v2 = seed + Prime2;
+                _v3 = seed;
+                _v4 = seed - Prime1;
+            }
+        }
+
+        public void Append(byte value)
+        {
+            _stripe[_stripeLength++] = value;
+            _totalLength++;
+
+            if (_stripeLength == _stripe.Length)
+            {
+                _v1 = Round(_v1, ReadUInt64(_stripe, 0));
+                _v2 = Round(_v2, ReadUInt64(_stripe, 8));
+                _v3 = Round(_v3, ReadUInt64(_stripe, 16));
+                _v4 = Round(_v4, ReadUInt64(_stripe, 24));
+                _stripeLength = 0;
+            }
+        }
+
+        public void Append(byte[] buffer, int offset, int count)
+        {
+            for (int i = 0; i < count; i++)
+                Append(buffer[offset + i]);
+        }
+
+        public void Append(int value)
+        {
+            Append((byte)value);
+            Append((byte)(value >> 8));
+            Append((byte)(value >> 16));
+            Append((byte)(value >> 24));
+        }
+
+        /// <summary>
+        /// Length-prefixed UTF-16 code units; null hashes like empty
+        /// </summary>
+        public void Append(string value)
+        {
+            int length = value?.Length ?? 0;
+            Append(length);
+
+            for (int i = 0; i < length; i++)
+            {
+                char c = value[i];
+                Append((byte)c);
+                Append((byte)(c >> 8));
+            }
+        }
+
+        public ulong GetDigest()
+        {
+            unchecked
+            {
+                ulong hash;
+
+                if (_totalLength >= 32)
+                {
+                    hash = RotateLeft(_v1, 1) + RotateLeft(_v2, 7) + RotateLeft(_v3, 12) + RotateLeft(_v4, 18);
+                    hash = MergeRound(hash, _v1);
+                    hash = MergeRound(hash, _v2);
+                    hash = MergeRound(hash, _v3);
+                    hash = MergeRound(hash, _v4);
+                }
+                else
+                {
+                    hash = _seed + Prime5;
+                }
+
+                hash += _totalLength;
+
+                int offset = 0;
+                for (; offset + 8 <= _stripeLength; offset += 8)
+                {
+                    hash ^= Round(0, ReadUInt64(_stripe, offset));
+                    hash = RotateLeft(hash, 27) * Prime1 + Prime4;
+                }
+
+                if (offset + 4 <= _stripeLength)
+                {
+                    hash ^= ReadUInt32(_stripe, offset) * Prime1;
+                    hash = RotateLeft(hash, 23) * Prime2 + Prime3;
+                    offset += 4;
+                }
+
+                for (; offset < _stripeLength; offset++)
+                {
+                    hash ^= _stripe[offset] * Prime5;
+                    hash = RotateLeft(hash, 11) * Prime1;
+                }
+
+                hash ^= hash >> 33;
+                hash *= Prime2;
+                hash ^= hash >> 29;
+                hash *= Prime3;
+                hash ^= hash >> 32;
+                return hash;
+            }
+        }
+
+        private static ulong Round(ulong accumulator, ulong lane)
+        {
+            unchecked
+            {
+                accumulator += lane * Prime2;
+                accumulator = RotateLeft(accumulator, 31);
+                return accumulator * Prime1;
+            }
+        }
+
+        private static ulong MergeRound(ulong hash, ulong accumulator)
+        {
+            unchecked
+            {
+                hash ^= Round(0, accumulator);
+                return hash * Prime1 + Prime4;
+            }
+        }
+
+        private static ulong RotateLeft(ulong value, int bits)
+        {
+            return (value << bits) | (value >> (64 - bits));
+        }
+
+        private static ulong ReadUInt64(byte[] buffer, int offset)
+        {
+            return ReadUInt32(buffer, offset) | ((ulong)ReadUInt32(buffer, offset + 4) << 32);
+        }
+
+        private static uint ReadUInt32(byte[] buffer, int offset)
+        {
+            return buffer[offset]
+                | ((uint)buffer[offset + 1] << 8)
+                | ((uint)buffer[offset + 2] << 16)
+                | ((uint)buffer[offset + 3] << 24);
+        }
+    }
+
+    #endregion
+
+    #region Snapshot Store
+
+    /// <summary>
+    /// Identifies a stored status: department, service and application
+    /// </summary>
+    public struct SnapshotKey : IEquatable<SnapshotKey>
+    {
+        public string DeptName { get; }
+        public string ServiceID { get; }
+        public string AppID { get; }
+
+        public SnapshotKey(string deptName, string serviceId, string appId)
+        {
+            DeptName = deptName ?? string.Empty;
+            ServiceID = serviceId ?? string.Empty;
+            AppID = appId ?? string.Empty;
+        }
+
+        public bool Equals(SnapshotKey other)
+        {
+            return string.Equals(AppID, other.AppID, StringComparison.OrdinalIgnoreCase)
+                && string.Equals(ServiceID, other.ServiceID, StringComparison.Ordinal)
+                && string.Equals(DeptName, other.DeptName, StringComparison.OrdinalIgnoreCase);
+        }
+
+        public override bool Equals(object obj)
+        {
+            return obj is SnapshotKey other && Equals(other);
+        }
+
+        public override int GetHashCode()
+        {
+            unchecked
+            {
+                int hash = StringComparer.OrdinalIgnoreCase.GetHashCode(AppID ?? string.Empty);
+                hash = hash * 31 + (ServiceID ?? string.Empty).GetHashCode();
+                return hash * 31 + StringComparer.OrdinalIgnoreCase.GetHashCode(DeptName ?? string.Empty);
+            }
+        }
+
+        public override string ToString()
+        {
+            return $"{DeptName}/{ServiceID}/{AppID}";
+        }
+    }
+
+    /// <summary>
+    /// Settings for StatusSnapshotStore
+    /// </summary>
+    public class SnapshotStoreOptions
+    {
+        /// <summary>
+        /// Directory holding the segment files (required)
+        /// </summary>
+        public string Directory { get; set; }
+
+        /// <summary>
+        /// Size at which the active segment is sealed and a new one started
+        /// (default: 64 MB)
+        /// </summary>
+        public long MaxSegmentSize { get; set; } = 64L * 1024 * 1024;
+
+        /// <summary>
+        /// Compact sealed segments once this share of their bytes is overwritten
+        /// or deleted data (default: 0.5)
+        /// </summary>
+        public double CompactionThreshold { get; set; } = 0.5;
+
+        /// <summary>
+        /// Flush every write through to disk. Off, a power loss can lose the last
+        /// writes but never corrupts the store (default: true)
+        /// </summary>
+        public bool FlushToDisk { get; set; } = true;
+    }
+
+    public class SnapshotChangedEventArgs : EventArgs
+    {
+        public SnapshotChangedEventArgs(SnapshotKey key, ApplicationStatusResponse response)
+        {
+            Key = key;
+            Response = response;
+        }
+
+        public SnapshotKey Key { get; }
+
+        /// <summary>
+        /// The stored status, or null if it was deleted
+        /// </summary>
+        public ApplicationStatusResponse Response { get; }
+    }
+
+    /// <summary>
+    /// Statistics for a StatusSnapshotStore
+    /// </summary>
+    public class SnapshotStoreStatistics
+    {
+        public int Count { get; set; }
+        public int Segments { get; set; }
+        public long TotalBytes { get; set; }
+        public long LiveBytes { get; set; }
+        public long Compactions { get; set; }
+
+        /// <summary>
+        /// Damaged records found when the store was opened (skipped or truncated)
+        /// </summary>
+        public int CorruptRecords { get; set; }
+
+        /// <summary>
+        /// Error of the last background compaction, or null if it succeeded
+        /// </summary>
+        public Exception LastCompactionError { get; set; }
+    }
+
+    /// <summary>
+    /// Local, file-based store of the latest status per application, so monitoring
+    /// jobs and caches can keep what they fetched without a central database.
+    /// Writes are appended to segment files; an in-memory index maps each key to its
+    /// latest record. Every record carries a checksum, so after a crash the store
+    /// reopens to the last complete write. Sealed segments are compacted in the
+    /// background once mostly overwritten.
+    /// </summary>
+    public sealed class StatusSnapshotStore : IDisposable
+    {
+        private const string SegmentPrefix = "snapshots-";
+        private const string SegmentExtension = ".log";
+        private const int HeaderSize = 8;
+        private const int MaxRecordSize = 16 * 1024 * 1024;
+        private const byte PutRecord = 1;
+        private const byte DeleteRecord = 2;
+
+        private readonly object _lock = new object();
+        private readonly SnapshotStoreOptions _options;
+        private readonly Dictionary<SnapshotKey, Location> _index = new Dictionary<SnapshotKey, Location>();
+        private readonly List<Segment> _segments = new List<Segment>();
+        private Segment _active;
+        private FileStream _writer;
+        private int _compacting;
+        private long _compactions;
+        private Task _backgroundCompaction = Task.CompletedTask;
+        private Exception _lastCompactionError;
+        private int _corruptRecords;
+        private bool _disposed;
+
+        public StatusSnapshotStore(SnapshotStoreOptions options)
+        {
+            _options = options ?? throw new ArgumentNullException(nameof(options));
+            if (string.IsNullOrEmpty(options.Directory))
+                throw new ArgumentException("Directory is required", nameof(options));
+
+            System.IO.Directory.CreateDirectory(options.Directory);
+            Recover();
+        }
+
+        /// <summary>
+        /// Open (or create) a store in a directory with default settings
+        /// </summary>
+        public StatusSnapshotStore(string directory)
+            : this(new SnapshotStoreOptions { Directory = directory })
+        {
+        }
+
+        /// <summary>
+        /// Raised for every Put and Delete, in write order. Handlers run while the
+        /// store holds its write lock, so they must be quick and must not call back
+        /// into the store.
+        /// </summary>
+        public event EventHandler<SnapshotChangedEventArgs> Changed;
+
+        /// <summary>
+        /// Number of stored statuses
+        /// </summary>
+        public int Count
+        {
+            get { lock (_lock) return _index.Count; }
+        }
+
+        /// <summary>
+        /// Keys of all stored statuses (a copy)
+        /// </summary>
+        public IReadOnlyList<SnapshotKey> Keys
+        {
+            get { lock (_lock) return _index.Keys.ToList(); }
+        }
+
+        /// <summary>
+        /// Store the latest status for a key, replacing any earlier one
+        /// </summary>
+        public void Put(SnapshotKey key, ApplicationStatusResponse response)
+        {
+            if (response == null)
+                throw new ArgumentNullException(nameof(response));
+
+            ulong fingerprint = StatusFingerprint.Compute(response);
+            var record = EncodeRecord(PutRecord, key, fingerprint, response);
+
+            lock (_lock)
+            {
+                var location = AppendLocked(record);
+                location.Fingerprint = fingerprint;
+
+                if (_index.TryGetValue(key, out var previous))
+                    previous.Segment.LiveBytes -= previous.Length;
+
+                _index[key] = location;
+                location.Segment.LiveBytes += location.Length;
+
+                Changed?.Invoke(this, new SnapshotChangedEventArgs(key, response));
+            }
+
+            MaybeCompact();
+        }
+
+        /// <summary>
+        /// Read the stored status for a key
+        /// </summary>
+        public bool TryGet(SnapshotKey key, out ApplicationStatusResponse response)
+        {
+            byte[] payload;
+
+            lock (_lock)
+            {
+                ThrowIfDisposed();
+                if (!_index.TryGetValue(key, out var location))
+                {
+                    response = null;
+                    return false;
+                }
+
+                payload = ReadPayloadLocked(location);
+            }
+
+            DecodeRecord(payload, true, out _, out _, out _, out response);
+            return true;
+        }
+
+        /// <summary>
+        /// StatusFingerprint of the stored status, read from memory without disk access
+        /// </summary>
+        public bool TryGetFingerprint(SnapshotKey key, out ulong fingerprint)
+        {
+            lock (_lock)
+            {
+                if (_index.TryGetValue(key, out var location))
+                {
+                    fingerprint = location.Fingerprint;
+                    return true;
+                }
+            }
+
+            fingerprint = 0;
+            return false;
+        }
+
+        /// <summary>
+        /// Remove the stored status for a key
+        /// </summary>
+        public bool Delete(SnapshotKey key)
+        {
+            lock (_lock)
+            {
+                if (!_index.TryGetValue(key, out var previous))
+                    return false;
+
+                AppendLocked(EncodeRecord(DeleteRecord, key, 0, null));
+                previous.Segment.LiveBytes -= previous.Length;
+                _index.Remove(key);
+
+                Changed?.Invoke(this, new SnapshotChangedEventArgs(key, null));
+            }
+
+            MaybeCompact();
+            return true;
+        }
+
+        /// <summary>
+        /// Read every stored status (for example to resume monitoring after a restart)
+        /// </summary>
+        public IEnumerable<KeyValuePair<SnapshotKey, ApplicationStatusResponse>> GetAll()
+        {
+            foreach (var key in Keys)
+            {
+                if (TryGet(key, out var response))
+                    yield return new KeyValuePair<SnapshotKey, ApplicationStatusResponse>(key, response);
+            }
+        }
+
+        public SnapshotStoreStatistics GetStatistics()
+        {
+            lock (_lock)
+            {
+                return new SnapshotStoreStatistics
+                {
+                    Count = _index.Count,
+                    Segments = _segments.Count,
+                    TotalBytes = _segments.Sum(s => s.Length),
+                    LiveBytes = _segments.Sum(s => s.LiveBytes),
+                    Compactions = Interlocked.Read(ref _compactions),
+                    CorruptRecords = _corruptRecords,
+                    LastCompactionError = Volatile.Read(ref _lastCompactionError)
+                };
+            }
+        }
+
+        /// <summary>
+        /// Rewrite all sealed segments into one holding only live records.
+        /// Reads and writes continue while it runs.
+        /// </summary>
+        public void Compact()
+        {
+            if (Interlocked.CompareExchange(ref _compacting, 1, 0) != 0)
+                return;
+
+            try
+            {
+                CompactSealedSegments();
+            }
+            finally
+            {
+                Volatile.Write(ref _compacting, 0);
+            }
+        }
+
+        public void Dispose()
+        {
+            // Let a running background compaction finish before closing its
+            // files (it never throws; failures are recorded)
+            Task compaction;
+            lock (_lock)
+                compaction = _backgroundCompaction;
+            compaction.Wait();
+
+            lock (_lock)
+            {
+                if (_disposed)
+                    return;
+
+                _disposed = true;
+                _writer?.Dispose();
+                foreach (var segment in _segments)
+                    segment.CloseReader();
+            }
+        }
+
+        #region Log
+
+        private Location AppendLocked(byte[] record)
+        {
+            ThrowIfDisposed();
+
+            if (_active.Length > 0 && _active.Length + record.Length > _options.MaxSegmentSize)
+                RollLocked();
+
+            var location = new Location { Segment = _active, Offset = _active.Length, Length = record.Length };
+
+            _writer.Write(record, 0, record.Length);
+            _writer.Flush(_options.FlushToDisk);
+            _active.Length += record.Length;
+            return location;
+        }
+
+        private void RollLocked()
+        {
+            _writer.Dispose();
+            _active = CreateSegmentLocked(_active.Id + 1);
+        }
+
+        private Segment CreateSegmentLocked(int id)
+        {
+            var segment = new Segment(id, GetSegmentPath(id));
+            _writer = new FileStream(segment.Path, FileMode.Append, FileAccess.Write, FileShare.ReadWrite | FileShare.Delete);
+            segment.Length = _writer.Length;
+            _segments.Add(segment);
+            return segment;
+        }
+
+        private byte[] ReadPayloadLocked(Location location)
+        {
+            var reader = location.Segment.GetReader();
+            var record = new byte[location.Length];
+            reader.Position = location.Offset;
+            ReadExactly(reader, record, record.Length);
+
+            var payload = new byte[record.Length - HeaderSize];
+            Buffer.BlockCopy(record, HeaderSize, payload, 0, payload.Length);
+            return payload;
+        }
+
+        private void Recover()
+        {
+            var ids = System.IO.Directory.GetFiles(_options.Directory, SegmentPrefix + "*" + SegmentExtension)
+                .Select(path => int.TryParse(Path.GetFileNameWithoutExtension(path).Substring(SegmentPrefix.Length), out var id) ? id : -1)
+                .Where(id => id >= 0)
+                .OrderBy(id => id)
+                .ToList();
+
+            // A leftover temp file is an unfinished compaction; the segments it
+            // was built from are all still present
+            foreach (var temp in System.IO.Directory.GetFiles(_options.Directory, SegmentPrefix + "*.tmp"))
+                File.Delete(temp);
+
+            for (int i = 0; i < ids.Count; i++)
+            {
+                var segment = new Segment(ids[i], GetSegmentPath(ids[i]));
+                long validLength = ReplaySegment(segment);
+
+                using (var stream = new FileStream(segment.Path, FileMode.Open, FileAccess.ReadWrite, FileShare.Read))
+                {
+                    // Only the last segment can end in a torn write; cut it off so
+                    // new records follow the last complete one
+                    if (validLength < stream.Length && i == ids.Count - 1)
+                        stream.SetLength(validLength);
+
+                    segment.Length = Math.Min(validLength, stream.Length);
+                }
+
+                _segments.Add(segment);
+            }
+
+            if (_segments.Count > 0)
+            {
+                _active = _segments[_segments.Count - 1];
+                _writer = new FileStream(_active.Path, FileMode.Append, FileAccess.Write, FileShare.ReadWrite | FileShare.Delete);
+            }
+            else
+            {
+                _active = CreateSegmentLocked(1);
+            }
+        }
+
+        /// <summary>
+        /// Apply a segment's records to the index; returns the length of its valid prefix
+        /// </summary>
+        private long ReplaySegment(Segment segment)
+        {
+            using (var stream = new FileStream(segment.Path, FileMode.Open, FileAccess.Read, FileShare.ReadWrite))
+            {
+                long offset = 0;
+                var header = new byte[HeaderSize];
+
+                while (offset + HeaderSize <= stream.Length)
+                {
+                    stream.Position = offset;
+                    ReadExactly(stream, header, HeaderSize);
+
+                    int payloadLength = BitConverter.ToInt32(header, 0);
+                    uint checksum = BitConverter.ToUInt32(header, 4);
+
+                    if (payloadLength <= 0 || payloadLength > MaxRecordSize || offset + HeaderSize + payloadLength > stream.Length)
+                        break;
+
+                    var payload = new byte[payloadLength];
+                    ReadExactly(stream, payload, payloadLength);
+
+                    if (Checksum(payload) != checksum)
+                        break;
+
+                    // Keys and fingerprints only; statuses are read on demand
+                    DecodeRecord(payload, false, out byte type, out var key, out ulong fingerprint, out _);
+
+                    if (_index.TryGetValue(key, out var previous))
+                    {
+                        previous.Segment.LiveBytes -= previous.Length;
+                        _index.Remove(key);
+                    }
+
+                    int length = HeaderSize + payloadLength;
+                    if (type == PutRecord)
+                    {
+                        _index[key] = new Location
+                        {
+                            Segment = segment,
+                            Offset = offset,
+                            Length = length,
+                            Fingerprint = fingerprint
+                        };
+                        segment.LiveBytes += length;
+                    }
+
+                    offset += length;
+                }
+
+                if (offset < stream.Length)
+                    _corruptRecords++;
+
+                return offset;
+            }
+        }
+
+        #endregion
+
+        #region Compaction
+
+        private void MaybeCompact()
+        {
+            if (Volatile.Read(ref _compacting) != 0)
+                return;
+
+            lock (_lock)
+            {
+                // One background compaction at a time, so Dispose can wait for it
+                if (!_backgroundCompaction.IsCompleted)
+                    return;
+
+                long total = 0, live = 0;
+                foreach (var segment in _segments)
+                {
+                    if (segment == _active)
+                        continue;
+
+                    total += segment.Length;
+                    live += segment.LiveBytes;
+                }
+
+                // Wait for at least one full segment of garbage before compacting
+                if (total - live >= _options.MaxSegmentSize
+                    && total - live >= total * _options.CompactionThreshold)
+                    _backgroundCompaction = Task.Run(() => CompactInBackground());
+            }
+        }
+
+        private void CompactInBackground()
+        {
+            try
+            {
+                Compact();
+                Volatile.Write(ref _lastCompactionError, null);
+            }
+            catch (Exception ex)
+            {
+                // Nothing awaits this task: record and trace the failure instead of
+                // leaving it unobserved. The old segments are still intact.
+                Volatile.Write(ref _lastCompactionError, ex);
+                System.Diagnostics.Trace.TraceError($"[StatusSnapshotStore] Compaction failed: {ex.Message}");
+            }
+        }
+
+        private void CompactSealedSegments()
+        {
+            List<Segment> sealedSegments;
+            List<KeyValuePair<SnapshotKey, Location>> live;
+            int compactedId;
+
+            lock (_lock)
+            {
+                if (_disposed)
+                    return;
+
+                // Seal the active segment and leave an id free between the sealed
+                // segments and the new active one: recovery replays in id order, so
+                // the compacted file then outranks what it replaces and is outranked
+                // by anything written during compaction
+                compactedId = _active.Id + 1;
+                _writer.Dispose();
+                _active = CreateSegmentLocked(_active.Id + 2);
+
+                sealedSegments = _segments.Where(s => s != _active).ToList();
+                if (sealedSegments.Count == 0)
+                    return;
+
+                live = _index.Where(e => e.Value.Segment != _active).ToList();
+            }
+
+            var compacted = new Segment(compactedId, GetSegmentPath(compactedId));
+            var tempPath = compacted.Path + ".tmp";
+            var moved = new List<KeyValuePair<SnapshotKey, Location>>(live.Count);
+
+            using (var output = new FileStream(tempPath, FileMode.Create, FileAccess.Write, FileShare.None))
+            {
+                foreach (var entry in live.OrderBy(e => e.Value.Segment.Id).ThenBy(e => e.Value.Offset))
+                {
+                    byte[] payload;
+                    lock (_lock)
+                    {
+                        if (_disposed)
+                            return;
+
+                        // Overwritten or deleted since the snapshot; the newer record wins
+                        if (!_index.TryGetValue(entry.Key, out var current) || current.Segment != entry.Value.Segment || current.Offset != entry.Value.Offset)
+                            continue;
+
+                        payload = ReadPayloadLocked(current);
+                    }
+
+                    var header = CreateHeader(payload);
+                    moved.Add(new KeyValuePair<SnapshotKey, Location>(entry.Key, new Location
+                    {
+                        Segment = compacted,
+                        Offset = output.Position,
+                        Length = HeaderSize + payload.Length,
+                        Fingerprint = entry.Value.Fingerprint
+                    }));
+
+                    output.Write(header, 0, header.Length);
+                    output.Write(payload, 0, payload.Length);
+                }
+
+                output.Flush(true);
+                compacted.Length = output.Length;
+            }
+
+            lock (_lock)
+            {
+                if (_disposed)
+                    return;
+
+                File.Move(tempPath, compacted.Path);
+
+                foreach (var entry in moved)
+                {
+                    // Written again during compaction: keep the newer record
+                    if (!_index.TryGetValue(entry.Key, out var current) || current.Segment.Id > compactedId)
+                        continue;
+
+                    _index[entry.Key] = entry.Value;
+                    compacted.LiveBytes += entry.Value.Length;
+                }
+
+                _segments.Add(compacted);
+                _segments.Sort((a, b) => a.Id.CompareTo(b.Id));
+
+                // Oldest first, so a crash part way never leaves a tombstone
+                // deleted while the record it hides survives
+                foreach (var segment in sealedSegments.OrderBy(s => s.Id))
+                {
+                    segment.CloseReader();
+                    File.Delete(segment.Path);
+                    _segments.Remove(segment);
+                }
+
+                _compactions++;
+            }
+        }
+
+        #endregion
+
+        #region Encoding
+
+        // Record: [payload length:int32][checksum:uint32][payload]
+        // Payload: [type:byte][dept][service][app] and for puts
+        //          [fingerprint:uint64][retrieved at:int64][json]
+        private static byte[] EncodeRecord(byte type, SnapshotKey key, ulong fingerprint, ApplicationStatusResponse response)
+        {
+            byte[] payload;
+            using (var stream = new MemoryStream())
+            {
+                using (var writer = new BinaryWriter(stream, Encoding.UTF8, leaveOpen: true))
+                {
+                    writer.Write(type);
+                    writer.Write(key.DeptName);
+                    writer.Write(key.ServiceID);
+                    writer.Write(key.AppID);
+
+                    if (type == PutRecord)
+                    {
+                        writer.Write(fingerprint);
+                        writer.Write(response.RetrievedAt.ToBinary());
+                        writer.Write(JsonConvert.SerializeObject(response));
+                    }
+                }
+
+                payload = stream.ToArray();
+            }
+
+            if (payload.Length > MaxRecordSize)
+                throw new TrackApplicationException($"Status for {key} is too large to store ({payload.Length} bytes)");
+
+            var header = CreateHeader(payload);
+            var record = new byte[header.Length + payload.Length];
+            Buffer.BlockCopy(header, 0, record, 0, header.Length);
+            Buffer.BlockCopy(payload, 0, record, header.Length, payload.Length);
+            return record;
+        }
+
+        private static void DecodeRecord(byte[] payload, bool readResponse, out byte type, out SnapshotKey key,
+            out ulong fingerprint, out ApplicationStatusResponse response)
+        {
+            using (var reader = new BinaryReader(new MemoryStream(payload), Encoding.UTF8))
+            {
+                type = reader.ReadByte();
+                key = new SnapshotKey(reader.ReadString(), reader.ReadString(), reader.ReadString());
+                fingerprint = type == PutRecord ? reader.ReadUInt64() : 0;
+                response = null;
+
+                if (type == PutRecord && readResponse)
+                {
+                    var retrievedAt = DateTime.FromBinary(reader.ReadInt64());
+                    response = JsonConvert.DeserializeObject<ApplicationStatusResponse>(reader.ReadString());
+                    response.RetrievedAt = retrievedAt;
+                }
+            }
+        }
+
+        private static byte[] CreateHeader(byte[] payload)
+        {
+            var header = new byte[HeaderSize];
+            BitConverter.GetBytes(payload.Length).CopyTo(header, 0);
+            BitConverter.GetBytes(Checksum(payload)).CopyTo(header, 4);
+            return header;
+        }
+
+        private static uint Checksum(byte[] payload)
+        {
+            var hash = new XxHash64();
+            hash.Append(payload, 0, payload.Length);
+            return (uint)hash.GetDigest();
+        }
+
+        private static void ReadExactly(Stream stream, byte[] buffer, int count)
+        {
+            int read = 0;
+            while (read < count)
+            {
+                int n = stream.Read(buffer, read, count - read);
+                if (n == 0)
+                    throw new EndOfStreamException();
+                read += n;
+            }
+        }
+
+        #endregion
+
+        private string GetSegmentPath(int id)
+        {
+            return Path.Combine(_options.Directory, $"{SegmentPrefix}{id:D6}{SegmentExtension}");
+        }
+
+        private void ThrowIfDisposed()
+        {
+            if (_disposed)
+                throw new ObjectDisposedException(nameof(StatusSnapshotStore));
+        }
+
+        private sealed class Location
+        {
+            public Segment Segment;
+            public long Offset;
+            public int Length;
+            public ulong Fingerprint;
+        }
+
+        private sealed class Segment
+        {
+            private FileStream _reader;
+
+            public Segment(int id, string path)
+            {
+                Id = id;
+                Path = path;
+            }
+
+            public int Id { get; }
+            public string Path { get; }
+            public long Length { get; set; }
+            public long LiveBytes { get; set; }
+
+            public FileStream GetReader()
+            {
+                return _reader ?? (_reader = new FileStream(Path, FileMode.Open, FileAccess.Read, FileShare.ReadWrite | FileShare.Delete));
+            }
+
+            public void CloseReader()
+            {
+                _reader?.Dispose();
+                _reader = null;
+            }
+        }
+    }
+
+    #endregion
+
+    #region Snapshot Indexes
+
+    /// <summary>
+    /// Filter for StatusSnapshotIndex; null properties match everything
+    /// </summary>
+    public class StatusQuery
+    {
+        public string DeptName { get; set; }
+        public string ServiceID { get; set; }
+        public int? CurrentDeskNumber { get; set; }
+
+        /// <summary>
+        /// Match this final decision; use FinalDecisionMade = false for
+        /// applications with an empty FinalDecision (note that Pending, "2",
+        /// counts as a decision made)
+        /// </summary>
+        public FinalDecisionStatus? FinalDecisionStatus { get; set; }
+        public bool? FinalDecisionMade { get; set; }
+
+        /// <summary>
+        /// True: only approved or rejected applications. False: only those still
+        /// in progress (Pending or no decision yet).
+        /// </summary>
+        public bool? IsClosed { get; set; }
+
+        public bool? IsActionRequired { get; set; }
+        public bool? IsPaid { get; set; }
+
+        /// <summary>
+        /// Only applications not approved or rejected whose estimated disbursal
+        /// date (submission date + EstimatedDisbursalDays) is before this time
+        /// </summary>
+        public DateTime? OverdueAt { get; set; }
+    }
+
+    /// <summary>
+    /// One indexed application with the fields the indexes are built on
+    /// </summary>
+    public sealed class IndexedStatus
+    {
+        internal IndexedStatus(SnapshotKey key, ApplicationStatusResponse response)
+        {
+            Key = key;
+            CurrentDeskNumber = response.CurrentDeskNumber;
+            FinalDecisionStatus = response.FinalDecisionStatus;
+            FinalDecisionMade = response.IsFinalDecisionMade;
+            IsActionRequired = response.IsActionRequired;
+            IsPaid = response.IsPaid;
+            RetrievedAt = response.RetrievedAt;
+
+            var submitted = StatusHelper.ParseDate(response.ApplicationSubmissionDate);
+            if (submitted.HasValue && response.EstimatedDisbursalDays > 0 && !IsClosed)
+                DueDate = submitted.Value.AddDays(response.EstimatedDisbursalDays);
+        }
+
+        public SnapshotKey Key { get; }
+        public int CurrentDeskNumber { get; }
+        public FinalDecisionStatus? FinalDecisionStatus { get; }
+        public bool FinalDecisionMade { get; }
+        public bool IsActionRequired { get; }
+        public bool IsPaid { get; }
+        public DateTime RetrievedAt { get; }
+
+        /// <summary>
+        /// Estimated disbursal date (department local time); null if unknown
+        /// or the application is approved or rejected
+        /// </summary>
+        public DateTime? DueDate { get; }
+
+        /// <summary>
+        /// Approved or rejected
+        /// </summary>
+        public bool IsClosed =>
+            FinalDecisionStatus == TrackApplicationAPI.FinalDecisionStatus.Approved
+            || FinalDecisionStatus == TrackApplicationAPI.FinalDecisionStatus.Rejected;
+
+        internal bool Matches(StatusQuery query)
+        {
+            return (query.DeptName == null || string.Equals(Key.DeptName, query.DeptName, StringComparison.OrdinalIgnoreCase))
+                && (query.ServiceID == null || Key.ServiceID == query.ServiceID)
+                && (!query.CurrentDeskNumber.HasValue || CurrentDeskNumber == query.CurrentDeskNumber.Value)
+                && (!query.FinalDecisionStatus.HasValue || FinalDecisionStatus == query.FinalDecisionStatus)
+                && (!query.FinalDecisionMade.HasValue || FinalDecisionMade == query.FinalDecisionMade.Value)
+                && (!query.IsClosed.HasValue || IsClosed == query.IsClosed.Value)
+                && (!query.IsActionRequired.HasValue || IsActionRequired == query.IsActionRequired.Value)
+                && (!query.IsPaid.HasValue || IsPaid == query.IsPaid.Value)
+                && (!query.OverdueAt.HasValue || (DueDate.HasValue && DueDate.Value < query.OverdueAt.Value));
+        }
+    }
+
+    /// <summary>
+    /// In-memory secondary indexes over stored statuses, for questions such as
+    /// "which applications for service 4111 are at desk 2", "which need citizen
+    /// action" or "which are overdue". Kept up to date as statuses are stored.
+    /// Queries start from the smallest matching index and filter the rest.
+    /// </summary>
+    public sealed class StatusSnapshotIndex : IDisposable
+    {
+        private readonly object _lock = new object();
+        private readonly StatusSnapshotStore _store;
+        private readonly Dictionary<SnapshotKey, IndexedStatus> _all = new Dictionary<SnapshotKey, IndexedStatus>();
+        private readonly Dictionary<string, HashSet<SnapshotKey>> _byService = new Dictionary<string, HashSet<SnapshotKey>>(StringComparer.Ordinal);
+        private readonly Dictionary<DeskKey, HashSet<SnapshotKey>> _byDesk = new Dictionary<DeskKey, HashSet<SnapshotKey>>();
+        private readonly Dictionary<int, HashSet<SnapshotKey>> _byDecision = new Dictionary<int, HashSet<SnapshotKey>>();
+        private readonly HashSet<SnapshotKey> _actionRequired = new HashSet<SnapshotKey>();
+        private readonly HashSet<SnapshotKey> _unpaid = new HashSet<SnapshotKey>();
+        private readonly SortedSet<IndexedStatus> _byDueDate = new SortedSet<IndexedStatus>(DueDateComparer.Instance);
+
+        /// <summary>
+        /// Empty index; feed it with Update and Remove
+        /// </summary>
+        public StatusSnapshotIndex()
+        {
+        }
+
+        /// <summary>
+        /// Index everything in a store and follow its changes
+        /// </summary>
+        public StatusSnapshotIndex(StatusSnapshotStore store)
+        {
+            _store = store ?? throw new ArgumentNullException(nameof(store));
+
+            // Subscribe first so nothing written during the initial load is missed;
+            // a status loaded after its newer change event is caught by the
+            // RetrievedAt check in Update
+            _store.Changed += OnStoreChanged;
+
+            foreach (var entry in store.GetAll())
+                Update(entry.Key, entry.Value, onlyIfNewer: true);
+        }
+
+        public int Count
+        {
+            get { lock (_lock) return _all.Count; }
+        }
+
+        /// <summary>
+        /// Add or replace the indexed status for a key
+        /// </summary>
+        public void Update(SnapshotKey key, ApplicationStatusResponse response)
+        {
+            if (response == null)
+                throw new ArgumentNullException(nameof(response));
+
+            Update(key, response, onlyIfNewer: false);
+        }
+
+        /// <summary>
+        /// Remove a key from all indexes
+        /// </summary>
+        public bool Remove(SnapshotKey key)
+        {
+            lock (_lock)
+            {
+                if (!_all.TryGetValue(key, out var existing))
+                    return false;
+
+                RemoveLocked(existing);
+                return true;
+            }
+        }
+
+        /// <summary>
+        /// Applications matching a filter
+        /// </summary>
+        /// <param name="maxResults">Stop after this many (0 = all)</param>
+        public IReadOnlyList<IndexedStatus> Query(StatusQuery query, int maxResults = 0)
+        {
+            if (query == null)
+                throw new ArgumentNullException(nameof(query));
+
+            var results = new List<IndexedStatus>();
+
+            lock (_lock)
+            {
+                foreach (var key in GetCandidatesLocked(query))
+                {
+                    var status = _all[key];
+                    if (!status.Matches(query))
+                        continue;
+
+                    results.Add(status);
+                    if (maxResults > 0 && results.Count >= maxResults)
+                        break;
+                }
+            }
+
+            return results;
+        }
+
+        /// <summary>
+        /// Number of applications matching a filter. A filter on a single indexed
+        /// field is answered from the index size without scanning.
+        /// </summary>
+        public int CountMatching(StatusQuery query)
+        {
+            if (query == null)
+                throw new ArgumentNullException(nameof(query));
+
+            lock (_lock)
+            {
+                var candidates = GetCandidatesLocked(query);
+                if (IsExact(query) && candidates is ICollection<SnapshotKey> exact)
+                    return exact.Count;
+
+                int count = 0;
+                foreach (var key in candidates)
+                {
+                    if (_all[key].Matches(query))
+                        count++;
+                }
+                return count;
+            }
+        }
+
+        /// <summary>
+        /// Open applications past their estimated disbursal date, most overdue first
+        /// </summary>
+        /// <param name="now">Current department local time</param>
+        public IReadOnlyList<IndexedStatus> GetOverdue(DateTime now, int maxResults = 100, string serviceId = null)
+        {
+            var results = new List<IndexedStatus>();
+
+            lock (_lock)
+            {
+                foreach (var status in _byDueDate)
+                {
+                    if (status.DueDate.Value >= now || (maxResults > 0 && results.Count >= maxResults))
+                        break;
+
+                    if (serviceId == null || status.Key.ServiceID == serviceId)
+                        results.Add(status);
+                }
+            }
+
+            return results;
+        }
+
+        public void Dispose()
+        {
+            if (_store != null)
+                _store.Changed -= OnStoreChanged;
+        }
+
+        private void OnStoreChanged(object sender, SnapshotChangedEventArgs e)
+        {
+            if (e.Response == null)
+                Remove(e.Key);
+            else
+                Update(e.Key, e.Response, onlyIfNewer: false);
+        }
+
+        private void Update(SnapshotKey key, ApplicationStatusResponse response, bool onlyIfNewer)
+        {
+            var status = new IndexedStatus(key, response);
+
+            lock (_lock)
+            {
+                if (_all.TryGetValue(key, out var existing))
+                {
+                    if (onlyIfNewer && existing.RetrievedAt > status.RetrievedAt)
+                        return;
+
+                    RemoveLocked(existing);
+                }
+
+                _all[key] = status;
+                AddTo(_byService, key.ServiceID, key);
+                AddTo(_byDesk, new DeskKey(key.ServiceID, status.CurrentDeskNumber), key);
+                AddTo(_byDecision, DecisionKey(status.FinalDecisionStatus, status.FinalDecisionMade), key);
+
+                if (status.IsActionRequired)
+                    _actionRequired.Add(key);
+                if (!status.IsPaid)
+                    _unpaid.Add(key);
+                if (status.DueDate.HasValue)
+                    _byDueDate.Add(status);
+            }
+        }
+
+        private void RemoveLocked(IndexedStatus status)
+        {
+            var key = status.Key;
+            _all.Remove(key);
+            RemoveFrom(_byService, key.ServiceID, key);
+            RemoveFrom(_byDesk, new DeskKey(key.ServiceID, status.CurrentDeskNumber), key);
+            RemoveFrom(_byDecision, DecisionKey(status.FinalDecisionStatus, status.FinalDecisionMade), key);
+            _actionRequired.Remove(key);
+            _unpaid.Remove(key);
+            if (status.DueDate.HasValue)
+                _byDueDate.Remove(status);
+        }
+
+        /// <summary>
+        /// Smallest key set that contains every match
+        /// </summary>
+        private IEnumerable<SnapshotKey> GetCandidatesLocked(StatusQuery query)
+        {
+            IEnumerable<SnapshotKey> best = _all.Keys;
+            int bestCount = _all.Count;
+
+            void Consider(ICollection<SnapshotKey> set)
+            {
+                if (set.Count < bestCount)
+                {
+                    best = set;
+                    bestCount = set.Count;
+                }
+            }
+
+            if (query.ServiceID != null)
+            {
+                if (query.CurrentDeskNumber.HasValue)
+                    Consider(Get(_byDesk, new DeskKey(query.ServiceID, query.CurrentDeskNumber.Value)));
+                else
+                    Consider(Get(_byService, query.ServiceID));
+            }
+
+            if (query.FinalDecisionStatus.HasValue || query.FinalDecisionMade == false)
+                Consider(Get(_byDecision, DecisionKey(query.FinalDecisionStatus, query.FinalDecisionMade ?? true)));
+
+            if (query.IsActionRequired == true)
+                Consider(_actionRequired);
+
+            if (query.IsPaid == false)
+                Consider(_unpaid);
+
+            if (query.OverdueAt.HasValue && _byDueDate.Count < bestCount)
+            {
+                var overdue = new List<SnapshotKey>();
+                foreach (var status in _byDueDate)
+                {
+                    if (status.DueDate.Value >= query.OverdueAt.Value)
+                        break;
+                    overdue.Add(status.Key);
+                }
+                Consider(overdue);
+            }
+
+            return best;
+        }
+
+        /// <summary>
+        /// True when the query is answered by one index (or none), so the
+        /// candidate set is exactly the result
+        /// </summary>
+        private static bool IsExact(StatusQuery query)
+        {
+            if (query.DeptName != null || query.OverdueAt.HasValue || query.IsClosed.HasValue
+                || query.IsActionRequired == false || query.IsPaid == true
+                || (query.CurrentDeskNumber.HasValue && query.ServiceID == null)
+                || (query.FinalDecisionMade.HasValue && query.FinalDecisionMade.Value == !query.FinalDecisionStatus.HasValue))
+                return false;
+
+            bool decision = query.FinalDecisionStatus.HasValue || query.FinalDecisionMade == false;
+            int indexed = (query.ServiceID != null ? 1 : 0) + (decision ? 1 : 0)
+                + (query.IsActionRequired == true ? 1 : 0) + (query.IsPaid == false ? 1 : 0);
+            return indexed <= 1;
+        }
+
+        // Undecided (empty FinalDecision) is its own bucket
+        private static int DecisionKey(FinalDecisionStatus? decision, bool decisionMade)
+        {
+            return decision.HasValue ? (int)decision.Value : decisionMade ? -2 : -1;
+        }
+
+        private static ICollection<SnapshotKey> Get<TKey>(Dictionary<TKey, HashSet<SnapshotKey>> index, TKey key)
+        {
+            return index.TryGetValue(key, out var set) ? (ICollection<SnapshotKey>)set : new SnapshotKey[0];
+        }
+
+        private static void AddTo<TKey>(Dictionary<TKey, HashSet<SnapshotKey>> index, TKey key, SnapshotKey value)
+        {
+            if (!index.TryGetValue(key, out var set))
+                index[key] = set = new HashSet<SnapshotKey>();
+            set.Add(value);
+        }
+
+        private static void RemoveFrom<TKey>(Dictionary<TKey, HashSet<SnapshotKey>> index, TKey key, SnapshotKey value)
+        {
+            if (index.TryGetValue(key, out var set) && set.Remove(value) && set.Count == 0)
+                index.Remove(key);
+        }
+
+        private struct DeskKey : IEquatable<DeskKey>
+        {
+            private readonly string _serviceId;
+            private readonly int _deskNumber;
+
+            public DeskKey(string serviceId, int deskNumber)
+            {
+                _serviceId = serviceId;
+                _deskNumber = deskNumber;
+            }
+
+            public bool Equals(DeskKey other)
+            {
+                return _deskNumber == other._deskNumber && string.Equals(_serviceId, other._serviceId, StringComparison.Ordinal);
+            }
+
+            public override bool Equals(object obj)
+            {
+                return obj is DeskKey other && Equals(other);
+            }
+
+            public override int GetHashCode()
+            {
+                return (_serviceId ?? string.Empty).GetHashCode() * 31 + _deskNumber;
+            }
+        }
+
+        private sealed class DueDateComparer : IComparer<IndexedStatus>
+        {
+            public static readonly DueDateComparer Instance = new DueDateComparer();
+
+            public int Compare(IndexedStatus x, IndexedStatus y)
+            {
+                int result = x.DueDate.Value.CompareTo(y.DueDate.Value);
+                if (result != 0)
+                    return result;
+
+                // Ties broken by key so distinct applications never compare equal
+                result = string.Compare(x.Key.AppID, y.Key.AppID, StringComparison.OrdinalIgnoreCase);
+                if (result == 0)
+                    result = string.Compare(x.Key.ServiceID, y.Key.ServiceID, StringComparison.Ordinal);
+                if (result == 0)
+                    result = string.Compare(x.Key.DeptName, y.Key.DeptName, StringComparison.OrdinalIgnoreCase);
+                return result;
+            }
+        }
+    }
+
+    #endregion
+
+    #region Department Registry
+
+    /// <summary>
+    /// Holds one client per department for callers (such as Aaple Sarkar) that
+    /// talk to many department APIs from one process. Each department gets its
+    /// own bulkhead so a slow department cannot use up the callers' threads and
+    /// sockets for the others. The department table can be reloaded at any time;
+    /// in-flight requests finish on the client they started with.
+    /// </summary>
+    public class DepartmentClientRegistry : IDisposable
+    {
+        private readonly object _reloadLock = new object();
+        private volatile Dictionary<string, DepartmentEntry> _departments =
+            new Dictionary<string, DepartmentEntry>(StringComparer.OrdinalIgnoreCase);
+        private bool _disposed;
+
+        /// <summary>
+        /// Create a registry with the given department configurations
+        /// </summary>
+        public DepartmentClientRegistry(IEnumerable<ClientConfiguration> departments)
+        {
+            Reload(departments);
+        }
+
+        /// <summary>
+        /// Names of the currently registered departments
+        /// </summary>
+        public IReadOnlyCollection<string> DepartmentNames => _departments.Keys.ToList();
+
+        /// <summary>
+        /// Raised after the department table has been reloaded
+        /// </summary>
+        public event EventHandler Reloaded;
+
+        /// <summary>
+        /// Get application status from the given department, subject to that
+        /// department's concurrency limit
+        /// </summary>
+        /// <exception cref="BulkheadRejectedException">
+        /// The department already has MaxConcurrentRequests calls in flight and
+        /// no slot became free within BulkheadWaitTimeout
+        /// </exception>
+        public Task<ApplicationStatusResponse> GetApplicationStatusAsync(
+            string departmentName,
+            string applicationId,
+            string serviceId,
+            Language language = Language.English,
+            CancellationToken cancellationToken = default)
+        {
+            return ExecuteAsync(
+                departmentName,
+                client => client.GetApplicationStatusAsync(applicationId, serviceId, language, cancellationToken),
+                cancellationToken);
+        }
+
+#if NETCOREAPP3_0_OR_GREATER
+        /// <summary>
+        /// Get the status of many applications across departments in parallel,
+        /// routing each request by its DeptName. Results are streamed in
+        /// completion order; failures are reported in the result.
+        /// </summary>
+        public IAsyncEnumerable<BatchResult> GetApplicationStatusesAsync(
+            IEnumerable<ApplicationStatusRequest> requests,
+            BatchOptions options = null,
+            CancellationToken cancellationToken = default)
+        {
+            if (requests == null)
+                throw new ArgumentNullException(nameof(requests));
+
+            return GetApplicationStatusesAsync(BatchRunner.ToAsyncEnumerable(requests), options, cancellationToken);
+        }
+
+        /// <summary>
+        /// Get the status of a stream of applications across departments in
+        /// parallel; see the IEnumerable overload
+        /// </summary>
+        public IAsyncEnumerable<BatchResult> GetApplicationStatusesAsync(
+            IAsyncEnumerable<ApplicationStatusRequest> requests,
+            BatchOptions options = null,
+            CancellationToken cancellationToken = default)
+        {
+            if (requests == null)
+                throw new ArgumentNullException(nameof(requests));
+
+            return BatchRunner.RunAsync(
+                requests,
+                (request, token) => ExecuteAsync(
+                    request.DeptName,
+                    client => client.GetApplicationStatusAsync(request, token),
+                    token),
+                options ?? new BatchOptions(),
+                perDepartment: true,
+                cancellationToken);
+        }
+#endif
+
+        /// <summary>
+        /// Run an operation against the given department's client inside its bulkhead
+        /// </summary>
+        public async Task<T> ExecuteAsync<T>(
+            string departmentName,
+            Func<TrackApplicationClient, Task<T>> operation,
+            CancellationToken cancellationToken = default)
+        {
+            if (operation == null)
+                throw new ArgumentNullException(nameof(operation));
+
+            var entry = Acquire(departmentName);
+            try
+            {
+                if (!await entry.Bulkhead.WaitAsync(entry.Config.BulkheadWaitTimeout, cancellationToken))
+                {
+                    Interlocked.Increment(ref entry.RejectedCount);
+                    throw new BulkheadRejectedException(
+                        $"Department '{entry.Config.DepartmentName}' has reached its limit of " +
+                        $"{entry.Config.MaxConcurrentRequests} concurrent requests",
+                        entry.Config.DepartmentName);
+                }
+
+                try
+                {
+                    return await operation(entry.Client);
+                }
+                finally
+                {
+                    entry.Bulkhead.Release();
+                }
+            }
+            finally
+            {
+                entry.ReleaseReference();
+            }
+        }
+
+        /// <summary>
+        /// Replace the department table. Departments whose configuration is
+        /// unchanged keep their client and bulkhead; replaced or removed
+        /// departments are disposed once their in-flight requests complete.
+        /// </summary>
+        public void Reload(IEnumerable<ClientConfiguration> departments)
+        {
+            if (departments == null)
+                throw new ArgumentNullException(nameof(departments));
+
+            lock (_reloadLock)
+            {
+                if (_disposed)
+                    throw new ObjectDisposedException(nameof(DepartmentClientRegistry));
+
+                var current = _departments;
+                var next = new Dictionary<string, DepartmentEntry>(StringComparer.OrdinalIgnoreCase);
+
+                try
+                {
+                    foreach (var config in departments)
+                    {
+                        if (config == null || string.IsNullOrEmpty(config.DepartmentName))
+                            throw new ArgumentException("Every department configuration needs a DepartmentName", nameof(departments));
+
+                        if (next.ContainsKey(config.DepartmentName))
+                            throw new ArgumentException($"Duplicate department: {config.DepartmentName}", nameof(departments));
+
+                        next[config.DepartmentName] =
+                            current.TryGetValue(config.DepartmentName, out var existing) && existing.Matches(config)
+                                ? existing
+                                : new DepartmentEntry(config);
+                    }
+                }
+                catch
+                {
+                    // Keep the current table; drop clients created for the rejected one
+                    foreach (var entry in next.Values)
+                    {
+                        if (!current.Values.Contains(entry))
+                            entry.Retire();
+                    }
+                    throw;
+                }
+
+                _departments = next;
+
+                foreach (var entry in current.Values)
+                {
+                    if (!next.TryGetValue(entry.Config.DepartmentName, out var kept) || kept != entry)
+                        entry.Retire();
+                }
+            }
+
+            Reloaded?.Invoke(this, EventArgs.Empty);
+        }
+
+        /// <summary>
+        /// Remove cached responses for an application from the department's client
+        /// </summary>
+        /// <returns>Number of cached responses removed</returns>
+        public int InvalidateApplication(string departmentName, string applicationId)
+        {
+            var entry = Acquire(departmentName);
+            try
+            {
+                return entry.Client.InvalidateApplication(applicationId);
+            }
+            finally
+            {
+                entry.ReleaseReference();
+            }
+        }
+
+        /// <summary>
+        /// Current concurrency figures for every registered department
+        /// </summary>
+        public IReadOnlyList<DepartmentClientStatistics> GetStatistics()
+        {
+            return _departments.Values
+                .Select(entry => new DepartmentClientStatistics
+                {
+                    DepartmentName = entry.Config.DepartmentName,
+                    MaxConcurrentRequests = entry.Config.MaxConcurrentRequests,
+                    InFlightRequests = entry.Config.MaxConcurrentRequests - entry.Bulkhead.CurrentCount,
+                    RejectedRequests = Interlocked.Read(ref entry.RejectedCount)
+                })
+                .ToList();
+        }
+
+        private DepartmentEntry Acquire(string departmentName)
+        {
+            if (string.IsNullOrEmpty(departmentName))
+                throw new ArgumentException("Department name is required", nameof(departmentName));
+
+            while (true)
+            {
+                if (!_departments.TryGetValue(departmentName, out var entry))
+                {
+                    if (_disposed)
+                        throw new ObjectDisposedException(nameof(DepartmentClientRegistry));
+
+                    throw new TrackApplicationException($"Department '{departmentName}' is not registered");
+                }
+
+                // A reload may have retired the entry between lookup and acquire;
+                // look it up again so the request runs on the current client
+                if (entry.TryAddReference())
+                    return entry;
+            }
+        }
+
+        public void Dispose()
+        {
+            lock (_reloadLock)
+            {
+                if (_disposed)
+                    return;
+
+                _disposed = true;
+
+                var current = _departments;
+                _departments = new Dictionary<string, DepartmentEntry>(StringComparer.OrdinalIgnoreCase);
+
+                foreach (var entry in current.Values)
+                    entry.Retire();
+            }
+        }
+
+        private sealed class DepartmentEntry
+        {
+            public readonly ClientConfiguration Config;
+            public readonly TrackApplicationClient Client;
+            public readonly SemaphoreSlim Bulkhead;
+            public long RejectedCount;
+
+            private int _references;
+            private int _retired;
+            private int _disposed;
+
+            public DepartmentEntry(ClientConfiguration config)
+            {
+                if (config.MaxConcurrentRequests <= 0)
+                    throw new ArgumentException("MaxConcurrentRequests must be positive", nameof(config));
+
+                // Snapshot the settings so later edits to the caller's object
+                // are only picked up through Reload
+                Config = config.Clone();
+                Client = new TrackApplicationClient(Config);
+                Bulkhead = new SemaphoreSlim(Config.MaxConcurrentRequests, Config.MaxConcurrentRequests);
+            }
+
+            public bool Matches(ClientConfiguration config)
+            {
+                return Config.SettingsEqual(config);
+            }
+
+            public bool TryAddReference()
+            {
+                Interlocked.Increment(ref _references);
+
+                if (Volatile.Read(ref _retired) == 0)
+                    return true;
+
+                ReleaseReference();
+                return false;
+            }
+
+            public void ReleaseReference()
+            {
+                if (Interlocked.Decrement(ref _references) == 0 && Volatile.Read(ref _retired) != 0)
+                    DisposeClient();
+            }
+
+            public void Retire()
+            {
+                Interlocked.Exchange(ref _retired, 1);
+
+                if (Volatile.Read(ref _references) == 0)
+                    DisposeClient();
+            }
+
+            private void DisposeClient()
+            {
+                if (Interlocked.Exchange(ref _disposed, 1) == 0)
+                    Client.Dispose();
             }
         }
+    }
+
+    /// <summary>
+    /// Point-in-time concurrency figures for one department
+    /// </summary>
+    public class DepartmentClientStatistics
+    {
+        public string DepartmentName { get; set; }
+        public int MaxConcurrentRequests { get; set; }
+        public int InFlightRequests { get; set; }
+        public long RejectedRequests { get; set; }
+    }
+
+    #endregion
+
+    #region Configuration
+
+    /// <summary>
+    /// Configuration for Track Application API client
+    /// </summary>
+    public class ClientConfiguration
+    {
+        /// <summary>
+        /// API base URL (required)
+        /// </summary>
+        public string ApiBaseUrl { get; set; }
+
+        /// <summary>
+        /// API endpoint path (default: /api/SampleAPI/sendappstatus_encrypted)
+        /// </summary>
+        public string ApiEndpoint { get; set; } = "/api/SampleAPI/sendappstatus_encrypted";
+
+        /// <summary>
+        /// TripleDES encryption key (required)
+        /// </summary>
+        public string EncryptionKey { get; set; }
+
+        /// <summary>
+        /// TripleDES encryption IV (required)
+        /// </summary>
+        public string EncryptionIV { get; set; }
+
+        /// <summary>
+        /// Department name (required)
+        /// </summary>
+        public string DepartmentName { get; set; }
+
+        /// <summary>
+        /// Request timeout (default: 30 seconds)
+        /// </summary>
+        public TimeSpan Timeout { get; set; } = TimeSpan.FromSeconds(30);
+
+        /// <summary>
+        /// Maximum concurrent connections per department server (default: 20)
+        /// </summary>
+        public int MaxConnectionsPerServer { get; set; } = 20;
+
+        /// <summary>
+        /// How long a pooled connection may be reused before it is replaced,
+        /// so DNS changes are picked up (default: 5 minutes)
+        /// </summary>
+        public TimeSpan PooledConnectionLifetime { get; set; } = TimeSpan.FromMinutes(5);
+
+        /// <summary>
+        /// How long an idle pooled connection is kept open (default: 1 minute)
+        /// </summary>
+        public TimeSpan PooledConnectionIdleTimeout { get; set; } = TimeSpan.FromMinutes(1);
+
+        /// <summary>
+        /// Use HTTP/2 (multiplexed) when the department server supports it,
+        /// falling back to HTTP/1.1 otherwise (default: true, .NET 5+)
+        /// </summary>
+        public bool EnableHttp2 { get; set; } = true;
+
+        /// <summary>
+        /// Open additional HTTP/2 connections to a department server once one
+        /// connection's stream limit is reached (default: false, .NET 5+)
+        /// </summary>
+        public bool EnableMultipleHttp2Connections { get; set; } = false;
+
+        /// <summary>
+        /// Interval of HTTP/2 keep-alive pings while requests are in flight
+        /// (default: 30 seconds; Timeout.InfiniteTimeSpan disables, .NET 5+)
+        /// </summary>
+        public TimeSpan KeepAlivePingDelay { get; set; } = TimeSpan.FromSeconds(30);
+
+        /// <summary>
+        /// Time to wait for a keep-alive ping response before the connection
+        /// is closed (default: 10 seconds, .NET 5+)
+        /// </summary>
+        public TimeSpan KeepAlivePingTimeout { get; set; } = TimeSpan.FromSeconds(10);
+
+        /// <summary>
+        /// Maximum concurrent requests to this department when the client is
+        /// used through DepartmentClientRegistry (default: 20)
+        /// </summary>
+        public int MaxConcurrentRequests { get; set; } = 20;
+
+        /// <summary>
+        /// How long a request waits for a free slot in the department's
+        /// bulkhead before it is rejected (default: 5 seconds)
+        /// </summary>
+        public TimeSpan BulkheadWaitTimeout { get; set; } = TimeSpan.FromSeconds(5);
+
+        /// <summary>
+        /// Share one in-flight request between concurrent identical lookups
+        /// (same AppID, ServiceID, DeptName and Language). Callers then receive
+        /// the same response instance and should not modify it (default: true)
+        /// </summary>
+        public bool EnableRequestCoalescing { get; set; } = true;
+
+        /// <summary>
+        /// Cache responses in memory, with freshness based on the application's
+        /// status. Every cache hit returns a separate copy, so callers may modify
+        /// it (default: false)
+        /// </summary>
+        public bool EnableResponseCache { get; set; } = false;
+
+        /// <summary>
+        /// Maximum cached responses; least recently used are evicted first (default: 10000)
+        /// </summary>
+        public int ResponseCacheMaxEntries { get; set; } = 10000;
+
+        /// <summary>
+        /// How long approved/rejected applications are cached (default: 24 hours)
+        /// </summary>
+        public TimeSpan FinalDecisionCacheDuration { get; set; } = TimeSpan.FromHours(24);
+
+        /// <summary>
+        /// Shortest cache duration for pending applications, also used when
+        /// citizen action is required (default: 30 seconds)
+        /// </summary>
+        public TimeSpan PendingCacheMinDuration { get; set; } = TimeSpan.FromSeconds(30);
+
+        /// <summary>
+        /// Longest cache duration for pending applications (default: 10 minutes)
+        /// </summary>
+        public TimeSpan PendingCacheMaxDuration { get; set; } = TimeSpan.FromMinutes(10);
+
+        /// <summary>
+        /// How long an "application not found" result is remembered, so repeated
+        /// lookups of a mistyped AppID do not reach the department. Only a 404
+        /// carrying the department's not-found body is cached, never a 404 from
+        /// a wrong URL (default: TimeSpan.Zero, disabled; e.g. 1 minute)
+        /// </summary>
+        public TimeSpan NotFoundCacheDuration { get; set; } = TimeSpan.Zero;
+
+        /// <summary>
+        /// Return an expired cached response immediately and refresh it in the
+        /// background; the response has IsStale set (requires EnableResponseCache,
+        /// default: false)
+        /// </summary>
+        public bool EnableStaleWhileRevalidate { get; set; } = false;
+
+        /// <summary>
+        /// Keep serving the last known response, with IsStale set, while the
+        /// department cannot be reached: an expired response is returned
+        /// immediately and refreshed in the background, so a failing department
+        /// never makes the caller wait for retries. Failed refreshes leave the
+        /// stale copy in place until StaleResponseMaxAge (requires
+        /// EnableResponseCache, default: false)
+        /// </summary>
+        public bool ServeStaleOnError { get; set; } = false;
+
+        /// <summary>
+        /// How long past its cache duration a response may still be served stale
+        /// (default: 24 hours)
+        /// </summary>
+        public TimeSpan StaleResponseMaxAge { get; set; } = TimeSpan.FromHours(24);
+
+        /// <summary>
+        /// Maximum retry attempts (default: 3)
+        /// </summary>
+        public int MaxRetries { get; set; } = 3;
 
-        private string Decrypt(string cipherText)
-        {
-            try
-            {
-                byte[] key = Encoding.UTF8.GetBytes(_encryptionKey);
-                byte[] iv = Encoding.UTF8.GetBytes(_encryptionIV);
-                byte[] data = HexStringToByteArray(cipherText);
+        /// <summary>
+        /// Base delay between retries; each retry waits a random time between this
+        /// and three times the previous delay (default: 2 seconds)
+        /// </summary>
+        public TimeSpan RetryDelay { get; set; } = TimeSpan.FromSeconds(2);
 
-                using (TripleDES tdes = TripleDES.Create())
-                {
-                    tdes.IV = iv;
-                    tdes.Key = key;
-                    tdes.Mode = CipherMode.CBC;
-                    tdes.Padding = PaddingMode.Zeros;
+        /// <summary>
+        /// Longest delay between retries. A Retry-After longer than this ends
+        /// the retries (default: 30 seconds)
+        /// </summary>
+        public TimeSpan RetryMaxDelay { get; set; } = TimeSpan.FromSeconds(30);
 
-                    using (ICryptoTransform decryptor = tdes.CreateDecryptor())
-                    {
-                        byte[] decrypted = decryptor.TransformFinalBlock(data, 0, data.Length);
-                        return Encoding.UTF8.GetString(decrypted).TrimEnd('\0');
-                    }
-                }
-            }
-            catch (Exception ex)
-            {
-                throw new DecryptionException("Failed to decrypt response data", ex);
-            }
-        }
+        /// <summary>
+        /// Retries allowed per request, averaged over the department's traffic,
+        /// so retries cannot multiply load on a failing department (default: 0.2)
+        /// </summary>
+        public double RetryBudgetRatio { get; set; } = 0.2;
 
-        private string ByteArrayToHexString(byte[] bytes)
-        {
-            string hex = BitConverter.ToString(bytes);
-            return hex.Replace("-", "");
-        }
+        /// <summary>
+        /// Retries that can be spent in a burst before the budget has to be
+        /// earned back by new requests (default: 10)
+        /// </summary>
+        public int RetryBudgetBurst { get; set; } = 10;
 
-        private byte[] HexStringToByteArray(string hex)
-        {
-            int numberChars = hex.Length;
-            byte[] bytes = new byte[numberChars / 2];
-            for (int i = 0; i < numberChars; i += 2)
-            {
-                bytes[i / 2] = Convert.ToByte(hex.Substring(i, 2), 16);
-            }
-            return bytes;
-        }
+        /// <summary>
+        /// Stop calling a department that keeps failing or responding slowly, and
+        /// fail fast (or serve stale data with ServeStaleOnError) until it recovers.
+        /// One breaker is shared by all clients with the same ApiBaseUrl; the first
+        /// client's settings apply (default: true)
+        /// </summary>
+        public bool EnableCircuitBreaker { get; set; } = true;
 
-        #endregion
+        /// <summary>
+        /// Share of failed calls in the window that opens the circuit (default: 0.5)
+        /// </summary>
+        public double CircuitBreakerFailureRateThreshold { get; set; } = 0.5;
 
-        #region Logging
+        /// <summary>
+        /// Calls slower than this count as slow (default: 10 seconds)
+        /// </summary>
+        public TimeSpan CircuitBreakerSlowCallDuration { get; set; } = TimeSpan.FromSeconds(10);
 
-        private void Log(string message)
-        {
-            if (_config.EnableLogging)
-            {
-                Console.WriteLine($"[TrackApplicationSDK] {message}");
-            }
-        }
+        /// <summary>
+        /// Share of slow calls in the window that opens the circuit (default: 0.8)
+        /// </summary>
+        public double CircuitBreakerSlowCallRateThreshold { get; set; } = 0.8;
 
-        private void LogDebug(string message)
-        {
-            if (_config.EnableLogging && _config.LogLevel == LogLevel.Debug)
-            {
-                Console.WriteLine($"[TrackApplicationSDK][DEBUG] {message}");
-            }
-        }
+        /// <summary>
+        /// Number of most recent calls the rates are computed over (default: 50)
+        /// </summary>
+        public int CircuitBreakerWindowSize { get; set; } = 50;
 
-        private void LogError(string message)
-        {
-            if (_config.EnableLogging)
-            {
-                Console.Error.WriteLine($"[TrackApplicationSDK][ERROR] {message}");
-            }
-        }
+        /// <summary>
+        /// Calls needed in the window before the circuit can open (default: 10)
+        /// </summary>
+        public int CircuitBreakerMinimumCalls { get; set; } = 10;
 
-        #endregion
+        /// <summary>
+        /// How long the circuit stays open before probe calls are let through
+        /// (default: 30 seconds)
+        /// </summary>
+        public TimeSpan CircuitBreakerBreakDuration { get; set; } = TimeSpan.FromSeconds(30);
 
-        public void Dispose()
-        {
-            _httpClient?.Dispose();
-        }
-    }
+        /// <summary>
+        /// Successful probe calls needed to close the circuit again (default: 3)
+        /// </summary>
+        public int CircuitBreakerHalfOpenProbes { get; set; } = 3;
 
-    #endregion
+        /// <summary>
+        /// Send an identical request when the first has not answered within the
+        /// department's HedgingPercentile latency, and use whichever answers first.
+        /// Trades a few extra requests for lower tail latency (default: false)
+        /// </summary>
+        public bool EnableHedging { get; set; } = false;
 
-    #region Configuration
+        /// <summary>
+        /// Latency percentile of recent calls after which a hedged request is sent
+        /// (default: 0.95)
+        /// </summary>
+        public double HedgingPercentile { get; set; } = 0.95;
 
-    /// <summary>
-    /// Configuration for Track Application API client
-    /// </summary>
-    public class ClientConfiguration
-    {
         /// <summary>
-        /// API base URL (required)
+        /// Never hedge sooner than this (default: 200 milliseconds)
         /// </summary>
-        public string ApiBaseUrl { get; set; }
+        public TimeSpan HedgingMinDelay { get; set; } = TimeSpan.FromMilliseconds(200);
 
         /// <summary>
-        /// API endpoint path (default: /api/SampleAPI/sendappstatus_encrypted)
+        /// Maximum extra requests per attempt (default: 1)
         /// </summary>
-        public string ApiEndpoint { get; set; } = "/api/SampleAPI/sendappstatus_encrypted";
+        public int MaxHedgedRequests { get; set; } = 1;
 
         /// <summary>
-        /// TripleDES encryption key (required)
+        /// Limit concurrent calls to the department to a level found from observed
+        /// latency: the limit grows while latency stays near its long-term
+        /// average and shrinks when latency rises or calls fail. Calls over the
+        /// limit queue briefly, then fail with ConcurrencyLimitExceededException.
+        /// One limiter is shared by all clients with the same ApiBaseUrl
+        /// (default: false)
         /// </summary>
-        public string EncryptionKey { get; set; }
+        public bool EnableAdaptiveConcurrency { get; set; } = false;
 
         /// <summary>
-        /// TripleDES encryption IV (required)
+        /// Starting concurrency limit before any latency is observed (default: 10)
         /// </summary>
-        public string EncryptionIV { get; set; }
+        public int InitialConcurrencyLimit { get; set; } = 10;
 
         /// <summary>
-        /// Department name (required)
+        /// Upper bound for the adaptive limit (default: 200)
         /// </summary>
-        public string DepartmentName { get; set; }
+        public int MaxConcurrencyLimit { get; set; } = 200;
 
         /// <summary>
-        /// Request timeout (default: 30 seconds)
+        /// Calls that may wait for a slot; further calls are rejected at once (default: 50)
         /// </summary>
-        public TimeSpan Timeout { get; set; } = TimeSpan.FromSeconds(30);
+        public int ConcurrencyQueueLimit { get; set; } = 50;
 
         /// <summary>
-        /// Maximum retry attempts (default: 3)
+        /// How long a queued call waits for a slot (default: 5 seconds)
         /// </summary>
-        public int MaxRetries { get; set; } = 3;
+        public TimeSpan ConcurrencyQueueTimeout { get; set; } = TimeSpan.FromSeconds(5);
 
         /// <summary>
-        /// Delay between retries (default: 2 seconds)
+        /// Custom retry policy; when null, DefaultRetryPolicy is built from the
+        /// settings above (default: null)
         /// </summary>
-        public TimeSpan RetryDelay { get; set; } = TimeSpan.FromSeconds(2);
+        public IRetryPolicy RetryPolicy { get; set; }
+
+        /// <summary>
+        /// JSON serializer for request/response payloads (default: Newtonsoft).
+        /// SystemTextJson (opt-in, .NET 6+) allocates less; other frameworks
+        /// always use Newtonsoft.
+        /// </summary>
+        public SerializerMode SerializerMode { get; set; } = SerializerMode.Newtonsoft;
 
         /// <summary>
         /// Enable logging (default: false)
@@ -462,6 +5549,31 @@ namespace MaharashtraGov.TrackApplicationAPI
         /// Log level (default: Info)
         /// </summary>
         public LogLevel LogLevel { get; set; } = LogLevel.Info;
+
+        /// <summary>
+        /// Copy of this configuration
+        /// </summary>
+        public ClientConfiguration Clone()
+        {
+            return (ClientConfiguration)MemberwiseClone();
+        }
+
+        /// <summary>
+        /// True when every setting matches the other configuration
+        /// </summary>
+        internal bool SettingsEqual(ClientConfiguration other)
+        {
+            if (other == null)
+                return false;
+
+            foreach (var property in typeof(ClientConfiguration).GetProperties())
+            {
+                if (!Equals(property.GetValue(this), property.GetValue(other)))
+                    return false;
+            }
+
+            return true;
+        }
     }
 
     /// <summary>
@@ -473,6 +5585,23 @@ namespace MaharashtraGov.TrackApplicationAPI
         Debug
     }
 
+    /// <summary>
+    /// Payload serializer selection
+    /// </summary>
+    public enum SerializerMode
+    {
+        /// <summary>
+        /// Source-generated System.Text.Json over UTF-8 buffers, with
+        /// Newtonsoft as fallback for payloads it cannot read
+        /// </summary>
+        SystemTextJson,
+
+        /// <summary>
+        /// Newtonsoft.Json only (original behaviour)
+        /// </summary>
+        Newtonsoft
+    }
+
     #endregion
 
     #region Request/Response Models (Matching V3 Specification)
@@ -616,6 +5745,14 @@ namespace MaharashtraGov.TrackApplicationAPI
         [JsonIgnore]
         public bool IsFinalDecisionMade => !string.IsNullOrEmpty(FinalDecision);
 
+        /// <summary>
+        /// Check if the application is approved or rejected (Pending is not)
+        /// </summary>
+        [JsonIgnore]
+        public bool IsClosed =>
+            FinalDecisionStatus == TrackApplicationAPI.FinalDecisionStatus.Approved
+            || FinalDecisionStatus == TrackApplicationAPI.FinalDecisionStatus.Rejected;
+
         /// <summary>
         /// Get final decision as enum
         /// </summary>
@@ -653,6 +5790,37 @@ namespace MaharashtraGov.TrackApplicationAPI
             }
         }
 
+        /// <summary>
+        /// When this status was received from the department (UTC)
+        /// </summary>
+        [JsonIgnore]
+        public DateTime RetrievedAt { get; internal set; }
+
+        /// <summary>
+        /// True when this is the last known status rather than a fresh one,
+        /// because the department was unavailable or is being re-checked.
+        /// See RetrievedAt for its age.
+        /// </summary>
+        [JsonIgnore]
+        public bool IsStale { get; internal set; }
+
+        internal ApplicationStatusResponse AsStale()
+        {
+            var copy = Clone();
+            copy.IsStale = true;
+            return copy;
+        }
+
+        /// <summary>
+        /// Copy that shares nothing mutable with this response
+        /// </summary>
+        internal ApplicationStatusResponse Clone()
+        {
+            var copy = (ApplicationStatusResponse)MemberwiseClone();
+            copy.DeskDetails = DeskDetails?.Select(desk => desk?.Clone()).ToArray();
+            return copy;
+        }
+
         #endregion
     }
 
@@ -688,16 +5856,124 @@ namespace MaharashtraGov.TrackApplicationAPI
         /// </summary>
         [JsonProperty("ReviewActionDetails")]
         public string ReviewActionDetails { get; set; }
+
+        internal DeskDetail Clone()
+        {
+            return (DeskDetail)MemberwiseClone();
+        }
+    }
+
+    #endregion
+
+    #region Serialization
+
+    /// <summary>
+    /// Serializes payloads as UTF-8 so they can be encrypted in place
+    /// </summary>
+    internal abstract class PayloadSerializer
+    {
+        public static PayloadSerializer Create(SerializerMode mode)
+        {
+#if NET6_0_OR_GREATER
+            if (mode == SerializerMode.SystemTextJson)
+                return SystemTextJsonPayloadSerializer.Instance;
+#endif
+            return NewtonsoftPayloadSerializer.Instance;
+        }
+
+        public abstract void SerializeRequest(ApplicationStatusRequest request, IBufferWriter<byte> output);
+
+        public abstract ApplicationStatusResponse DeserializeResponse(ReadOnlySpan<byte> utf8Json);
+
+        internal static string GetString(ReadOnlySpan<byte> utf8)
+        {
+#if NETCOREAPP2_1_OR_GREATER || NETSTANDARD2_1_OR_GREATER
+            return Encoding.UTF8.GetString(utf8);
+#else
+            return Encoding.UTF8.GetString(utf8.ToArray());
+#endif
+        }
+    }
+
+    /// <summary>
+    /// Newtonsoft.Json payload serializer (original wire format)
+    /// </summary>
+    internal sealed class NewtonsoftPayloadSerializer : PayloadSerializer
+    {
+        public static readonly NewtonsoftPayloadSerializer Instance = new NewtonsoftPayloadSerializer();
+
+        private static readonly JsonSerializerSettings RequestSettings = new JsonSerializerSettings
+        {
+            NullValueHandling = NullValueHandling.Include
+        };
+
+        public override void SerializeRequest(ApplicationStatusRequest request, IBufferWriter<byte> output)
+        {
+            byte[] json = Encoding.UTF8.GetBytes(JsonConvert.SerializeObject(request, RequestSettings));
+            json.CopyTo(output.GetSpan(json.Length));
+            output.Advance(json.Length);
+        }
+
+        public override ApplicationStatusResponse DeserializeResponse(ReadOnlySpan<byte> utf8Json)
+        {
+            return JsonConvert.DeserializeObject<ApplicationStatusResponse>(GetString(utf8Json));
+        }
     }
 
+#if NET6_0_OR_GREATER
     /// <summary>
-    /// Encrypted response wrapper
+    /// Source-generated System.Text.Json payload serializer.
+    /// Produces the same wire format as Newtonsoft: property names are the CLR
+    /// names (identical to the [JsonProperty] names), nulls are written, and
+    /// Marathi text is written unescaped. Falls back to Newtonsoft for
+    /// payloads it cannot read (e.g. numbers sent as strings in odd places).
     /// </summary>
-    internal class EncryptedResponse
+    internal sealed class SystemTextJsonPayloadSerializer : PayloadSerializer
+    {
+        public static readonly SystemTextJsonPayloadSerializer Instance = new SystemTextJsonPayloadSerializer();
+
+        private static readonly TrackApplicationJsonContext Context = new TrackApplicationJsonContext(
+            new Stj.JsonSerializerOptions
+            {
+                Encoder = JavaScriptEncoder.UnsafeRelaxedJsonEscaping,
+                PropertyNameCaseInsensitive = true,
+                NumberHandling = Stj.Serialization.JsonNumberHandling.AllowReadingFromString,
+                IgnoreReadOnlyProperties = true // Helper properties ([JsonIgnore] in Newtonsoft)
+            });
+
+        private static readonly Stj.JsonWriterOptions WriterOptions = new Stj.JsonWriterOptions
+        {
+            Encoder = JavaScriptEncoder.UnsafeRelaxedJsonEscaping
+        };
+
+        public override void SerializeRequest(ApplicationStatusRequest request, IBufferWriter<byte> output)
+        {
+            using (var writer = new Stj.Utf8JsonWriter(output, WriterOptions))
+            {
+                Stj.JsonSerializer.Serialize(writer, request, Context.ApplicationStatusRequest);
+            }
+        }
+
+        public override ApplicationStatusResponse DeserializeResponse(ReadOnlySpan<byte> utf8Json)
+        {
+            try
+            {
+                return Stj.JsonSerializer.Deserialize(utf8Json, Context.ApplicationStatusResponse);
+            }
+            catch (Stj.JsonException)
+            {
+                return NewtonsoftPayloadSerializer.Instance.DeserializeResponse(utf8Json);
+            }
+        }
+    }
+
+    [Stj.Serialization.JsonSerializable(typeof(ApplicationStatusRequest))]
+    [Stj.Serialization.JsonSerializable(typeof(ApplicationStatusResponse))]
+    [Stj.Serialization.JsonSerializable(typeof(DeskDetail))]
+    internal partial class TrackApplicationJsonContext : Stj.Serialization.JsonSerializerContext
     {
-        [JsonProperty("data")]
-        public string data { get; set; }
     }
+#endif
 
     #endregion
 
@@ -796,6 +6072,11 @@ namespace MaharashtraGov.TrackApplicationAPI
         public System.Net.HttpStatusCode StatusCode { get; }
         public string ResponseContent { get; }
 
+        /// <summary>
+        /// Wait requested by the server's Retry-After header, if any
+        /// </summary>
+        public TimeSpan? RetryAfter { get; internal set; }
+
         public ApiException(string message, System.Net.HttpStatusCode statusCode, string responseContent)
             : base(message)
         {
@@ -804,6 +6085,97 @@ namespace MaharashtraGov.TrackApplicationAPI
         }
     }
 
+    /// <summary>
+    /// Request rejected because the department's concurrency limit was reached
+    /// </summary>
+    public class BulkheadRejectedException : TrackApplicationException
+    {
+        public string DepartmentName { get; }
+
+        public BulkheadRejectedException(string message, string departmentName)
+            : base(message)
+        {
+            DepartmentName = departmentName;
+        }
+    }
+
+    /// <summary>
+    /// The department reported that the application does not exist (HTTP 404)
+    /// </summary>
+    public class ApplicationNotFoundException : ApiException
+    {
+        public string ApplicationId { get; }
+
+        public ApplicationNotFoundException(string applicationId, string responseContent)
+            : base($"Application not found: {applicationId}", System.Net.HttpStatusCode.NotFound, responseContent)
+        {
+            ApplicationId = applicationId;
+        }
+
+        /// <summary>
+        /// True when the body is the department's own not-found response
+        /// ({"error":"Application not found", ...} from the department template),
+        /// not a 404 for an unknown route or base URL
+        /// </summary>
+        public bool IsDepartmentNotFound
+        {
+            get
+            {
+                if (string.IsNullOrWhiteSpace(ResponseContent))
+                    return false;
+
+                try
+                {
+                    var error = Newtonsoft.Json.Linq.JObject.Parse(ResponseContent).GetValue("error", StringComparison.OrdinalIgnoreCase);
+                    return error != null
+                        && error.Type == Newtonsoft.Json.Linq.JTokenType.String
+                        && ((string)error).IndexOf("not found", StringComparison.OrdinalIgnoreCase) >= 0;
+                }
+                catch (JsonException)
+                {
+                    return false;
+                }
+            }
+        }
+    }
+
+    /// <summary>
+    /// The department's circuit is open after repeated failures; the call was not sent
+    /// </summary>
+    public class CircuitBreakerOpenException : TrackApplicationException
+    {
+        public string BaseUrl { get; }
+
+        /// <summary>
+        /// Time until the circuit lets probe calls through again
+        /// </summary>
+        public TimeSpan RetryIn { get; }
+
+        public CircuitBreakerOpenException(string message, string baseUrl, TimeSpan retryIn)
+            : base(message)
+        {
+            BaseUrl = baseUrl;
+            RetryIn = retryIn;
+        }
+    }
+
+    /// <summary>
+    /// Call shed because the department is at its adaptive concurrency limit;
+    /// the request was not sent
+    /// </summary>
+    public class ConcurrencyLimitExceededException : TrackApplicationException
+    {
+        public string BaseUrl { get; }
+        public int Limit { get; }
+
+        public ConcurrencyLimitExceededException(string message, string baseUrl, int limit)
+            : base(message)
+        {
+            BaseUrl = baseUrl;
+            Limit = limit;
+        }
+    }
+
     #endregion
 
     #region Helper Utilities
@@ -864,6 +6236,18 @@ namespace MaharashtraGov.TrackApplicationAPI
         {
             return dateTime.ToString("dd-MMM-yyyy,HH:mm:ss", System.Globalization.CultureInfo.InvariantCulture);
         }
+
+        /// <summary>
+        /// Get service name from a ServiceCatalog (see TrackApplicationCaching.cs),
+        /// or the service ID when the catalog does not know it
+        /// </summary>
+        public static string GetServiceName(ServiceCatalog catalog, string serviceId, Language language = Language.English)
+        {
+            if (catalog == null)
+                throw new ArgumentNullException(nameof(catalog));
+
+            return catalog.GetName(serviceId, language == Language.English ? "EN" : "MR") ?? serviceId;
+        }
     }
 
     #endregion